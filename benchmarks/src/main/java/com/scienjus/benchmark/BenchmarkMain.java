@@ -0,0 +1,28 @@
+package com.scienjus.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 运行基准测试，默认开启GC分析器以报告每次操作分配的字节（gc.alloc.rate.norm）。
+ * 参数与JMH命令行相同，例如 java -jar target/benchmarks.jar Parse -f 1
+ * runs the benchmarks with the GC profiler on, so allocation per operation (gc.alloc.rate.norm) is reported.
+ * takes the usual JMH command line, e.g. java -jar target/benchmarks.jar Parse -f 1
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
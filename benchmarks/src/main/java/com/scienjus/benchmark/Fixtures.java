@@ -0,0 +1,53 @@
+package com.scienjus.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 按照Api响应格式生成的测试数据，位于classpath的fixtures目录下。字段和数值分布模仿真实的响应，标题、用户和统计数据是生成的
+ * synthetic responses in the api format under fixtures/ on the classpath. fields and value ranges mimic real responses,
+ * titles, users and stats are generated
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public final class Fixtures {
+
+    /**
+     * 搜索的第一页，30件作品
+     * the first search page, 30 works
+     */
+    public static final String SEARCH = "search.json";
+
+    /**
+     * 排行榜的第一页，50件作品
+     * the first ranking page, 50 works
+     */
+    public static final String RANKING = "ranking.json";
+
+    /**
+     * 一件漫画的作品详情
+     * the detail of one manga
+     */
+    public static final String DETAIL = "detail.json";
+
+    private Fixtures() {
+    }
+
+    public static byte[] load(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("找不到测试数据：" + name);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                out.write(buffer, 0, len);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("读取测试数据失败：" + name, e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.scienjus.benchmark;
+
+import com.scienjus.client.PixivParserClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 拼接请求url的开销，固定参数已经预先编码在端点的前缀中，每个方法只追加变化的参数
+ * the cost of building request urls, the constant params are pre-encoded in the endpoint prefix and each one
+ * appends only the varying params
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlBenchmark {
+
+    private final Date date = new Date(1450051200000L);
+
+    private int page = 1;
+
+    @Benchmark
+    public String searchTag() {
+        return PixivParserClient.buildSearchUrl("VOCALOID", nextPage());
+    }
+
+    @Benchmark
+    public String searchText() {
+        return PixivParserClient.buildSearchUrl("初音ミク 10000users入り", nextPage());
+    }
+
+    /**
+     * 需要转义的关键词
+     * a key word that needs escaping
+     */
+    @Benchmark
+    public String searchEscaped() {
+        return PixivParserClient.buildSearchUrl("R&B #1 50%", nextPage());
+    }
+
+    @Benchmark
+    public String ranking() {
+        return PixivParserClient.buildRankUrl(date, nextPage());
+    }
+
+    @Benchmark
+    public String byAuthor() {
+        return PixivParserClient.buildByAuthorUrl(1184799, nextPage());
+    }
+
+    /**
+     * 页码逐次变化，避免结果被当作常量
+     * the page changes on each call so the result cannot be treated as a constant
+     */
+    private int nextPage() {
+        page = page == 100 ? 1 : page + 1;
+        return page;
+    }
+}
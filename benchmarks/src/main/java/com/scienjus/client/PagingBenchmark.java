@@ -0,0 +1,70 @@
+package com.scienjus.client;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.scienjus.benchmark.Fixtures;
+import com.scienjus.config.PixivParserConfig;
+import com.scienjus.model.ApiResponse;
+import com.scienjus.model.Work;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 取得下一页页码的开销：JSONObject上的getNextPage和绑定后的nextPage
+ * the cost of finding the next page: getNextPage over a JSONObject and nextPage over a bound page
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PagingBenchmark {
+
+    private String text;
+
+    private JSONObject tree;
+
+    private ApiResponse<Work> page;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] search = Fixtures.load(Fixtures.SEARCH);
+        text = new String(search, PixivParserConfig.CHARSET);
+        tree = JSON.parseObject(text);
+        page = ResponseReader.readPage(new ByteArrayInputStream(search), Work.class);
+    }
+
+    @Benchmark
+    public int nextPageOfTree() {
+        return PixivParserClient.getNextPage(tree);
+    }
+
+    /**
+     * 包括生成JSONObject的开销，这是getNextPage在实际使用时的代价
+     * includes building the JSONObject, which is what getNextPage really costs in use
+     */
+    @Benchmark
+    public int nextPageParsingTree() {
+        return PixivParserClient.getNextPage(JSON.parseObject(text));
+    }
+
+    @Benchmark
+    public int nextPageOfBoundPage() {
+        return PageFetcher.nextPage(page);
+    }
+}
@@ -0,0 +1,109 @@
+package com.scienjus.client;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+import com.scienjus.benchmark.Fixtures;
+import com.scienjus.config.PixivParserConfig;
+import com.scienjus.filter.FilterCompiler;
+import com.scienjus.filter.PushdownFilter;
+import com.scienjus.model.ApiResponse;
+import com.scienjus.model.RankPage;
+import com.scienjus.model.Work;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 从响应流绑定Work和Rank的开销，以及先生成字符串再绑定的做法作为对照
+ * the cost of binding Work and Rank from the response stream, against reading a String first as the baseline
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    private byte[] search;
+
+    private byte[] ranking;
+
+    private byte[] detail;
+
+    /**
+     * 只有少数作品能通过的过滤器
+     * a filter only a few works pass
+     */
+    private PushdownFilter selective;
+
+    private PushdownReader.PathNode selectivePaths;
+
+    @Setup
+    public void setUp() {
+        search = Fixtures.load(Fixtures.SEARCH);
+        ranking = Fixtures.load(Fixtures.RANKING);
+        detail = Fixtures.load(Fixtures.DETAIL);
+        selective = (PushdownFilter) FilterCompiler.compile("pageCount > 1 and favorites >= 1000");
+        selectivePaths = PushdownReader.PathNode.build(selective.getPaths());
+    }
+
+    @Benchmark
+    public ApiResponse<Work> searchPage() throws IOException {
+        return ResponseReader.readPage(new ByteArrayInputStream(search), Work.class);
+    }
+
+    @Benchmark
+    public RankPage rankingPage() throws IOException {
+        return ResponseReader.readRankPage(new ByteArrayInputStream(ranking));
+    }
+
+    @Benchmark
+    public ApiResponse<Work> workDetail() throws IOException {
+        return ResponseReader.readPage(new ByteArrayInputStream(detail), Work.class);
+    }
+
+    /**
+     * 绑定整页后再过滤，过滤器不能下推时的做法
+     * bind the whole page and filter afterwards, as when the filter cannot be pushed down
+     */
+    @Benchmark
+    public int searchPageFilterAfterBinding() throws IOException {
+        int matched = 0;
+        for (Work work : ResponseReader.readPage(new ByteArrayInputStream(search), Work.class).getResponse()) {
+            if (selective.doFilter(work)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public int searchPagePushdown() throws IOException {
+        return PushdownReader.readPage(new ByteArrayInputStream(search), selective, selectivePaths).getResponse().size();
+    }
+
+    /**
+     * 先解码为字符串再整体绑定，流式读取之前的做法
+     * decode to a String and bind it as a whole, as before the streaming reader
+     */
+    @Benchmark
+    public ApiResponse<Work> searchPageFromString() {
+        String text = new String(search, PixivParserConfig.CHARSET);
+        return JSON.parseObject(text, new TypeReference<ApiResponse<Work>>() {
+        });
+    }
+}
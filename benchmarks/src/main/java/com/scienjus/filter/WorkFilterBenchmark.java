@@ -0,0 +1,145 @@
+package com.scienjus.filter;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+import com.scienjus.benchmark.Fixtures;
+import com.scienjus.config.PixivParserConfig;
+import com.scienjus.model.ApiResponse;
+import com.scienjus.model.Work;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在大批作品上执行WorkFilter的开销。作品由搜索结果复制而来，分数、尺寸和标签随机变化，避免分支总是相同
+ * the cost of running a WorkFilter over a large batch. works are copied from the search fixture with random
+ * scores, sizes and tags so branches do not always go the same way
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkFilterBenchmark {
+
+    private static final List<String> TAGS = Arrays.asList("オリジナル", "VOCALOID", "初音ミク", "東方", "艦これ",
+            "女の子", "風景", "落書き", "創作", "ファンタジー", "猫", "制服", "背景", "空", "和服");
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private Work[] works;
+
+    private WorkFilter byScore;
+
+    private WorkFilter byTag;
+
+    private WorkFilter composite;
+
+    private WorkFilter compiled;
+
+    @Setup
+    public void setUp() {
+        String text = new String(Fixtures.load(Fixtures.SEARCH), PixivParserConfig.CHARSET);
+        Random random = new Random(size);
+        works = new Work[size];
+        int filled = 0;
+        while (filled < size) {
+            ApiResponse<Work> page = JSON.parseObject(text, new TypeReference<ApiResponse<Work>>() {
+            });
+            for (Work work : page.getResponse()) {
+                if (filled == size) {
+                    break;
+                }
+                work.getStats().setScore(random.nextInt(50000));
+                work.setWidth(600 + random.nextInt(2400));
+                work.setHeight(600 + random.nextInt(2400));
+                work.setManga(random.nextInt(5) == 0);
+                List<String> tags = new ArrayList<>();
+                for (int i = random.nextInt(8); i >= 0; i--) {
+                    tags.add(TAGS.get(random.nextInt(TAGS.size())));
+                }
+                work.setTags(tags);
+                works[filled++] = work;
+            }
+        }
+        byScore = new WorkFilter() {
+            @Override
+            public boolean doFilter(Work work) {
+                return work.getStats().getScore() >= 10000;
+            }
+        };
+        byTag = new WorkFilter() {
+            @Override
+            public boolean doFilter(Work work) {
+                return work.getTags().contains("オリジナル");
+            }
+        };
+        final Set<String> wanted = new HashSet<>(Arrays.asList("風景", "背景", "空"));
+        composite = new WorkFilter() {
+            @Override
+            public boolean doFilter(Work work) {
+                if (work.isManga() || work.getWidth() < work.getHeight() || work.getStats().getScore() < 5000) {
+                    return false;
+                }
+                for (String tag : work.getTags()) {
+                    if (wanted.contains(tag)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+        //与composite相同的条件，书写顺序故意把开销大的标签判断放在前面
+        compiled = FilterCompiler.compile("tags any (\"風景\", \"背景\", \"空\") and score >= 5000 and width >= height and not manga");
+    }
+
+    @Benchmark
+    public int score() {
+        return count(byScore);
+    }
+
+    @Benchmark
+    public int tag() {
+        return count(byTag);
+    }
+
+    @Benchmark
+    public int compositeFilter() {
+        return count(composite);
+    }
+
+    @Benchmark
+    public int compiledFilter() {
+        return count(compiled);
+    }
+
+    private int count(WorkFilter filter) {
+        int matched = 0;
+        for (Work work : works) {
+            if (filter.doFilter(work)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}
@@ -0,0 +1,46 @@
+package com.scienjus.loadtest;
+
+import com.scienjus.download.ImageSink;
+import com.scienjus.model.Work;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 丢弃图片内容的写入目标，压测时不受磁盘速度影响
+ * a sink that throws image bodies away, so disk speed does not affect the load test
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class DiscardImageSink implements ImageSink {
+
+    @Override
+    public WritableByteChannel open(Work work, int page, String url) {
+        return new WritableByteChannel() {
+            private boolean open = true;
+
+            @Override
+            public int write(ByteBuffer src) {
+                int n = src.remaining();
+                src.position(src.limit());
+                return n;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return open;
+            }
+
+            @Override
+            public void close() {
+                open = false;
+            }
+        };
+    }
+
+    @Override
+    public File locate(Work work, int page, String url) {
+        return null;
+    }
+}
@@ -0,0 +1,96 @@
+package com.scienjus.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * 定期采样已使用的堆内存，并统计期间的GC次数和时间
+ * samples used heap periodically and counts GC runs and time in between
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+class HeapSampler implements Runnable {
+
+    private static final long INTERVAL_MILLIS = 100;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    private final Thread thread = new Thread(this, "heap-sampler");
+
+    private volatile boolean running = true;
+
+    private long peak;
+
+    private long total;
+
+    private long samples;
+
+    private long gcCount;
+
+    private long gcMillis;
+
+    void start() {
+        long[] gc = gc();
+        gcCount = -gc[0];
+        gcMillis = -gc[1];
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 停止采样
+     * stop sampling
+     */
+    void stop() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join();
+        long[] gc = gc();
+        gcCount += gc[0];
+        gcMillis += gc[1];
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            long used = memory.getHeapMemoryUsage().getUsed();
+            synchronized (this) {
+                peak = Math.max(peak, used);
+                total += used;
+                samples++;
+            }
+            try {
+                Thread.sleep(INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    synchronized long getPeakBytes() {
+        return peak;
+    }
+
+    synchronized long getAverageBytes() {
+        return samples == 0 ? 0 : total / samples;
+    }
+
+    long getGcCount() {
+        return gcCount;
+    }
+
+    long getGcMillis() {
+        return gcMillis;
+    }
+
+    private static long[] gc() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+            millis += Math.max(0, bean.getCollectionTime());
+        }
+        return new long[]{count, millis};
+    }
+}
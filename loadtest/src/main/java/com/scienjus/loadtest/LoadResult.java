@@ -0,0 +1,99 @@
+package com.scienjus.loadtest;
+
+import com.scienjus.metrics.LatencySnapshot;
+import com.scienjus.metrics.MetricsSnapshot;
+
+/**
+ * 一个场景的压测结果
+ * the result of one scenario
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class LoadResult {
+
+    private static final double MB = 1024 * 1024;
+
+    private final String scenario;
+
+    private final int threads;
+
+    private final long operations;
+
+    private final long errors;
+
+    private final long elapsedMillis;
+
+    private final LatencySnapshot latency;
+
+    private final MetricsSnapshot metrics;
+
+    private final long heapPeakBytes;
+
+    private final long heapAverageBytes;
+
+    private final long gcCount;
+
+    private final long gcMillis;
+
+    private final String firstError;
+
+    LoadResult(String scenario, int threads, long operations, long errors, long elapsedMillis, LatencySnapshot latency,
+               MetricsSnapshot metrics, HeapSampler heap, String firstError) {
+        this.scenario = scenario;
+        this.threads = threads;
+        this.operations = operations;
+        this.errors = errors;
+        this.elapsedMillis = elapsedMillis;
+        this.latency = latency;
+        this.metrics = metrics;
+        this.heapPeakBytes = heap.getPeakBytes();
+        this.heapAverageBytes = heap.getAverageBytes();
+        this.gcCount = heap.getGcCount();
+        this.gcMillis = heap.getGcMillis();
+        this.firstError = firstError;
+    }
+
+    public String getScenario() {
+        return scenario;
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getThroughput() {
+        return elapsedMillis <= 0 ? 0 : operations * 1000.0 / elapsedMillis;
+    }
+
+    public LatencySnapshot getLatency() {
+        return latency;
+    }
+
+    public MetricsSnapshot getMetrics() {
+        return metrics;
+    }
+
+    public long getHeapPeakBytes() {
+        return heapPeakBytes;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("== ").append(scenario).append(" (").append(threads).append(" threads, ")
+                .append(elapsedMillis).append("ms) ==\n");
+        builder.append(String.format("operations: %d, errors: %d, throughput: %.1f/s%n", operations, errors, getThroughput()));
+        builder.append("latency: ").append(latency).append("\n");
+        builder.append(String.format("heap: peak %.1fMB, average %.1fMB, gc %d runs / %dms%n",
+                heapPeakBytes / MB, heapAverageBytes / MB, gcCount, gcMillis));
+        if (firstError != null) {
+            builder.append("first error: ").append(firstError).append("\n");
+        }
+        builder.append(metrics);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.scienjus.loadtest;
+
+import com.scienjus.client.PixivParserClient;
+import com.scienjus.metrics.InMemoryMetrics;
+import com.scienjus.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 用固定数量的线程持续执行场景，预热之后开始计时
+ * runs a scenario from a fixed number of threads, timing starts after the warmup
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class LoadRunner {
+
+    private final PixivParserClient client;
+
+    private final InMemoryMetrics metrics;
+
+    private final int threads;
+
+    private final long warmupMillis;
+
+    private final long durationMillis;
+
+    public LoadRunner(PixivParserClient client, InMemoryMetrics metrics, int threads, long warmupMillis, long durationMillis) {
+        this.client = client;
+        this.metrics = metrics;
+        this.threads = threads;
+        this.warmupMillis = warmupMillis;
+        this.durationMillis = durationMillis;
+    }
+
+    public LoadResult run(final Scenario scenario) throws Exception {
+        scenario.prepare(client);
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong operations = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicReference<String> firstError = new AtomicReference<>();
+        final long start = System.currentTimeMillis();
+        final long measureFrom = start + warmupMillis;
+        final long end = measureFrom + durationMillis;
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    while (System.currentTimeMillis() < end && !Thread.currentThread().isInterrupted()) {
+                        long begin = System.nanoTime();
+                        boolean success = true;
+                        try {
+                            scenario.operation(client);
+                        } catch (InterruptedException e) {
+                            return;
+                        } catch (Exception e) {
+                            success = false;
+                            firstError.compareAndSet(null, e.toString());
+                        }
+                        //预热期间的操作不计入结果
+                        if (System.currentTimeMillis() >= measureFrom) {
+                            latency.record(System.nanoTime() - begin);
+                            operations.incrementAndGet();
+                            if (!success) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                    }
+                }
+            }, "load-" + scenario.name() + "-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        TimeUnit.MILLISECONDS.sleep(warmupMillis);
+        metrics.reset();
+        HeapSampler heap = new HeapSampler();
+        heap.start();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.currentTimeMillis() - measureFrom;
+        heap.stop();
+        return new LoadResult(scenario.name(), threads, operations.get(), errors.get(), elapsed,
+                latency.snapshot(), metrics.snapshot(), heap, firstError.get());
+    }
+}
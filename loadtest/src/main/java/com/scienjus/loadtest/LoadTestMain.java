@@ -0,0 +1,144 @@
+package com.scienjus.loadtest;
+
+import com.scienjus.client.PixivParserClient;
+import com.scienjus.metrics.InMemoryMetrics;
+import com.scienjus.param.DownloadParam;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 启动模拟服务器，让客户端指向它并依次运行场景。
+ * 用法：java -jar target/loadtest.jar [search|author|ranking|download|all ...] [--threads 16] [--duration 30] ...
+ * starts the mock server, points the client at it and runs the scenarios in turn.
+ * usage: java -jar target/loadtest.jar [search|author|ranking|download|all ...] [--threads 16] [--duration 30] ...
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class LoadTestMain {
+
+    private static final String USAGE = "usage: [search|author|ranking|download|all ...]\n" +
+            "  --threads 16         concurrent callers\n" +
+            "  --warmup 5           seconds before measuring\n" +
+            "  --duration 30        seconds measured per scenario\n" +
+            "  --latency 50         server latency in ms\n" +
+            "  --jitter 20          extra random latency in ms\n" +
+            "  --pages 5            pages of each listing\n" +
+            "  --caption-bytes 200  caption size of each work\n" +
+            "  --image-bytes 262144 size of each image\n" +
+            "  --error-rate 0       share of 500 responses\n" +
+            "  --throttle-rate 0    share of 429 responses\n" +
+            "  --api-rate 1000      client api requests per second\n" +
+            "  --image-rate 1000    client image requests per second";
+
+    public static void main(String[] args) throws Exception {
+        List<String> names = new ArrayList<>();
+        MockConfig mock = new MockConfig();
+        int threads = 16;
+        long warmup = 5;
+        long duration = 30;
+        long latency = mock.getLatencyMillis();
+        long jitter = mock.getJitterMillis();
+        double apiRate = 1000;
+        double imageRate = 1000;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                if ("all".equals(arg)) {
+                    names.addAll(Scenarios.names());
+                } else {
+                    names.add(arg);
+                }
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                exit("missing value of " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--warmup":
+                    warmup = Long.parseLong(value);
+                    break;
+                case "--duration":
+                    duration = Long.parseLong(value);
+                    break;
+                case "--latency":
+                    latency = Long.parseLong(value);
+                    break;
+                case "--jitter":
+                    jitter = Long.parseLong(value);
+                    break;
+                case "--pages":
+                    mock.withPages(Integer.parseInt(value));
+                    break;
+                case "--caption-bytes":
+                    mock.withCaptionBytes(Integer.parseInt(value));
+                    break;
+                case "--image-bytes":
+                    mock.withImageBytes(Integer.parseInt(value));
+                    break;
+                case "--error-rate":
+                    mock.withErrorRate(Double.parseDouble(value));
+                    break;
+                case "--throttle-rate":
+                    mock.withThrottleRate(Double.parseDouble(value));
+                    break;
+                case "--api-rate":
+                    apiRate = Double.parseDouble(value);
+                    break;
+                case "--image-rate":
+                    imageRate = Double.parseDouble(value);
+                    break;
+                default:
+                    exit("unknown option " + arg);
+            }
+        }
+        if (names.isEmpty()) {
+            names.addAll(Scenarios.names());
+        }
+        mock.withLatency(latency, jitter);
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String name : names) {
+            scenarios.add(Scenarios.byName(name));
+        }
+
+        try (MockPixivServer server = new MockPixivServer(mock)) {
+            server.start();
+            System.out.println("mock server at " + server.getBaseUrl() + ": " + mock);
+
+            PixivParserClient client = new PixivParserClient();
+            try {
+                client.setApiBase(server.getBaseUrl());
+                client.setOAuthBase(server.getBaseUrl());
+                InMemoryMetrics metrics = new InMemoryMetrics();
+                client.setMetrics(metrics);
+                client.getApiRateLimiter().setMaxRate(apiRate);
+                client.setDownloadParam(new DownloadParam().withRateLimit(imageRate));
+                client.setUsername("loadtest");
+                client.setPassword("loadtest");
+                if (!client.login()) {
+                    exit("login failed");
+                }
+                LoadRunner runner = new LoadRunner(client, metrics, threads, warmup * 1000, duration * 1000);
+                for (Scenario scenario : scenarios) {
+                    System.out.println(runner.run(scenario));
+                    System.out.println();
+                }
+            } finally {
+                client.close();
+            }
+            System.out.println(String.format("server: %d requests, %d injected 500, %d injected 429, %.1fMB sent",
+                    server.getRequests(), server.getInjectedErrors(), server.getInjectedThrottles(),
+                    server.getBytesSent() / 1024.0 / 1024.0));
+        }
+    }
+
+    private static void exit(String message) {
+        System.err.println(message);
+        System.err.println(USAGE);
+        System.exit(1);
+    }
+}
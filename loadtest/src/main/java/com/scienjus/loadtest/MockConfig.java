@@ -0,0 +1,153 @@
+package com.scienjus.loadtest;
+
+/**
+ * 模拟服务器的行为：延迟、页数、数据大小和注入的错误
+ * how the mock server behaves: latency, page counts, payload sizes and injected errors
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class MockConfig {
+
+    private long latencyMillis = 50;
+
+    private long jitterMillis = 20;
+
+    private int pages = 5;
+
+    private int captionBytes = 200;
+
+    private int imageBytes = 256 * 1024;
+
+    private double errorRate;
+
+    private double throttleRate;
+
+    private int serverThreads = 128;
+
+    /**
+     * 每个响应的延迟，在latencyMillis上随机增加0到jitterMillis
+     * the delay of each response, latencyMillis plus a random 0 to jitterMillis
+     * @param latencyMillis
+     * @param jitterMillis
+     * @return
+     */
+    public MockConfig withLatency(long latencyMillis, long jitterMillis) {
+        if (latencyMillis < 0 || jitterMillis < 0) {
+            throw new IllegalArgumentException("invalid latency: " + latencyMillis + ", " + jitterMillis);
+        }
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        return this;
+    }
+
+    /**
+     * 搜索、作者作品和排行榜的页数
+     * pages of search, author works and ranking
+     * @param pages
+     * @return
+     */
+    public MockConfig withPages(int pages) {
+        if (pages < 1) {
+            throw new IllegalArgumentException("pages must be positive: " + pages);
+        }
+        this.pages = pages;
+        return this;
+    }
+
+    /**
+     * 每件作品简介的字节数，用来调整Api响应的大小
+     * bytes of each work caption, which sets the size of api responses
+     * @param captionBytes
+     * @return
+     */
+    public MockConfig withCaptionBytes(int captionBytes) {
+        if (captionBytes < 0) {
+            throw new IllegalArgumentException("captionBytes must not be negative: " + captionBytes);
+        }
+        this.captionBytes = captionBytes;
+        return this;
+    }
+
+    public MockConfig withImageBytes(int imageBytes) {
+        if (imageBytes < 1) {
+            throw new IllegalArgumentException("imageBytes must be positive: " + imageBytes);
+        }
+        this.imageBytes = imageBytes;
+        return this;
+    }
+
+    /**
+     * 返回500的比例
+     * the share of responses that are 500
+     * @param errorRate
+     * @return
+     */
+    public MockConfig withErrorRate(double errorRate) {
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("errorRate must be in [0, 1]: " + errorRate);
+        }
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * 返回429的比例
+     * the share of responses that are 429
+     * @param throttleRate
+     * @return
+     */
+    public MockConfig withThrottleRate(double throttleRate) {
+        if (throttleRate < 0 || throttleRate > 1) {
+            throw new IllegalArgumentException("throttleRate must be in [0, 1]: " + throttleRate);
+        }
+        this.throttleRate = throttleRate;
+        return this;
+    }
+
+    public MockConfig withServerThreads(int serverThreads) {
+        if (serverThreads < 1) {
+            throw new IllegalArgumentException("serverThreads must be positive: " + serverThreads);
+        }
+        this.serverThreads = serverThreads;
+        return this;
+    }
+
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public long getJitterMillis() {
+        return jitterMillis;
+    }
+
+    public int getPages() {
+        return pages;
+    }
+
+    public int getCaptionBytes() {
+        return captionBytes;
+    }
+
+    public int getImageBytes() {
+        return imageBytes;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public double getThrottleRate() {
+        return throttleRate;
+    }
+
+    public int getServerThreads() {
+        return serverThreads;
+    }
+
+    @Override
+    public String toString() {
+        return "latency=" + latencyMillis + "+" + jitterMillis + "ms, pages=" + pages +
+                ", captionBytes=" + captionBytes + ", imageBytes=" + imageBytes +
+                ", errorRate=" + errorRate + ", throttleRate=" + throttleRate;
+    }
+}
@@ -0,0 +1,447 @@
+package com.scienjus.loadtest;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 代替PixivParserConfig中各地址的本地服务器：认证、作品详情、搜索、作者作品、排行榜和图片。
+ * 作品由请求的参数确定性地生成，同一页每次返回相同的数据
+ * a local stand-in for the PixivParserConfig endpoints: oauth, work detail, search, author works, ranking and images.
+ * works are generated deterministically from the request, the same page always returns the same data
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class MockPixivServer implements Closeable {
+
+    private static final Pattern DETAIL = Pattern.compile("/v1/works/(\\d+)\\.json");
+
+    private static final Pattern AUTHOR = Pattern.compile("/v1/users/(\\d+)/works\\.json");
+
+    private static final Pattern IMAGE = Pattern.compile("/img/(\\d+)_p(\\d+)\\.jpg");
+
+    private static final int RANK_PER_PAGE = 50;
+
+    private static final String[] TAGS = {"オリジナル", "VOCALOID", "初音ミク", "東方", "艦これ", "女の子", "風景",
+            "落書き", "創作", "ファンタジー", "猫", "制服", "背景", "空", "和服"};
+
+    private final MockConfig config;
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final String caption;
+
+    private final byte[] image;
+
+    /**
+     * 生成过的页，避免服务器自身的开销影响结果
+     * pages generated so far, so the cost of the server itself does not skew the results
+     */
+    private final ConcurrentMap<String, byte[]> pageCache = new ConcurrentHashMap<>();
+
+    /**
+     * 错误响应的内容。不带内容的响应会让JDK的服务器关闭连接，客户端会看到NoHttpResponseException
+     * the body of error responses. the JDK server closes the connection after an empty response, which the client sees as NoHttpResponseException
+     */
+    private static final byte[] FAILURE = "{\"status\":\"failure\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    private final AtomicLong injectedThrottles = new AtomicLong();
+
+    private final AtomicLong bytesSent = new AtomicLong();
+
+    public MockPixivServer(MockConfig config) throws IOException {
+        this.config = config;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        this.executor = Executors.newFixedThreadPool(config.getServerThreads());
+        this.server.setExecutor(executor);
+        char[] text = new char[config.getCaptionBytes()];
+        Arrays.fill(text, 'x');
+        this.caption = new String(text);
+        this.image = new byte[config.getImageBytes()];
+        new Random(0).nextBytes(image);
+        server.createContext("/auth/token", new MockHandler(false) {
+            @Override
+            void serve(HttpExchange exchange, String path, Map<String, String> params) throws IOException {
+                drain(exchange.getRequestBody());
+                JSONObject token = new JSONObject();
+                token.put("access_token", "mock-" + Long.toHexString(ThreadLocalRandom.current().nextLong()));
+                token.put("refresh_token", "mock-refresh");
+                token.put("expires_in", 3600);
+                JSONObject body = new JSONObject();
+                body.put("response", token);
+                send(exchange, 200, JSON.toJSONBytes(body));
+            }
+        });
+        server.createContext("/v1/", new MockHandler(true) {
+            @Override
+            void serve(HttpExchange exchange, String path, Map<String, String> params) throws IOException {
+                byte[] body = api(path, params);
+                if (body == null) {
+                    send(exchange, 404, FAILURE);
+                } else {
+                    send(exchange, 200, body);
+                }
+            }
+        });
+        server.createContext("/img/", new MockHandler(false) {
+            @Override
+            void serve(HttpExchange exchange, String path, Map<String, String> params) throws IOException {
+                if (!IMAGE.matcher(path).matches()) {
+                    send(exchange, 404, FAILURE);
+                    return;
+                }
+                serveImage(exchange);
+            }
+        });
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * 服务器地址，例如http://127.0.0.1:12345
+     * the server address, e.g. http://127.0.0.1:12345
+     * @return
+     */
+    public String getBaseUrl() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getAddress().getHostAddress() + ":" + address.getPort();
+    }
+
+    public MockConfig getConfig() {
+        return config;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    public long getInjectedThrottles() {
+        return injectedThrottles.get();
+    }
+
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private byte[] api(String path, Map<String, String> params) {
+        int page = intParam(params, "page", 1);
+        Matcher matcher = DETAIL.matcher(path);
+        if (matcher.matches()) {
+            int workId = Integer.parseInt(matcher.group(1));
+            JSONObject body = new JSONObject();
+            body.put("status", "success");
+            body.put("response", new JSONArray(Arrays.<Object>asList(work(workId))));
+            body.put("count", 1);
+            return JSON.toJSONBytes(body);
+        }
+        if ("/v1/search/works.json".equals(path)) {
+            String q = params.get("q");
+            return listing("search:" + q + ":" + page, (q == null ? 0 : q.hashCode()), page, intParam(params, "per_page", 30));
+        }
+        matcher = AUTHOR.matcher(path);
+        if (matcher.matches()) {
+            return listing("author:" + matcher.group(1) + ":" + page, Integer.parseInt(matcher.group(1)), page,
+                    intParam(params, "per_page", 30));
+        }
+        if ("/v1/ranking/all".equals(path)) {
+            String date = params.get("date");
+            return ranking("ranking:" + date + ":" + page, date, page);
+        }
+        return null;
+    }
+
+    private byte[] listing(String key, int seed, int page, int perPage) {
+        byte[] cached = pageCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        JSONArray works = new JSONArray();
+        for (int i = 0; i < perPage; i++) {
+            works.add(work(workId(seed, page, i, perPage)));
+        }
+        JSONObject body = new JSONObject();
+        body.put("status", "success");
+        body.put("response", works);
+        body.put("count", perPage);
+        body.put("pagination", pagination(page, perPage));
+        return cache(key, JSON.toJSONBytes(body));
+    }
+
+    private byte[] ranking(String key, String date, int page) {
+        byte[] cached = pageCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        int seed = date == null ? 0 : date.hashCode();
+        JSONArray works = new JSONArray();
+        for (int i = 0; i < RANK_PER_PAGE; i++) {
+            JSONObject rankWork = new JSONObject();
+            rankWork.put("rank", (page - 1) * RANK_PER_PAGE + i + 1);
+            rankWork.put("previous_rank", 0);
+            rankWork.put("work", work(workId(seed, page, i, RANK_PER_PAGE)));
+            works.add(rankWork);
+        }
+        JSONObject rank = new JSONObject();
+        rank.put("content", "all");
+        rank.put("mode", "daily");
+        rank.put("date", date);
+        rank.put("works", works);
+        JSONObject body = new JSONObject();
+        body.put("status", "success");
+        body.put("response", new JSONArray(Arrays.<Object>asList(rank)));
+        body.put("count", RANK_PER_PAGE);
+        body.put("pagination", pagination(page, RANK_PER_PAGE));
+        return cache(key, JSON.toJSONBytes(body));
+    }
+
+    private byte[] cache(String key, byte[] body) {
+        byte[] previous = pageCache.putIfAbsent(key, body);
+        return previous == null ? body : previous;
+    }
+
+    private JSONObject pagination(int page, int perPage) {
+        JSONObject pagination = new JSONObject();
+        pagination.put("previous", page > 1 ? page - 1 : null);
+        pagination.put("next", page < config.getPages() ? page + 1 : null);
+        pagination.put("current", page);
+        pagination.put("per_page", perPage);
+        pagination.put("total", config.getPages() * perPage);
+        pagination.put("pages", config.getPages());
+        return pagination;
+    }
+
+    /**
+     * 作品id随页码递减，与真实的Api一样新作品在前
+     * work ids decrease with the page, newest first like the real api
+     */
+    private static int workId(int seed, int page, int index, int perPage) {
+        return 50000000 + ((seed & 0x7fff) << 10) * 10 - (page - 1) * perPage - index;
+    }
+
+    private JSONObject work(int workId) {
+        Random random = new Random(workId);
+        boolean manga = random.nextInt(5) == 0;
+        int pages = manga ? 2 + random.nextInt(4) : 1;
+        int score = random.nextInt(50000);
+        JSONObject work = new JSONObject();
+        work.put("id", workId);
+        work.put("title", "作品" + workId);
+        work.put("caption", caption);
+        JSONArray tags = new JSONArray();
+        for (int i = random.nextInt(6); i >= 0; i--) {
+            tags.add(TAGS[random.nextInt(TAGS.length)]);
+        }
+        work.put("tags", tags);
+        work.put("tools", new JSONArray(Arrays.<Object>asList("SAI")));
+        work.put("image_urls", imageUrls(workId, 0));
+        work.put("width", 600 + random.nextInt(2400));
+        work.put("height", 600 + random.nextInt(2400));
+        JSONObject stats = new JSONObject();
+        stats.put("scored_count", score / 10);
+        stats.put("score", score);
+        stats.put("views_count", score * 5);
+        work.put("stats", stats);
+        work.put("publicity", 0);
+        work.put("age_limit", "all-age");
+        work.put("created_time", "2015-12-14 12:00:00");
+        work.put("reuploaded_time", "2015-12-14 12:00:00");
+        JSONObject user = new JSONObject();
+        user.put("id", 1000 + random.nextInt(100000));
+        user.put("account", "mock");
+        user.put("name", "mock");
+        work.put("user", user);
+        work.put("is_manga", manga);
+        work.put("page_count", pages);
+        work.put("type", manga ? "manga" : "illustration");
+        if (manga) {
+            JSONArray pageList = new JSONArray();
+            for (int i = 0; i < pages; i++) {
+                JSONObject p = new JSONObject();
+                p.put("image_urls", imageUrls(workId, i));
+                pageList.add(p);
+            }
+            JSONObject metadata = new JSONObject();
+            metadata.put("pages", pageList);
+            work.put("metadata", metadata);
+        }
+        work.put("sanity_level", "white");
+        return work;
+    }
+
+    private JSONObject imageUrls(int workId, int page) {
+        String url = getBaseUrl() + "/img/" + workId + "_p" + page + ".jpg";
+        JSONObject urls = new JSONObject();
+        urls.put("px_128x128", url);
+        urls.put("px_480mw", url);
+        urls.put("small", url);
+        urls.put("medium", url);
+        urls.put("large", url);
+        return urls;
+    }
+
+    /**
+     * 图片，支持bytes=start-形式的Range
+     * an image, supports Range of the form bytes=start-
+     */
+    private void serveImage(HttpExchange exchange) throws IOException {
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        int start = 0;
+        if (range != null && range.startsWith("bytes=") && range.endsWith("-")) {
+            start = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+        }
+        exchange.getResponseHeaders().set("Content-Type", "image/jpeg");
+        exchange.getResponseHeaders().set("ETag", "\"mock-image\"");
+        if (start >= image.length) {
+            exchange.getResponseHeaders().set("Content-Range", "bytes */" + image.length);
+            send(exchange, 416, FAILURE);
+        } else if (start > 0) {
+            exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + (image.length - 1) + "/" + image.length);
+            send(exchange, 206, Arrays.copyOfRange(image, start, image.length));
+        } else {
+            send(exchange, 200, image);
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        if (status == 200 && exchange.getResponseHeaders().getFirst("Content-Type") == null) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        }
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            bytesSent.addAndGet(body.length);
+        }
+        exchange.close();
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[1024];
+        while (in.read(buffer) != -1) {
+            //丢弃请求体
+        }
+    }
+
+    private static int intParam(Map<String, String> params, String name, int defaultValue) {
+        String value = params.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+            try {
+                params.put(URLDecoder.decode(pair.substring(0, eq), "UTF-8"), URLDecoder.decode(pair.substring(eq + 1), "UTF-8"));
+            } catch (IllegalArgumentException | IOException e) {
+                params.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        return params;
+    }
+
+    /**
+     * 一类请求的处理：统计、延迟、错误注入和认证检查，之后交给serve
+     * the handling shared by every endpoint: counting, latency, error injection and the auth check before serve
+     */
+    private abstract class MockHandler implements HttpHandler {
+
+        private final boolean authenticated;
+
+        MockHandler(boolean authenticated) {
+            this.authenticated = authenticated;
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try {
+                requests.incrementAndGet();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long delay = config.getLatencyMillis() + (config.getJitterMillis() > 0 ? random.nextLong(config.getJitterMillis() + 1) : 0);
+                if (delay > 0) {
+                    TimeUnit.MILLISECONDS.sleep(delay);
+                }
+                if (random.nextDouble() < config.getThrottleRate()) {
+                    injectedThrottles.incrementAndGet();
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                    send(exchange, 429, FAILURE);
+                    return;
+                }
+                if (random.nextDouble() < config.getErrorRate()) {
+                    injectedErrors.incrementAndGet();
+                    send(exchange, 500, FAILURE);
+                    return;
+                }
+                if (authenticated && exchange.getRequestHeaders().getFirst("Authorization") == null) {
+                    send(exchange, 401, FAILURE);
+                    return;
+                }
+                serve(exchange, exchange.getRequestURI().getPath(), parseQuery(exchange.getRequestURI().getRawQuery()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.close();
+            } catch (RuntimeException e) {
+                send(exchange, 500, FAILURE);
+            }
+        }
+
+        abstract void serve(HttpExchange exchange, String path, Map<String, String> params) throws IOException;
+    }
+}
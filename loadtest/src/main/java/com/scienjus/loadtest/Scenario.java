@@ -0,0 +1,30 @@
+package com.scienjus.loadtest;
+
+import com.scienjus.client.PixivParserClient;
+
+/**
+ * 压测场景，每次operation是一次被计时的操作，会被多个线程同时调用
+ * a load test scenario, each operation is one timed unit of work called from many threads at once
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public interface Scenario {
+
+    String name();
+
+    /**
+     * 开始计时前的准备，只调用一次
+     * preparation before timing starts, called once
+     * @param client
+     * @throws Exception
+     */
+    void prepare(PixivParserClient client) throws Exception;
+
+    /**
+     * 一次操作，抛出异常表示失败
+     * one operation, throwing means it failed
+     * @param client
+     * @throws Exception
+     */
+    void operation(PixivParserClient client) throws Exception;
+}
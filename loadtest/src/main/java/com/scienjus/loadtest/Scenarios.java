@@ -0,0 +1,175 @@
+package com.scienjus.loadtest;
+
+import com.scienjus.callback.TransferCallback;
+import com.scienjus.client.PixivParserClient;
+import com.scienjus.download.ImageSink;
+import com.scienjus.download.ImageTransfer;
+import com.scienjus.model.Work;
+import com.scienjus.param.ParserParam;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 内置的场景：search、author、ranking和download。分页场景使用异步方法，失败会被计入而不是返回部分结果
+ * the built in scenarios: search, author, ranking and download. paged scenarios go through the async methods
+ * so failures are counted instead of turning into partial results
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public final class Scenarios {
+
+    private static final List<String> KEYWORDS = Arrays.asList("VOCALOID", "オリジナル", "東方", "風景", "艦これ",
+            "女の子", "猫", "空");
+
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private Scenarios() {
+    }
+
+    public static List<String> names() {
+        return Arrays.asList("search", "author", "ranking", "download");
+    }
+
+    public static Scenario byName(String name) {
+        switch (name) {
+            case "search":
+                return search();
+            case "author":
+                return byAuthor();
+            case "ranking":
+                return ranking();
+            case "download":
+                return download();
+            default:
+                throw new IllegalArgumentException("unknown scenario: " + name + ", expected one of " + names());
+        }
+    }
+
+    /**
+     * 随机关键词搜索所有页
+     * search every page of a random key word
+     */
+    public static Scenario search() {
+        return new PagedScenario("search") {
+            @Override
+            public void operation(PixivParserClient client) throws Exception {
+                String keyWord = KEYWORDS.get(ThreadLocalRandom.current().nextInt(KEYWORDS.size()));
+                client.searchAsync(keyWord, new ParserParam()).get();
+            }
+        };
+    }
+
+    /**
+     * 随机作者的所有作品
+     * every work of a random author
+     */
+    public static Scenario byAuthor() {
+        return new PagedScenario("author") {
+            @Override
+            public void operation(PixivParserClient client) throws Exception {
+                client.byAuthorAsync(1 + ThreadLocalRandom.current().nextInt(100000), new ParserParam()).get();
+            }
+        };
+    }
+
+    /**
+     * 最近一年中随机一天的排行榜
+     * the ranking of a random day in the last year
+     */
+    public static Scenario ranking() {
+        return new PagedScenario("ranking") {
+            @Override
+            public void operation(PixivParserClient client) throws Exception {
+                long day = 1 + ThreadLocalRandom.current().nextInt(365);
+                client.rankingAsync(new Date(System.currentTimeMillis() - day * DAY_MILLIS)).get();
+            }
+        };
+    }
+
+    /**
+     * 依次下载搜索结果中的作品，每次操作等待一件作品的所有页下载完成
+     * download the works of a search in turn, each operation waits for every page of one work
+     */
+    public static Scenario download() {
+        return new Scenario() {
+
+            private final ImageSink sink = new DiscardImageSink();
+
+            private final AtomicInteger next = new AtomicInteger();
+
+            private List<Work> works;
+
+            @Override
+            public String name() {
+                return "download";
+            }
+
+            @Override
+            public void prepare(PixivParserClient client) throws Exception {
+                works = new ArrayList<>(client.searchAsync("download", new ParserParam()).get());
+                if (works.isEmpty()) {
+                    throw new IllegalStateException("没有可以下载的作品");
+                }
+            }
+
+            @Override
+            public void operation(PixivParserClient client) throws Exception {
+                Work work = works.get((next.getAndIncrement() & Integer.MAX_VALUE) % works.size());
+                final CountDownLatch done = new CountDownLatch(1);
+                final AtomicReference<Exception> error = new AtomicReference<>();
+                client.download(work, sink, new TransferCallback() {
+                    @Override
+                    public void onIllustFinished(Work work, ImageTransfer transfer) {
+                        check(transfer);
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void onMangaFinished(Work work, List<ImageTransfer> transfers) {
+                        for (ImageTransfer transfer : transfers) {
+                            check(transfer);
+                        }
+                        done.countDown();
+                    }
+
+                    private void check(ImageTransfer transfer) {
+                        if (!transfer.isSuccess()) {
+                            error.compareAndSet(null, transfer.getError());
+                        }
+                    }
+                });
+                done.await();
+                if (error.get() != null) {
+                    throw new IOException("下载失败：" + error.get().getMessage(), error.get());
+                }
+            }
+        };
+    }
+
+    private abstract static class PagedScenario implements Scenario {
+
+        private final String name;
+
+        PagedScenario(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void prepare(PixivParserClient client) {
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.scienjus.auth;
+
+/**
+ * 登录获得的鉴权Token
+ * the access token returned by login
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class AccessToken {
+
+    private final String accessToken;
+
+    private final String refreshToken;
+
+    /**
+     * 过期时间（毫秒时间戳），未知时为Long.MAX_VALUE
+     * when the token expires (epoch millis), Long.MAX_VALUE when unknown
+     */
+    private final long expiresAt;
+
+    public AccessToken(String accessToken, String refreshToken, long expiresAt) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * 在margin毫秒内是否会过期
+     * whether the token expires within margin milliseconds
+     * @param margin
+     * @param now
+     * @return
+     */
+    public boolean isExpiring(long margin, long now) {
+        return expiresAt - margin <= now;
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+}
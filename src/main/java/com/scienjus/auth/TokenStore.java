@@ -0,0 +1,98 @@
+package com.scienjus.auth;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * 将Token保存在文件中，重启后未过期的Token可以直接使用，不需要再次登录
+ * keeps the token in a file, an unexpired token is reused after a restart without logging in again
+ * <p>
+ * 文件中保存了Token，请注意文件的权限
+ * the file holds a credential, mind its permissions
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class TokenStore {
+
+    private static final String USERNAME = "username";
+
+    private static final String ACCESS_TOKEN = "accessToken";
+
+    private static final String REFRESH_TOKEN = "refreshToken";
+
+    private static final String EXPIRES_AT = "expiresAt";
+
+    private final File file;
+
+    public TokenStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * 读取某个用户的Token，不存在或属于其他用户时返回null
+     * load the token of a user, null when absent or owned by another user
+     * @param username
+     * @return
+     * @throws IOException
+     */
+    public synchronized AccessToken load(String username) throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        }
+        String accessToken = properties.getProperty(ACCESS_TOKEN);
+        if (accessToken == null || username == null || !username.equals(properties.getProperty(USERNAME))) {
+            return null;
+        }
+        try {
+            return new AccessToken(accessToken, properties.getProperty(REFRESH_TOKEN),
+                    Long.parseLong(properties.getProperty(EXPIRES_AT, "0")));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 保存Token，先写入临时文件再替换，写到一半时不会损坏原来的文件
+     * save the token through a temporary file, a half-written save never corrupts the old one
+     * @param username
+     * @param token
+     * @throws IOException
+     */
+    public synchronized void save(String username, AccessToken token) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(USERNAME, username);
+        properties.setProperty(ACCESS_TOKEN, token.getAccessToken());
+        if (token.getRefreshToken() != null) {
+            properties.setProperty(REFRESH_TOKEN, token.getRefreshToken());
+        }
+        properties.setProperty(EXPIRES_AT, String.valueOf(token.getExpiresAt()));
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("无法创建目录：" + parent);
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            properties.store(out, null);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public synchronized void clear() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    public File getFile() {
+        return file;
+    }
+}
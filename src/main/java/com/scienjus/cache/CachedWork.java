@@ -0,0 +1,79 @@
+package com.scienjus.cache;
+
+import com.scienjus.model.Work;
+
+/**
+ * 缓存中的一件作品，以及用于重新验证的ETag和Last-Modified
+ * a cached work together with the ETag and Last-Modified used to revalidate it
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class CachedWork {
+
+    private final Work work;
+
+    private final String etag;
+
+    private final String lastModified;
+
+    /**
+     * 从服务器获取或验证的时间
+     * when the work was fetched or revalidated
+     */
+    private final long fetchedAt;
+
+    public CachedWork(Work work, String etag, String lastModified, long fetchedAt) {
+        this.work = work;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.fetchedAt = fetchedAt;
+    }
+
+    /**
+     * 服务器确认未修改后，返回刷新了时间的副本
+     * a copy with a new timestamp, after the server confirmed it is not modified
+     * @param etag the new ETag, null to keep the current one
+     * @param lastModified the new Last-Modified, null to keep the current one
+     * @param now
+     * @return
+     */
+    public CachedWork revalidated(String etag, String lastModified, long now) {
+        return new CachedWork(work,
+                etag != null ? etag : this.etag,
+                lastModified != null ? lastModified : this.lastModified,
+                now);
+    }
+
+    public boolean isFresh(long timeToLive, long now) {
+        return now - fetchedAt < timeToLive;
+    }
+
+    /**
+     * 是否可以向服务器发送条件请求
+     * whether a conditional request can be sent to the server
+     * @return
+     */
+    public boolean isRevalidatable() {
+        return etag != null || lastModified != null;
+    }
+
+    public int getWorkId() {
+        return work.getId();
+    }
+
+    public Work getWork() {
+        return work;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+}
@@ -0,0 +1,71 @@
+package com.scienjus.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按最近访问顺序淘汰的作品缓存
+ * a work cache evicting the least recently used entry
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class LruWorkCache implements WorkCache {
+
+    private final int maxSize;
+
+    private final long timeToLive;
+
+    private final Map<Integer, CachedWork> entries;
+
+    public LruWorkCache(final int maxSize, long timeToLive, TimeUnit unit) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        if (timeToLive < 0) {
+            throw new IllegalArgumentException("timeToLive must not be negative: " + timeToLive);
+        }
+        this.maxSize = maxSize;
+        this.timeToLive = unit.toMillis(timeToLive);
+        this.entries = new LinkedHashMap<Integer, CachedWork>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CachedWork> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public synchronized CachedWork get(int workId) {
+        return entries.get(workId);
+    }
+
+    @Override
+    public synchronized void put(CachedWork entry) {
+        entries.put(entry.getWorkId(), entry);
+    }
+
+    @Override
+    public synchronized void remove(int workId) {
+        entries.remove(workId);
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+}
@@ -0,0 +1,38 @@
+package com.scienjus.cache;
+
+/**
+ * 作品详情的缓存，实现类需要保证线程安全
+ * cache of work details, implementations must be thread-safe
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public interface WorkCache {
+
+    /**
+     * 获得缓存的作品，不存在时返回null
+     * get a cached work, null when absent
+     * @param workId
+     * @return
+     */
+    CachedWork get(int workId);
+
+    /**
+     * 放入或替换一件作品
+     * put or replace a work
+     * @param entry
+     */
+    void put(CachedWork entry);
+
+    void remove(int workId);
+
+    void clear();
+
+    int size();
+
+    /**
+     * 缓存的有效期（毫秒），过期的作品会向服务器重新验证
+     * milliseconds an entry stays fresh, expired entries are revalidated against the server
+     * @return
+     */
+    long getTimeToLive();
+}
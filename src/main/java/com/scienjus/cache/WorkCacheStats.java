@@ -0,0 +1,91 @@
+package com.scienjus.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 作品缓存的命中统计
+ * hit and miss counters of the work cache
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class WorkCacheStats {
+
+    /**
+     * 未过期，没有发送请求
+     * fresh entries, no request sent
+     */
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * 过期后服务器返回304，没有重新下载
+     * expired entries the server answered with 304, nothing downloaded again
+     */
+    private final AtomicLong revalidations = new AtomicLong();
+
+    /**
+     * 缓存中没有，从持久化存储中读取
+     * not cached, read from the persistent store
+     */
+    private final AtomicLong storeHits = new AtomicLong();
+
+    /**
+     * 不存在或已修改，重新下载了详情
+     * absent or modified entries, the detail was downloaded
+     */
+    private final AtomicLong misses = new AtomicLong();
+
+    public void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    public void recordRevalidation() {
+        revalidations.incrementAndGet();
+    }
+
+    public void recordStoreHit() {
+        storeHits.incrementAndGet();
+    }
+
+    public void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getRevalidations() {
+        return revalidations.get();
+    }
+
+    public long getStoreHits() {
+        return storeHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * 没有下载详情的请求比例，包括304和从存储中读取的
+     * the ratio of lookups that downloaded no detail, 304s and store reads included
+     * @return
+     */
+    public double getHitRate() {
+        long hit = hits.get() + revalidations.get() + storeHits.get();
+        long total = hit + misses.get();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    public void reset() {
+        hits.set(0);
+        revalidations.set(0);
+        storeHits.set(0);
+        misses.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "WorkCacheStats{hits=" + hits + ", revalidations=" + revalidations + ", storeHits=" + storeHits + ", misses=" + misses + "}";
+    }
+}
@@ -12,14 +12,14 @@ import java.util.List;
 public interface DownloadCallback {
 
     /**
-     * 插画的回调（单张图）
+     * 插画的回调（单张图），下载失败时为null
      * @param work
      * @param file
      */
     void onIllustFinished(Work work, byte[] file);
 
     /**
-     * 漫画的回调（多张图）
+     * 漫画的回调（多张图），按页码排序，下载失败的页为null（实现PageErrorCallback可以收到失败原因）
      * @param work
      * @param files
      */
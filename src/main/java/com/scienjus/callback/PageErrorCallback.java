@@ -0,0 +1,20 @@
+package com.scienjus.callback;
+
+import com.scienjus.model.Work;
+
+/**
+ * 某一页下载失败的回调，DownloadCallback可以同时实现这个接口
+ * callback of a failed page, a DownloadCallback may implement it as well
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public interface PageErrorCallback {
+
+    /**
+     * 某一页下载失败，这一页在结果中为null
+     * @param work
+     * @param page page index, 0 for an illust
+     * @param error
+     */
+    void onPageFailed(Work work, int page, Exception error);
+}
@@ -0,0 +1,22 @@
+package com.scienjus.callback;
+
+import com.scienjus.model.Rank;
+
+import java.util.Date;
+
+/**
+ * 按日期顺序接收一段时间内每天的排行榜
+ * receives the ranking of each day in a date range, in date order
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public interface RankCallback {
+
+    /**
+     * 获得了一天的排行榜
+     * the ranking of one day is ready
+     * @param date
+     * @param rank
+     */
+    void onRank(Date date, Rank rank);
+}
@@ -0,0 +1,22 @@
+package com.scienjus.callback;
+
+/**
+ * 异步请求的回调
+ * callback of an asynchronous request
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public interface ResultCallback<T> {
+
+    /**
+     * 请求成功
+     * @param result
+     */
+    void onSuccess(T result);
+
+    /**
+     * 请求失败
+     * @param error
+     */
+    void onFailure(Exception error);
+}
@@ -0,0 +1,29 @@
+package com.scienjus.callback;
+
+import com.scienjus.download.ImageTransfer;
+import com.scienjus.model.Work;
+
+import java.util.List;
+
+/**
+ * 流式下载图片的回调，只包含文件和字节数而不是图片内容
+ * callback of streaming downloads, receives files and byte counts instead of the image content
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public interface TransferCallback {
+
+    /**
+     * 插画的回调（单张图）
+     * @param work
+     * @param transfer
+     */
+    void onIllustFinished(Work work, ImageTransfer transfer);
+
+    /**
+     * 漫画的回调（多张图），按页码排序
+     * @param work
+     * @param transfers
+     */
+    void onMangaFinished(Work work, List<ImageTransfer> transfers);
+}
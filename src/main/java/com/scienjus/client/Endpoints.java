@@ -0,0 +1,161 @@
+package com.scienjus.client;
+
+import com.scienjus.config.PixivParserConfig;
+
+import java.util.Date;
+
+/**
+ * 一组Api地址：认证服务器和Api服务器加上各端点的路径，固定的参数预先编码在前缀中
+ * one set of api urls: the oauth and api servers plus the path of each endpoint, the constant params are pre-encoded in the prefixes
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+final class Endpoints {
+
+    /**
+     * 分页请求公用的参数，预先编码
+     * the params common to paged requests, encoded in advance
+     */
+    private static final String COMMON_QUERY = UrlBuilder.query(
+            "image_size", "profile_image_sizes",
+            "profile_image_sizes", "px_170x170",
+            "include_sanity_level", "true",
+            "include_stats", "true",
+            "period", "all",
+            "order", "desc",
+            "sort", "date");
+
+    /**
+     * Pixiv的地址，需要在COMMON_QUERY之后初始化
+     * the urls of Pixiv, after COMMON_QUERY which it needs
+     */
+    static final Endpoints DEFAULT = new Endpoints(PixivParserConfig.API_BASE, PixivParserConfig.OAUTH_BASE);
+
+    final String apiBase;
+
+    final String oauthBase;
+
+    final String loginUrl;
+
+    private final String searchPrefix;
+
+    private final String rankPrefix;
+
+    /**
+     * 作者作品的url在作者id之前和之后的部分
+     * the author works url before and after the author id
+     */
+    private final String authorHead;
+
+    private final String authorTail;
+
+    private final String detailHead;
+
+    private final String detailTail;
+
+    /**
+     * @param apiBase the api server, e.g. https://public-api.secure.pixiv.net
+     * @param oauthBase the oauth server, e.g. https://oauth.secure.pixiv.net
+     */
+    Endpoints(String apiBase, String oauthBase) {
+        this.apiBase = trim(apiBase);
+        this.oauthBase = trim(oauthBase);
+        this.loginUrl = this.oauthBase + PixivParserConfig.LOGIN_URL.substring(PixivParserConfig.OAUTH_BASE.length());
+        searchPrefix = api(PixivParserConfig.SEARCH_URL) + "?" + COMMON_QUERY
+                + "&" + UrlBuilder.query("per_page", "30");
+        rankPrefix = api(PixivParserConfig.RANK_URL) + "?" + COMMON_QUERY
+                + "&" + UrlBuilder.query("mode", "daily", "per_page", "50");
+        String author = api(PixivParserConfig.AUTHOR_DETAIL_URL);
+        authorHead = head(author, "{authorId}");
+        authorTail = tail(author, "{authorId}") + "?" + COMMON_QUERY
+                + "&" + UrlBuilder.query("mode", "exact_tag", "per_page", "30");
+        String detail = api(PixivParserConfig.ILLUST_DETAIL_URL);
+        detailHead = head(detail, "{illustId}");
+        detailTail = tail(detail, "{illustId}")
+                + "?" + UrlBuilder.query("image_sizes", "small,medium,large", "include_stats", "true");
+    }
+
+    /**
+     * 换成另一个Api服务器
+     * switch to another api server
+     */
+    Endpoints withApiBase(String apiBase) {
+        return new Endpoints(apiBase, oauthBase);
+    }
+
+    /**
+     * 换成另一个认证服务器
+     * switch to another oauth server
+     */
+    Endpoints withOAuthBase(String oauthBase) {
+        return new Endpoints(apiBase, oauthBase);
+    }
+
+    String byAuthor(int authorId, int page) {
+        return UrlBuilder.start(authorHead).raw(authorId).raw(authorTail)
+                .param("page", page)
+                .build();
+    }
+
+    String rank(Date date, int page) {
+        UrlBuilder builder = UrlBuilder.start(rankPrefix).param("page", page);
+        if (date != null) {
+            builder.param("date", PixivParserClient.formatDate(date));
+        }
+        return builder.build();
+    }
+
+    String search(String keyWord, int page) {
+        return UrlBuilder.start(searchPrefix)
+                .param("q", keyWord)
+                .param("mode", isSingleWord(keyWord) ? "exact_tag" : "text")
+                .param("page", page)
+                .build();
+    }
+
+    String detail(int workId) {
+        return UrlBuilder.start(detailHead).raw(workId).raw(detailTail).build();
+    }
+
+    /**
+     * 关键词是否只有一个词，末尾的空格不算
+     * whether the key word is a single word, trailing spaces aside
+     * @param keyWord
+     * @return
+     */
+    private static boolean isSingleWord(String keyWord) {
+        int end = keyWord.length();
+        while (end > 0 && keyWord.charAt(end - 1) == ' ') {
+            end--;
+        }
+        for (int i = 0; i < end; i++) {
+            if (keyWord.charAt(i) == ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 将Pixiv的Api地址换到这个Api服务器上
+     * move a Pixiv api url onto this api server
+     */
+    private String api(String url) {
+        return apiBase + url.substring(PixivParserConfig.API_BASE.length());
+    }
+
+    private static String trim(String base) {
+        if (base == null || base.isEmpty()) {
+            throw new IllegalArgumentException("base url must not be empty");
+        }
+        return base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+    }
+
+    private static String head(String template, String placeholder) {
+        return template.substring(0, template.indexOf(placeholder));
+    }
+
+    private static String tail(String template, String placeholder) {
+        return template.substring(template.indexOf(placeholder) + placeholder.length());
+    }
+}
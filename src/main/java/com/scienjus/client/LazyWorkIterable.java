@@ -0,0 +1,108 @@
+package com.scienjus.client;
+
+import com.scienjus.callback.WorkCallback;
+import com.scienjus.config.PixivParserConfig;
+import com.scienjus.filter.WorkFilter;
+import com.scienjus.model.ApiResponse;
+import com.scienjus.model.Work;
+import com.scienjus.param.ParserParam;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 惰性的作品序列，只有在遍历到某一页时才会请求这一页
+ * a lazy sequence of works, a page is requested only when the iteration reaches it
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+class LazyWorkIterable implements Iterable<Work> {
+
+    private static final Logger LOGGER = Logger.getLogger(LazyWorkIterable.class);
+
+    private final PageFetcher fetcher;
+
+    private final WorkPageSource source;
+
+    private final ParserParam param;
+
+    LazyWorkIterable(PageFetcher fetcher, WorkPageSource source, ParserParam param) {
+        this.fetcher = fetcher;
+        this.source = source;
+        this.param = param;
+    }
+
+    @Override
+    public Iterator<Work> iterator() {
+        return new LazyWorkIterator();
+    }
+
+    private class LazyWorkIterator implements Iterator<Work> {
+
+        private Iterator<Work> current = Collections.emptyIterator();
+
+        private int nextPage = PixivParserConfig.START_PAGE;
+
+        private int found;
+
+        private Work next;
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            int limit = param.getLimit();
+            if (limit != PixivParserConfig.NO_LIMIT && found >= limit) {
+                return false;
+            }
+            WorkFilter filter = source.getRemainingFilter();
+            while (true) {
+                while (current.hasNext()) {
+                    Work work = current.next();
+                    if (filter == null || filter.doFilter(work)) {
+                        WorkCallback callback = param.getCallback();
+                        if (callback != null) {
+                            callback.onFound(work);
+                        }
+                        found++;
+                        next = work;
+                        return true;
+                    }
+                }
+                if (nextPage == PixivParserConfig.NO_NEXT_PAGE) {
+                    return false;
+                }
+                //当前页已经遍历完，请求下一页
+                ApiResponse<Work> page;
+                try {
+                    page = fetcher.load(source, nextPage);
+                } catch (IOException e) {
+                    LOGGER.error(e.getMessage());
+                    nextPage = PixivParserConfig.NO_NEXT_PAGE;
+                    return false;
+                }
+                current = page.getResponse().iterator();
+                nextPage = PageFetcher.nextPage(page);
+            }
+        }
+
+        @Override
+        public Work next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Work work = next;
+            next = null;
+            return work;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
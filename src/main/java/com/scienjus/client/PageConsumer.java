@@ -0,0 +1,21 @@
+package com.scienjus.client;
+
+import com.scienjus.model.ApiResponse;
+
+/**
+ * 按页码顺序接收每一页的数据
+ * receives the items of each page in page order
+ * @param <T>
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+interface PageConsumer<T> {
+
+    /**
+     * 处理一页数据
+     * handle one page
+     * @param page
+     * @return false to stop fetching more pages
+     */
+    boolean onPage(ApiResponse<T> page);
+}
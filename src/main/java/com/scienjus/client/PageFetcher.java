@@ -0,0 +1,186 @@
+package com.scienjus.client;
+
+import com.scienjus.config.PixivParserConfig;
+import com.scienjus.http.Retrier;
+import com.scienjus.model.ApiResponse;
+import com.scienjus.model.Pagination;
+import org.apache.http.client.methods.HttpGet;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * 分页请求的执行者，第一页返回总页数后并发请求剩余的页
+ * runs paged requests, once the first page tells the page count the remaining pages are requested concurrently
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+class PageFetcher {
+
+    private final PixivParserClient client;
+
+    private final ExecutorService executor;
+
+    PageFetcher(PixivParserClient client, ExecutorService executor) {
+        this.client = client;
+        this.executor = executor;
+    }
+
+    /**
+     * 请求所有页，按页码顺序交给consumer，consumer返回false时取消剩余的请求
+     * fetch every page and hand them to the consumer in page order, the remaining requests are cancelled once it returns false
+     * @param source
+     * @param consumer
+     * @param concurrency max pages requested at the same time
+     * @throws IOException
+     */
+    <T> void fetch(PageSource<T> source, PageConsumer<T> consumer, int concurrency) throws IOException {
+        ApiResponse<T> first = load(source, PixivParserConfig.START_PAGE);
+        if (!consumer.onPage(first)) {
+            return;
+        }
+        int next = nextPage(first);
+        Integer pages = first.getPagination() == null ? null : first.getPagination().getPages();
+        if (next != PixivParserConfig.NO_NEXT_PAGE && concurrency > 1 && pages != null) {
+            next = fetchConcurrently(source, consumer, next, pages, concurrency);
+        }
+        while (next != PixivParserConfig.NO_NEXT_PAGE) {
+            ApiResponse<T> page = load(source, next);
+            if (!consumer.onPage(page)) {
+                return;
+            }
+            next = nextPage(page);
+        }
+    }
+
+    /**
+     * 用滑动窗口并发请求from到last页
+     * request pages from..last concurrently with a sliding window
+     * @return the page to continue with, NO_NEXT_PAGE when done
+     */
+    private <T> int fetchConcurrently(PageSource<T> source, PageConsumer<T> consumer, int from, int last, int concurrency) throws IOException {
+        Deque<PageTask<T>> window = new ArrayDeque<>(concurrency);
+        int submitted = from;
+        try {
+            while (submitted <= last && window.size() < concurrency) {
+                window.add(submit(source, submitted++));
+            }
+            ApiResponse<T> page = null;
+            while (!window.isEmpty()) {
+                page = window.poll().await();
+                if (!consumer.onPage(page)) {
+                    return PixivParserConfig.NO_NEXT_PAGE;
+                }
+                if (submitted <= last) {
+                    window.add(submit(source, submitted++));
+                }
+            }
+            //抓取过程中新增了作品时，总页数可能变多
+            return page == null ? PixivParserConfig.NO_NEXT_PAGE : nextPage(page);
+        } finally {
+            for (PageTask<T> task : window) {
+                task.cancel();
+            }
+        }
+    }
+
+    private <T> PageTask<T> submit(PageSource<T> source, int page) {
+        PageTask<T> task = new PageTask<>(source, page);
+        task.future = executor.submit(task);
+        return task;
+    }
+
+    /**
+     * 请求一页，按照客户端的重试策略重试
+     * request one page, retried under the retry policy of the client
+     */
+    <T> ApiResponse<T> load(final PageSource<T> source, int page) throws IOException {
+        final String url = source.buildUrl(page);
+        return client.getRetrier().execute(url, new Retrier.Attempt<ApiResponse<T>>() {
+            @Override
+            public ApiResponse<T> call() throws IOException {
+                return client.requestPage(client.defaultHttpGet(url), source);
+            }
+        });
+    }
+
+    static int nextPage(ApiResponse<?> page) {
+        Pagination pagination = page.getPagination();
+        if (pagination == null || pagination.getNext() == null) {
+            return PixivParserConfig.NO_NEXT_PAGE;
+        }
+        return pagination.getNext();
+    }
+
+    /**
+     * 一页的请求，取消时会中断正在进行的http请求
+     * the request of one page, cancelling aborts the running http request
+     */
+    private class PageTask<T> implements Callable<ApiResponse<T>> {
+
+        private final PageSource<T> source;
+
+        private final int page;
+
+        private volatile Future<ApiResponse<T>> future;
+
+        private volatile HttpGet get;
+
+        private volatile boolean cancelled;
+
+        PageTask(PageSource<T> source, int page) {
+            this.source = source;
+            this.page = page;
+        }
+
+        @Override
+        public ApiResponse<T> call() throws IOException {
+            final String url = source.buildUrl(page);
+            return client.getRetrier().execute(url, new Retrier.Attempt<ApiResponse<T>>() {
+                @Override
+                public ApiResponse<T> call() throws IOException {
+                    get = client.defaultHttpGet(url);
+                    if (cancelled) {
+                        //被取消的请求属于不可重试的错误
+                        throw new InterruptedIOException("第" + page + "页已取消");
+                    }
+                    return client.requestPage(get, source);
+                }
+            });
+        }
+
+        /**
+         * 等待这一页
+         * wait for this page
+         */
+        ApiResponse<T> await() throws IOException {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("等待第" + page + "页时被中断");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new IOException("第" + page + "页请求失败：" + cause, cause);
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            HttpGet running = get;
+            if (running != null) {
+                running.abort();
+            }
+            future.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.scienjus.client;
+
+import com.scienjus.metrics.Endpoint;
+import com.scienjus.model.ApiResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 分页请求的数据源
+ * the source of a paged request
+ * @param <T> the item of one page
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+abstract class PageSource<T> {
+
+    private final Class<T> itemType;
+
+    private final Endpoint endpoint;
+
+    PageSource(Class<T> itemType, Endpoint endpoint) {
+        this.itemType = itemType;
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * 某一页的url
+     * the url of one page
+     * @param page
+     * @return
+     */
+    abstract String buildUrl(int page);
+
+    /**
+     * 从响应流中读取一页
+     * read one page from the response stream
+     * @param in
+     * @return
+     * @throws IOException
+     */
+    ApiResponse<T> read(InputStream in) throws IOException {
+        return ResponseReader.readPage(in, itemType);
+    }
+
+    Class<T> getItemType() {
+        return itemType;
+    }
+
+    /**
+     * 统计时使用的请求类型
+     * the endpoint the requests are measured as
+     * @return
+     */
+    Endpoint getEndpoint() {
+        return endpoint;
+    }
+}
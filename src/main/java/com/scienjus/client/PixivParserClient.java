@@ -1,30 +1,63 @@
 package com.scienjus.client;
 
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
+import com.scienjus.cache.CachedWork;
+import com.scienjus.cache.LruWorkCache;
+import com.scienjus.cache.WorkCache;
+import com.scienjus.cache.WorkCacheStats;
+import com.scienjus.auth.TokenStore;
 import com.scienjus.callback.DownloadCallback;
-import com.scienjus.callback.WorkCallback;
+import com.scienjus.callback.RankCallback;
+import com.scienjus.callback.ResultCallback;
+import com.scienjus.callback.TransferCallback;
 import com.scienjus.config.PixivParserConfig;
+import com.scienjus.download.DownloadEngine;
+import com.scienjus.download.FileImageSink;
+import com.scienjus.download.ImageSink;
 import com.scienjus.filter.WorkFilter;
-import com.scienjus.model.Page;
+import com.scienjus.http.HttpStatusException;
+import com.scienjus.http.RateLimitInterceptor;
+import com.scienjus.http.RateLimiter;
+import com.scienjus.http.Retrier;
+import com.scienjus.http.RetryPolicy;
+import com.scienjus.metrics.CountingInputStream;
+import com.scienjus.metrics.Endpoint;
+import com.scienjus.metrics.MetricsRecorder;
+import com.scienjus.metrics.PoolGauges;
+import com.scienjus.model.ApiResponse;
 import com.scienjus.model.Rank;
+import com.scienjus.model.RankWork;
 import com.scienjus.model.Work;
+import com.scienjus.param.DownloadParam;
 import com.scienjus.param.ParserParam;
-import org.apache.http.NameValuePair;
-import org.apache.http.client.entity.UrlEncodedFormEntity;
+import com.scienjus.store.AuthorWatermarks;
+import com.scienjus.store.RankStore;
+import com.scienjus.store.StoredWork;
+import com.scienjus.store.WorkStore;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpPost;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
-import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeader;
 import org.apache.log4j.Logger;
 
 import java.io.*;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 使用Pixiv iOS APi的客户端
@@ -42,25 +75,40 @@ public class PixivParserClient {
      * 日期格式化
      * format date to url param
      */
-    private static final SimpleDateFormat FORMAT = new SimpleDateFormat("yyyy-MM-dd");
+    private static final ThreadLocal<SimpleDateFormat> FORMAT = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            return new SimpleDateFormat("yyyy-MM-dd");
+        }
+    };
+
+    /**
+     * api请求共用的请求头
+     * the headers shared by api requests
+     */
+    private static final Header REFERER = new BasicHeader("Referer", "http://spapi.pixiv.net/");
+
+    private static final Header USER_AGENT = new BasicHeader("User-Agent", "PixivIOSApp/5.6.0");
+
+    private static final String BEARER = "Bearer ";
 
     /**
-     * 用户名
-     * the username to login
+     * 鉴权Token，以及登录用的用户名和密码
+     * the access token to use pixiv api, with the username and password to login
      */
-    private String username;
+    private TokenManager tokens;
 
     /**
-     * 密码
-     * the password to login
+     * 最近一次使用的Authorization请求头
+     * the Authorization header used last
      */
-    private String password;
+    private volatile Header authorization;
 
     /**
-     * 鉴权Token
-     * the access token to use pixiv api
+     * 请求的Api地址，默认为Pixiv
+     * the api urls requested, Pixiv by default
      */
-    private String accessToken;
+    private volatile Endpoints endpoints = Endpoints.DEFAULT;
 
     /**
      * http请求发送端
@@ -68,13 +116,104 @@ public class PixivParserClient {
      */
     private CloseableHttpClient client;
 
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    /**
+     * 统计数据的接收者
+     * receives the measurements
+     */
+    private volatile MetricsRecorder metrics = MetricsRecorder.NONE;
+
+    /**
+     * api请求的限流器，与图片下载分开计算
+     * the rate limiter of api requests, counted apart from image downloads
+     */
+    private final RateLimiter apiRateLimiter = new RateLimiter(PixivParserConfig.DEFAULT_API_RATE_LIMIT);
+
+    /**
+     * 分页请求的并发数
+     * pages requested at the same time
+     */
+    private volatile int pageConcurrency = PixivParserConfig.DEFAULT_PAGE_CONCURRENCY;
+
+    /**
+     * 执行分页请求的线程池，并发数由每次请求限制
+     * the pool running paged requests, each request limits its own concurrency
+     */
+    private ExecutorService pageExecutor;
+
+    private PageFetcher pageFetcher;
+
+    /**
+     * 执行异步请求的线程池
+     * the executor of asynchronous requests
+     */
+    private ExecutorService asyncExecutor;
+
+    /**
+     * 异步线程池是否由客户端创建，关闭时只关闭自己创建的线程池
+     * whether the async executor was created by the client, only an owned one is shut down by close
+     */
+    private boolean ownsAsyncExecutor;
+
+    /**
+     * 作品详情的缓存，为null时不缓存
+     * cache of work details, null disables caching
+     */
+    private volatile WorkCache workCache = new LruWorkCache(PixivParserConfig.DEFAULT_WORK_CACHE_SIZE,
+            PixivParserConfig.DEFAULT_WORK_CACHE_TTL_MILLIS, TimeUnit.MILLISECONDS);
+
+    private final WorkCacheStats workCacheStats = new WorkCacheStats();
+
+    /**
+     * 持久化的作品存储，内存缓存中没有时先从这里读取，为null时不使用
+     * the persistent work store, read before the api when the memory cache misses, null disables it
+     */
+    private volatile WorkStore workStore;
+
+    /**
+     * 每个作者已经见过的最新作品id
+     * the newest work id seen for each author
+     */
+    private volatile AuthorWatermarks authorWatermarks;
+
+    /**
+     * 排行榜历史
+     * the ranking history
+     */
+    private volatile RankStore rankStore;
+
+    /**
+     * ranking(from, to)同时请求的天数
+     * days requested at the same time by ranking(from, to)
+     */
+    private volatile int rankingConcurrency = PixivParserConfig.DEFAULT_RANKING_CONCURRENCY;
+
+    /**
+     * api请求的重试策略和熔断器
+     * the retry policy and circuit breakers of api requests
+     */
+    private volatile Retrier retrier = new Retrier(new RetryPolicy());
+
+    /**
+     * 下载引擎的参数
+     * params of the download engine
+     */
+    private DownloadParam downloadParam = new DownloadParam();
+
+    /**
+     * 下载引擎，第一次下载时创建
+     * the download engine, created by the first download
+     */
+    private DownloadEngine downloadEngine;
+
     /**
      * 设置用户名
      * set your username (pixiv id)
      * @param username
      */
     public void setUsername(String username) {
-        this.username = username;
+        tokens.setUsername(username);
     }
 
     /**
@@ -83,26 +222,219 @@ public class PixivParserClient {
      * @param password
      */
     public void setPassword(String password) {
-        this.password = password;
+        tokens.setPassword(password);
     }
 
-    public PixivParserClient() {
-        client = HttpClients.createDefault();
+    /**
+     * 设置Api服务器，例如指向本地的模拟服务器，默认为PixivParserConfig.API_BASE
+     * set the api server, e.g. a local mock server, PixivParserConfig.API_BASE by default
+     * @param apiBase scheme and host, such as http://localhost:8080
+     */
+    public void setApiBase(String apiBase) {
+        endpoints = endpoints.withApiBase(apiBase);
+    }
+
+    public String getApiBase() {
+        return endpoints.apiBase;
+    }
+
+    /**
+     * 设置认证服务器，默认为PixivParserConfig.OAUTH_BASE
+     * set the oauth server, PixivParserConfig.OAUTH_BASE by default
+     * @param oauthBase scheme and host, such as http://localhost:8080
+     */
+    public void setOAuthBase(String oauthBase) {
+        endpoints = endpoints.withOAuthBase(oauthBase);
+        tokens.setLoginUrl(endpoints.loginUrl);
+    }
+
+    public String getOAuthBase() {
+        return endpoints.oauthBase;
+    }
+
+    /**
+     * 设置保存Token的文件，登录时未过期的Token会被直接使用，刷新后的Token会写入文件
+     * set where the token is saved, login reuses an unexpired token and refreshed tokens are written back
+     * @param tokenStore
+     */
+    public void setTokenStore(TokenStore tokenStore) {
+        tokens.setStore(tokenStore);
+    }
+
+    /**
+     * 设置下载引擎的参数，需要在第一次下载前设置
+     * set params of the download engine, must be called before the first download
+     * @param downloadParam
+     */
+    public synchronized void setDownloadParam(DownloadParam downloadParam) {
+        if (downloadEngine != null) {
+            throw new IllegalStateException("下载引擎已经启动");
+        }
+        this.downloadParam = downloadParam;
+    }
+
+    /**
+     * 设置分页请求的并发数，ParserParam可以单独指定
+     * set how many pages are requested at the same time, ParserParam may override it
+     * @param pageConcurrency
+     */
+    public void setPageConcurrency(int pageConcurrency) {
+        if (pageConcurrency < 1) {
+            throw new IllegalArgumentException("pageConcurrency must be positive: " + pageConcurrency);
+        }
+        this.pageConcurrency = pageConcurrency;
+    }
+
+    /**
+     * 设置执行异步请求的线程池，不设置时使用固定大小的默认线程池
+     * set the executor of asynchronous requests, a fixed-size default pool is used when not set
+     * @param asyncExecutor
+     */
+    public synchronized void setAsyncExecutor(ExecutorService asyncExecutor) {
+        if (ownsAsyncExecutor) {
+            this.asyncExecutor.shutdown();
+        }
+        this.asyncExecutor = asyncExecutor;
+        this.ownsAsyncExecutor = false;
+    }
+
+    /**
+     * 设置作品详情的缓存，传入null关闭缓存
+     * set the cache of work details, null disables caching
+     * @param workCache
+     */
+    public void setWorkCache(WorkCache workCache) {
+        this.workCache = workCache;
+    }
+
+    public WorkCache getWorkCache() {
+        return workCache;
+    }
+
+    /**
+     * 设置持久化的作品存储，getWork会先从存储中读取，从api获取的作品会写入存储。存储中的作品按照缓存的有效期过期，
+     * 关闭缓存时使用默认的有效期。存储需要由调用者关闭
+     * set the persistent work store, getWork reads it first and writes works fetched from the api into it. stored works
+     * expire after the time to live of the cache, or the default one when caching is off. the caller closes the store
+     * @param workStore
+     */
+    public void setWorkStore(WorkStore workStore) {
+        this.workStore = workStore;
+    }
+
+    public WorkStore getWorkStore() {
+        return workStore;
+    }
+
+    /**
+     * 设置byAuthorIncremental使用的作者高水位存储，需要由调用者关闭
+     * set the author watermark store used by byAuthorIncremental, the caller closes it
+     * @param authorWatermarks
+     */
+    public void setAuthorWatermarks(AuthorWatermarks authorWatermarks) {
+        this.authorWatermarks = authorWatermarks;
+    }
+
+    public AuthorWatermarks getAuthorWatermarks() {
+        return authorWatermarks;
     }
 
     /**
-     * 登陆表单的构成
-     * params that need to be submitted when logged in
+     * 设置排行榜历史，ranking(from, to)不会请求已经保存的日期，获取的排行榜会写入历史。需要由调用者关闭
+     * set the ranking history, ranking(from, to) skips the days already stored and saves the rankings it fetches. the caller closes it
+     * @param rankStore
+     */
+    public void setRankStore(RankStore rankStore) {
+        this.rankStore = rankStore;
+    }
+
+    public RankStore getRankStore() {
+        return rankStore;
+    }
+
+    /**
+     * 设置ranking(from, to)同时请求的天数
+     * set how many days ranking(from, to) requests at the same time
+     * @param rankingConcurrency
+     */
+    public void setRankingConcurrency(int rankingConcurrency) {
+        if (rankingConcurrency < 1) {
+            throw new IllegalArgumentException("rankingConcurrency must be positive: " + rankingConcurrency);
+        }
+        this.rankingConcurrency = rankingConcurrency;
+    }
+
+    /**
+     * 作品缓存的命中统计
+     * hit and miss counters of the work cache
+     * @return
+     */
+    public WorkCacheStats getWorkCacheStats() {
+        return workCacheStats;
+    }
+
+    /**
+     * 设置api请求的重试策略，熔断器的状态会被重置
+     * set the retry policy of api requests, the circuit breakers start over
+     * @param retryPolicy
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        if (retryPolicy == null) {
+            throw new IllegalArgumentException("retryPolicy must not be null");
+        }
+        this.retrier = new Retrier(retryPolicy);
+    }
+
+    Retrier getRetrier() {
+        return retrier;
+    }
+
+    /**
+     * 设置统计数据的接收者，api连接池和下载引擎的池会注册到它
+     * set the receiver of measurements, the api connection pool and the pools of the download engine are registered with it
+     * @param metrics
+     */
+    public void setMetrics(MetricsRecorder metrics) {
+        if (metrics == null) {
+            throw new IllegalArgumentException("metrics must not be null");
+        }
+        this.metrics = metrics;
+        tokens.setMetrics(metrics);
+        metrics.registerPool("api-connections", PoolGauges.of(connectionManager));
+        synchronized (this) {
+            if (downloadEngine != null) {
+                downloadEngine.setMetrics(metrics);
+            }
+        }
+    }
+
+    public MetricsRecorder getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * api请求的限流器，可以通过setMaxRate修改每秒的请求数上限
+     * the rate limiter of api requests, setMaxRate changes the max requests per second
      * @return
      */
-    private UrlEncodedFormEntity buildLoginForm() {
-        List<NameValuePair> params = new ArrayList<>();
-        params.add(new BasicNameValuePair("client_id", "bYGKuGVw91e0NMfPGp44euvGt59s"));    //感谢 pixivpy 提供
-        params.add(new BasicNameValuePair("client_secret", "HP3RmkgAmEGro0gn1x9ioawQE8WMfvLXDz3ZqxpK"));
-        params.add(new BasicNameValuePair("username", username));
-        params.add(new BasicNameValuePair("password", password));
-        params.add(new BasicNameValuePair("grant_type", "password"));
-        return new UrlEncodedFormEntity(params, PixivParserConfig.CHARSET);
+    public RateLimiter getApiRateLimiter() {
+        return apiRateLimiter;
+    }
+
+    public PixivParserClient() {
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(PixivParserConfig.DEFAULT_API_MAX_CONNECTIONS);
+        connectionManager.setDefaultMaxPerRoute(PixivParserConfig.DEFAULT_API_MAX_CONNECTIONS_PER_ROUTE);
+        RateLimitInterceptor rateLimit = new RateLimitInterceptor(apiRateLimiter);
+        client = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .addInterceptorFirst((HttpRequestInterceptor) rateLimit)
+                .addInterceptorFirst((HttpResponseInterceptor) rateLimit)
+                .build();
+        tokens = new TokenManager(client);
+        pageExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(), new DaemonThreadFactory("pixiv-page-fetch-"));
+        pageFetcher = new PageFetcher(this, pageExecutor);
     }
 
     /**
@@ -111,28 +443,40 @@ public class PixivParserClient {
      * @return access_token
      */
     public boolean login() {
-        if (username == null || password == null) {
-            LOGGER.error("用户名或密码为空！");
-            return false;
-        }
-        LOGGER.info("当前登录的用户为：" + username);
-        HttpPost post = new HttpPost(PixivParserConfig.LOGIN_URL);
-        post.setEntity(buildLoginForm());
-        try (CloseableHttpResponse response = client.execute(post)) {
-            if (response.getStatusLine().getStatusCode() == 200) {
-                LOGGER.info("登录成功！");
-                this.accessToken = getAccessToken(response);
-                return true;
-            } else {
-                LOGGER.error("登录失败！请检查用户名或密码是否正确");
-                return false;
-            }
+        try {
+            tokens.login();
+            return true;
         } catch (IOException e) {
             LOGGER.error(e.getMessage());
             return false;
         }
     }
 
+    /**
+     * 异步登录
+     * login asynchronously
+     * @return
+     */
+    public Future<Boolean> loginAsync() {
+        return loginAsync(null);
+    }
+
+    /**
+     * 异步登录，失败时Future和回调都会收到异常
+     * login asynchronously, on failure both the future and the callback get the exception
+     * @param callback
+     * @return
+     */
+    public Future<Boolean> loginAsync(ResultCallback<Boolean> callback) {
+        return submitAsync(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws IOException {
+                tokens.login();
+                return true;
+            }
+        }, callback);
+    }
+
     /**
      * 通过id获取作品
      * get illust by id
@@ -140,11 +484,8 @@ public class PixivParserClient {
      * @return
      */
     public Work getWork(int workId) {
-        String url = buildDetailUrl(workId);
-        HttpGet get = defaultHttpGet(url);
-        try (CloseableHttpResponse response = client.execute(get)) {
-            JSONObject json = getResponseContent(response);
-            return JSON.parseObject(json.getJSONArray("response").getJSONObject(0).toJSONString(), Work.class);
+        try {
+            return requestWork(workId);
         } catch (IOException e) {
             LOGGER.error(e.getMessage());
         }
@@ -152,46 +493,231 @@ public class PixivParserClient {
     }
 
     /**
-     * 从Response中获得AccessToken
-     * get access token from response
-     * @param response
+     * 异步获取作品
+     * get illust by id asynchronously
+     * @param workId
      * @return
      */
-    private static String getAccessToken(CloseableHttpResponse response) throws IOException {
-        return getResponseContent(response).getJSONObject("response").getString("access_token");
+    public Future<Work> getWorkAsync(int workId) {
+        return getWorkAsync(workId, null);
     }
 
     /**
-     * 获得返回数据
-     * get json content from response
-     * @param response
+     * 异步获取作品，失败时Future和回调都会收到异常
+     * get illust by id asynchronously, on failure both the future and the callback get the exception
+     * @param workId
+     * @param callback
+     * @return
+     */
+    public Future<Work> getWorkAsync(final int workId, ResultCallback<Work> callback) {
+        return submitAsync(new Callable<Work>() {
+            @Override
+            public Work call() throws IOException {
+                return requestWork(workId);
+            }
+        }, callback);
+    }
+
+    private Work requestWork(final int workId) throws IOException {
+        final WorkCache cache = workCache;
+        CachedWork cached = null;
+        if (cache != null) {
+            cached = cache.get(workId);
+            if (cached != null && cached.isFresh(cache.getTimeToLive(), System.currentTimeMillis())) {
+                workCacheStats.recordHit();
+                return cached.getWork();
+            }
+        }
+        if (cached == null) {
+            StoredWork stored = loadStoredWork(workId);
+            //存储中的作品和缓存一样按照获取时间过期，过期后重新获取
+            long timeToLive = cache != null ? cache.getTimeToLive() : PixivParserConfig.DEFAULT_WORK_CACHE_TTL_MILLIS;
+            if (stored != null && System.currentTimeMillis() - stored.getFetchedAt() < timeToLive) {
+                workCacheStats.recordStoreHit();
+                if (cache != null) {
+                    cache.put(new CachedWork(stored.getWork(), null, null, stored.getFetchedAt()));
+                }
+                return stored.getWork();
+            }
+        }
+        final CachedWork stale = cached;
+        final boolean[] revalidated = new boolean[1];
+        try {
+            return retrier.execute(endpoints.detail(workId), new Retrier.Attempt<Work>() {
+                @Override
+                public Work call() throws IOException {
+                    return fetchWork(workId, cache, stale, revalidated);
+                }
+            });
+        } finally {
+            //每次查找只记录一次，重试不算新的未命中
+            if (revalidated[0]) {
+                workCacheStats.recordRevalidation();
+            } else {
+                workCacheStats.recordMiss();
+            }
+        }
+    }
+
+    /**
+     * 从持久化存储中读取作品，读取失败时视为不存在
+     * read a work from the persistent store, a failed read counts as absent
+     * @param workId
      * @return
      */
-    private static JSONObject getResponseContent(CloseableHttpResponse response) throws IOException {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(response.getEntity().getContent(), PixivParserConfig.CHARSET));
-        StringBuilder buffer = new StringBuilder();
-        String line;
-        while ((line = reader.readLine()) != null) {
-            buffer.append(line);
+    private StoredWork loadStoredWork(int workId) {
+        WorkStore store = workStore;
+        if (store == null) {
+            return null;
+        }
+        try {
+            return store.getStored(workId);
+        } catch (IOException e) {
+            LOGGER.error("读取存储的作品失败：" + e.getMessage());
+            return null;
+        }
+    }
+
+    private void saveWork(Work work) {
+        WorkStore store = workStore;
+        if (store == null) {
+            return;
+        }
+        try {
+            store.put(work);
+        } catch (IOException e) {
+            LOGGER.error("保存作品失败：" + e.getMessage());
         }
-        return JSON.parseObject(buffer.toString());
     }
 
     /**
-     * 创建默认的httpGet请求
-     * create a defalut http get
+     * 请求作品详情，有缓存时发送条件请求，服务器返回304时沿用缓存的作品
+     * request a work detail, conditionally when cached, the cached work is kept on 304
+     * @param workId
+     * @param cache
+     * @param cached the expired entry, may be null
+     * @param revalidated set to true when the server answers 304
+     * @return
+     * @throws IOException
+     */
+    private Work fetchWork(int workId, WorkCache cache, CachedWork cached, boolean[] revalidated) throws IOException {
+        HttpGet get = defaultHttpGet(endpoints.detail(workId));
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                get.setHeader(HttpHeaders.IF_NONE_MATCH, cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                get.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+            }
+        }
+        MetricsRecorder recorder = metrics;
+        long start = System.nanoTime();
+        boolean success = false;
+        try (CloseableHttpResponse response = executeApi(get)) {
+            String etag = getHeader(response, HttpHeaders.ETAG);
+            String lastModified = getHeader(response, HttpHeaders.LAST_MODIFIED);
+            if (cached != null && response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+                revalidated[0] = true;
+                cache.put(cached.revalidated(etag, lastModified, System.currentTimeMillis()));
+                success = true;
+                return cached.getWork();
+            }
+            checkStatus(response);
+            CountingInputStream in = new CountingInputStream(response.getEntity().getContent());
+            List<Work> works = ResponseReader.readPage(in, Work.class).getResponse();
+            recorder.onBytes(Endpoint.DETAIL, in.getCount());
+            recorder.onWorksParsed(works.size());
+            success = true;
+            if (works.isEmpty()) {
+                if (cache != null) {
+                    cache.remove(workId);
+                }
+                return null;
+            }
+            Work work = works.get(0);
+            saveWork(work);
+            if (cache != null) {
+                cache.put(new CachedWork(work, etag, lastModified, System.currentTimeMillis()));
+            }
+            return work;
+        } finally {
+            recorder.onRequest(Endpoint.DETAIL, System.nanoTime() - start, success);
+        }
+    }
+
+    private static String getHeader(CloseableHttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
+    /**
+     * 检查响应的状态码
+     * check the status code of a response
+     * @param response
+     * @throws IOException
+     */
+    private static void checkStatus(CloseableHttpResponse response) throws IOException {
+        int status = response.getStatusLine().getStatusCode();
+        if (status != 200) {
+            throw new HttpStatusException(status, "请求失败，HTTP " + status);
+        }
+    }
+
+    /**
+     * 创建默认的httpGet请求，url必须已经编码，请求头是共享的不可变对象
+     * create a defalut http get, the url must be encoded already and the headers are shared immutable instances
      * @param url
      * @return
      */
-    private HttpGet defaultHttpGet(String url) {
-        url = url.replace(" ", "%20");
+    HttpGet defaultHttpGet(String url) {
         HttpGet get = new HttpGet(url);
-        get.setHeader("Authorization", String.format("Bearer %s", this.accessToken));
-        get.setHeader("Referer", "http://spapi.pixiv.net/");
-        get.setHeader("User-Agent", "PixivIOSApp/5.6.0");
+        get.setHeader(REFERER);
+        get.setHeader(USER_AGENT);
         return get;
     }
 
+    /**
+     * 带上Token发送api请求，Token快要过期时先刷新，返回401时刷新Token后重试一次
+     * send an api request with the token, refreshed first when about to expire, on 401 the token is refreshed and the request retried once
+     * @param get
+     * @return
+     * @throws IOException
+     */
+    CloseableHttpResponse executeApi(HttpGet get) throws IOException {
+        String token = tokens.current();
+        authorize(get, token);
+        CloseableHttpResponse response = client.execute(get);
+        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_UNAUTHORIZED || !tokens.canRefresh()) {
+            return response;
+        }
+        response.close();
+        LOGGER.info("Token已失效，刷新后重试");
+        authorize(get, tokens.refresh(token));
+        return client.execute(get);
+    }
+
+    /**
+     * Token不变时复用同一个Authorization请求头，没有Token（未登录或登录失败）时不带这个请求头
+     * the same Authorization header is reused while the token does not change, it is left out when there is
+     * no token (not logged in or the login failed)
+     */
+    private void authorize(HttpGet get, String token) {
+        if (token == null) {
+            get.removeHeaders(HttpHeaders.AUTHORIZATION);
+            return;
+        }
+        Header header = authorization;
+        if (header == null || !isBearer(header.getValue(), token)) {
+            header = new BasicHeader(HttpHeaders.AUTHORIZATION, BEARER + token);
+            authorization = header;
+        }
+        get.setHeader(header);
+    }
+
+    private static boolean isBearer(String value, String token) {
+        return value.length() == BEARER.length() + token.length() && value.startsWith(token, BEARER.length());
+    }
+
     /**
      * 获得当天的排行榜
      * get today ranking
@@ -208,31 +734,96 @@ public class PixivParserClient {
      * @return
      */
     public Rank ranking(Date date) {
-        HttpGet get;
-        JSONObject json;
-        int page = PixivParserConfig.START_PAGE;
-        Rank rank = null;
-        while (true) {
-            String url = buildRankUrl(date, page);
-            get = defaultHttpGet(url);
-            try (CloseableHttpResponse response = client.execute(get)) {
-                json = getResponseContent(response);
-                JSONArray body = JSON.parseObject(json.toJSONString()).getJSONArray("response");
-                if (rank == null) {
-                    rank = JSON.parseObject(body.getJSONObject(0).toJSONString(), Rank.class);
-                } else {
-                    rank.getWorks().addAll(JSON.parseObject(body.getJSONObject(0).toJSONString(), Rank.class).getWorks());
-                }
-                int nextPage = getNextPage(json);
-                if (nextPage != PixivParserConfig.NO_NEXT_PAGE) {
-                    page = nextPage;
-                } else {
-                    return rank;
-                }
-            } catch (IOException e) {
-                LOGGER.error(e.getMessage());
-            }
+        RankCollector collector = new RankCollector();
+        try {
+            collectRanking(date, collector);
+        } catch (IOException e) {
+            LOGGER.error(e.getMessage());
         }
+        return collector.getRank();
+    }
+
+    /**
+     * 异步获得某天的排行榜
+     * get ranking on one day asynchronously
+     * @param date
+     * @return
+     */
+    public Future<Rank> rankingAsync(Date date) {
+        return rankingAsync(date, null);
+    }
+
+    /**
+     * 异步获得某天的排行榜，失败时Future和回调都会收到异常
+     * get ranking on one day asynchronously, on failure both the future and the callback get the exception
+     * @param date
+     * @param callback
+     * @return
+     */
+    public Future<Rank> rankingAsync(final Date date, ResultCallback<Rank> callback) {
+        return submitAsync(new Callable<Rank>() {
+            @Override
+            public Rank call() throws IOException {
+                return requestRanking(date);
+            }
+        }, callback);
+    }
+
+    /**
+     * 获得from到to（包含）每天的排行榜，按日期排序。多天会同时请求，设置了RankStore时已经保存的日期不会请求，获取失败的日期会被跳过
+     * get the ranking of every day from `from` to `to` inclusive, in date order. days are requested concurrently,
+     * days already in the RankStore are not requested, failed days are skipped
+     * @param from
+     * @param to
+     * @return
+     */
+    public List<Rank> ranking(Date from, Date to) {
+        final List<Rank> ranks = new ArrayList<>();
+        ranking(from, to, new RankCallback() {
+            @Override
+            public void onRank(Date date, Rank rank) {
+                ranks.add(rank);
+            }
+        });
+        return ranks;
+    }
+
+    /**
+     * 获得from到to（包含）每天的排行榜，每获得一天就按日期顺序交给回调
+     * get the ranking of every day from `from` to `to` inclusive, each day is handed to the callback in date order as soon as it is ready
+     * @param from
+     * @param to
+     * @param callback
+     */
+    public void ranking(Date from, Date to, RankCallback callback) {
+        new RankRangeFetcher(this, pageExecutor, rankStore, rankingConcurrency).fetch(from, to, callback);
+    }
+
+    /**
+     * 请求某天的排行榜
+     * request the ranking of one day
+     * @param date
+     * @return
+     * @throws IOException
+     */
+    Rank requestRanking(Date date) throws IOException {
+        RankCollector collector = new RankCollector();
+        collectRanking(date, collector);
+        return collector.getRank();
+    }
+
+    private void collectRanking(final Date date, RankCollector collector) throws IOException {
+        pageFetcher.fetch(new PageSource<RankWork>(RankWork.class, Endpoint.RANKING) {
+            @Override
+            String buildUrl(int page) {
+                return endpoints.rank(date, page);
+            }
+
+            @Override
+            ApiResponse<RankWork> read(InputStream in) throws IOException {
+                return ResponseReader.readRankPage(in);
+            }
+        }, collector, pageConcurrency);
     }
 
     /**
@@ -252,39 +843,57 @@ public class PixivParserClient {
      * @return
      */
     public List<Work> search(String keyWord, ParserParam param) {
-        int page = PixivParserConfig.START_PAGE;
-        List<Work> works = new ArrayList<>();
-        while (true) {
-            String url = buildSearchUrl(keyWord, page);
-            HttpGet get = defaultHttpGet(url);
-            try (CloseableHttpResponse response = client.execute(get)) {
-                JSONObject json = getResponseContent(response);
-                JSONArray body = json.getJSONArray("response");
-                for (int i = 0; i < body.size(); i++) {
-                    Work work = JSON.parseObject(body.getJSONObject(i).toJSONString(), Work.class);
-                    WorkFilter filter = param.getFilter();
-                    if (filter == null || filter.doFilter(work)) {
-                        WorkCallback callback = param.getCallback();
-                        if (callback != null) {
-                            callback.onFound(work);
-                        }
-                        works.add(work);
-                        int limit = param.getLimit();
-                        if (limit != PixivParserConfig.NO_LIMIT && works.size() >= limit) {
-                            return works;
-                        }
-                    }
-                }
-                int nextPage = getNextPage(json);
-                if (nextPage != PixivParserConfig.NO_NEXT_PAGE) {
-                    page = nextPage;
-                } else {
-                    return works;
-                }
-            } catch (IOException e) {
-                LOGGER.error(e.getMessage());
-            }
+        WorkPageSource source = searchSource(keyWord, param);
+        WorkCollector collector = new WorkCollector(param, source.getRemainingFilter());
+        try {
+            pageFetcher.fetch(source, collector, getConcurrency(param));
+        } catch (IOException e) {
+            LOGGER.error(e.getMessage());
         }
+        return collector.getWorks();
+    }
+
+    /**
+     * 异步查询作品
+     * search illusts asynchronously
+     * @param keyWord
+     * @param param
+     * @return
+     */
+    public Future<List<Work>> searchAsync(String keyWord, ParserParam param) {
+        return searchAsync(keyWord, param, null);
+    }
+
+    /**
+     * 异步查询作品，失败时Future和回调都会收到异常
+     * search illusts asynchronously, on failure both the future and the callback get the exception
+     * @param keyWord
+     * @param param
+     * @param callback
+     * @return
+     */
+    public Future<List<Work>> searchAsync(String keyWord, ParserParam param, ResultCallback<List<Work>> callback) {
+        return collectAsync(searchSource(keyWord, param), param, callback);
+    }
+
+    /**
+     * 惰性地查询作品，遍历时才会请求下一页，停止遍历后不再有任何请求
+     * search illusts lazily, the next page is requested only when iterated, nothing is requested once the iteration stops
+     * @param keyWord
+     * @param param
+     * @return
+     */
+    public Iterable<Work> iterateSearch(String keyWord, ParserParam param) {
+        return new LazyWorkIterable(pageFetcher, searchSource(keyWord, param), param);
+    }
+
+    private WorkPageSource searchSource(final String keyWord, ParserParam param) {
+        return new WorkPageSource(Endpoint.SEARCH, param.getFilter()) {
+            @Override
+            String buildUrl(int page) {
+                return endpoints.search(keyWord, page);
+            }
+        };
     }
 
     /**
@@ -304,144 +913,214 @@ public class PixivParserClient {
      * @return
      */
     public List<Work> byAuthor(int authorId, ParserParam param) {
-        int page = PixivParserConfig.START_PAGE;
-        List<Work> works = new ArrayList<>();
-        while (true) {
-            String url = buildByAuthorUrl(authorId, page);
-            HttpGet get = defaultHttpGet(url);
-            try (CloseableHttpResponse response = client.execute(get)) {
-                JSONObject json = getResponseContent(response);
-                JSONArray body = json.getJSONArray("response");
-                for (int i = 0; i < body.size(); i++) {
-                    Work work = JSON.parseObject(body.getJSONObject(i).toJSONString(), Work.class);
-                    WorkFilter filter = param.getFilter();
-                    if (filter == null || filter.doFilter(work)) {
-                        WorkCallback callback = param.getCallback();
-                        if (callback != null) {
-                            callback.onFound(work);
-                        }
-                        works.add(work);
-                        int limit = param.getLimit();
-                        if (limit != PixivParserConfig.NO_LIMIT && works.size() >= limit) {
-                            return works;
-                        }
-                    }
-                }
-                int nextPage = getNextPage(json);
-                if (nextPage != PixivParserConfig.NO_NEXT_PAGE) {
-                    page = nextPage;
-                } else {
-                    return works;
-                }
-            } catch (IOException e) {
-                LOGGER.error(e.getMessage());
-            }
+        WorkPageSource source = byAuthorSource(authorId, param.getFilter());
+        WorkCollector collector = new WorkCollector(param, source.getRemainingFilter());
+        try {
+            pageFetcher.fetch(source, collector, getConcurrency(param));
+        } catch (IOException e) {
+            LOGGER.error(e.getMessage());
         }
+        return collector.getWorks();
+    }
 
+    /**
+     * 异步获得指定作者的作品
+     * get illusts by author asynchronously
+     * @param authorId
+     * @param param
+     * @return
+     */
+    public Future<List<Work>> byAuthorAsync(int authorId, ParserParam param) {
+        return byAuthorAsync(authorId, param, null);
     }
 
     /**
-     * byAuthor请求的url
-     * build byAuthor api url
+     * 异步获得指定作者的作品，失败时Future和回调都会收到异常
+     * get illusts by author asynchronously, on failure both the future and the callback get the exception
      * @param authorId
-     * @param page
+     * @param param
+     * @param callback
      * @return
      */
-    public static String buildByAuthorUrl(int authorId, int page) {
-        Map<String, String> params = getCommonParams(page);
-        params.put("mode", "exact_tag");
-        params.put("per_page", "30");
-        return buildGetUrl(PixivParserConfig.AUTHOR_DETAIL_URL.replace("{authorId}", String.valueOf(authorId)), params);
+    public Future<List<Work>> byAuthorAsync(int authorId, ParserParam param, ResultCallback<List<Work>> callback) {
+        return collectAsync(byAuthorSource(authorId, param.getFilter()), param, callback);
     }
 
     /**
-     * 请求排行榜的url
-     * build ranking api url
-     * @param date
-     * @param page
+     * 惰性地获得指定作者的作品，遍历时才会请求下一页，停止遍历后不再有任何请求
+     * get illusts by author lazily, the next page is requested only when iterated, nothing is requested once the iteration stops
+     * @param authorId
+     * @param param
      * @return
      */
-    public static String buildRankUrl(Date date, int page) {
-        Map<String, String> params = getCommonParams(page);
-        params.put("mode", "daily");
-        params.put("per_page", "50");
-        if (date != null) {
-            params.put("date", FORMAT.format(date));
+    public Iterable<Work> iterateByAuthor(int authorId, ParserParam param) {
+        return new LazyWorkIterable(pageFetcher, byAuthorSource(authorId, param.getFilter()), param);
+    }
+
+    /**
+     * 增量地获得指定作者的作品，只返回比上次见过的最新作品更新的作品，遇到已经见过的作品时停止分页。
+     * 需要先通过setAuthorWatermarks设置高水位的存储，只有到达上次的位置或最后一页时才会推进高水位
+     * get only the works newer than the newest one seen last time, paging stops at the first work already seen.
+     * needs a watermark store set by setAuthorWatermarks, the mark is advanced only when the previous mark or the last page was reached
+     * @param authorId
+     * @param param
+     * @return
+     */
+    public List<Work> byAuthorIncremental(int authorId, ParserParam param) {
+        AuthorWatermarks watermarks = authorWatermarks;
+        if (watermarks == null) {
+            throw new IllegalStateException("authorWatermarks is not set");
+        }
+        int mark = watermarks.get(authorId);
+        WorkCollector collector = new WorkCollector(param, param.getFilter());
+        WatermarkConsumer consumer = new WatermarkConsumer(collector, mark);
+        //已经有高水位时新作品通常不满一页，逐页请求以免多请求已经见过的页
+        int concurrency = mark == AuthorWatermarks.NONE ? getConcurrency(param) : 1;
+        try {
+            //高水位需要看到每一件作品，所以不在原始条目上过滤
+            pageFetcher.fetch(byAuthorSource(authorId, null), consumer, concurrency);
+            if (consumer.isCaughtUp()) {
+                watermarks.advance(authorId, consumer.getNewest());
+            }
+        } catch (IOException e) {
+            LOGGER.error(e.getMessage());
         }
-        return buildGetUrl(PixivParserConfig.RANK_URL, params);
+        return collector.getWorks();
+    }
+
+    private WorkPageSource byAuthorSource(final int authorId, WorkFilter filter) {
+        return new WorkPageSource(Endpoint.AUTHOR, filter) {
+            @Override
+            String buildUrl(int page) {
+                return endpoints.byAuthor(authorId, page);
+            }
+        };
     }
 
     /**
-     * 请求搜索的url
-     * the search api url
-     * @param keyWord
-     * @param page
+     * 分页请求的并发数，ParserParam未指定时使用客户端的设置
+     * page concurrency of a paged request, the client's setting is used when ParserParam has none
+     * @param param
      * @return
      */
-    public static String buildSearchUrl(String keyWord, int page) {
-        Map<String, String> params = getCommonParams(page);
-        params.put("q", keyWord);
-        if (keyWord.split(" ").length == 1) {
-            params.put("mode", "exact_tag");
-        } else {
-            params.put("mode", "text");
+    private int getConcurrency(ParserParam param) {
+        return param.getConcurrency() > 0 ? param.getConcurrency() : pageConcurrency;
+    }
+
+    private Future<List<Work>> collectAsync(final WorkPageSource source, final ParserParam param, ResultCallback<List<Work>> callback) {
+        return submitAsync(new Callable<List<Work>>() {
+            @Override
+            public List<Work> call() throws IOException {
+                WorkCollector collector = new WorkCollector(param, source.getRemainingFilter());
+                pageFetcher.fetch(source, collector, getConcurrency(param));
+                return collector.getWorks();
+            }
+        }, callback);
+    }
+
+    /**
+     * 在异步线程池中执行请求，并通知回调
+     * run a request on the async executor and notify the callback
+     * @param request
+     * @param callback
+     * @return
+     */
+    private <T> Future<T> submitAsync(final Callable<T> request, final ResultCallback<T> callback) {
+        return getAsyncExecutor().submit(new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                T result;
+                try {
+                    result = request.call();
+                } catch (Exception e) {
+                    if (callback != null) {
+                        callback.onFailure(e);
+                    }
+                    throw e;
+                }
+                if (callback != null) {
+                    callback.onSuccess(result);
+                }
+                return result;
+            }
+        });
+    }
+
+    private synchronized ExecutorService getAsyncExecutor() {
+        if (asyncExecutor == null) {
+            asyncExecutor = Executors.newFixedThreadPool(PixivParserConfig.DEFAULT_ASYNC_THREADS,
+                    new DaemonThreadFactory("pixiv-async-"));
+            ownsAsyncExecutor = true;
+        }
+        return asyncExecutor;
+    }
+
+    /**
+     * 请求一页数据
+     * request one page
+     * @param get
+     * @param source
+     * @return
+     * @throws IOException
+     */
+    <T> ApiResponse<T> requestPage(HttpGet get, PageSource<T> source) throws IOException {
+        MetricsRecorder recorder = metrics;
+        long start = System.nanoTime();
+        boolean success = false;
+        try (CloseableHttpResponse response = executeApi(get)) {
+            checkStatus(response);
+            CountingInputStream in = new CountingInputStream(response.getEntity().getContent());
+            ApiResponse<T> page = source.read(in);
+            recorder.onBytes(source.getEndpoint(), in.getCount());
+            recorder.onWorksParsed(page.getResponse().size());
+            success = true;
+            return page;
+        } finally {
+            recorder.onRequest(source.getEndpoint(), System.nanoTime() - start, success);
         }
-        params.put("per_page", "30");
-        return buildGetUrl(PixivParserConfig.SEARCH_URL, params);
     }
 
     /**
-     * 公用参数
-     * the common params
+     * byAuthor请求的url，指向Pixiv而不是setApiBase设置的服务器
+     * build byAuthor api url on Pixiv rather than the server set by setApiBase
+     * @param authorId
      * @param page
      * @return
      */
-    private static Map<String, String> getCommonParams(int page) {
-        Map<String, String> params = new HashMap<>();
-        params.put("image_size", "profile_image_sizes");
-        params.put("profile_image_sizes", "px_170x170");
-        params.put("include_sanity_level", "true");
-        params.put("include_stats", "true");
-        params.put("period", "all");
-        params.put("order", "desc");
-        params.put("sort", "date");
-        params.put("page", String.valueOf(page));
-        return params;
+    public static String buildByAuthorUrl(int authorId, int page) {
+        return Endpoints.DEFAULT.byAuthor(authorId, page);
     }
 
     /**
-     * 作品详情url
-     * the getWork api url
-     * @param workId
+     * 日期格式化为yyyy-MM-dd
+     * format a date as yyyy-MM-dd
+     * @param date
      * @return
      */
-    private static String buildDetailUrl(int workId) {
-        Map<String, String> params = new HashMap<>();
-        params.put("image_sizes", "small,medium,large");
-        params.put("include_stats", "true");
-        return buildGetUrl(PixivParserConfig.ILLUST_DETAIL_URL.replace("{illustId}", String.valueOf(workId)), params);
+    static String formatDate(Date date) {
+        return FORMAT.get().format(date);
     }
 
     /**
-     * 将参数和url拼接起来
-     * joint url and params
-     * @param url
-     * @param params
+     * 请求排行榜的url，指向Pixiv而不是setApiBase设置的服务器
+     * build ranking api url on Pixiv rather than the server set by setApiBase
+     * @param date
+     * @param page
      * @return
      */
-    private static String buildGetUrl(String url, Map<String, String> params) {
-        if (params.isEmpty()) {
-            return url;
-        }
-        StringBuilder buffer = new StringBuilder(url);
-        if (!url.endsWith("?")) {
-            buffer.append("?");
-        }
-        for (Map.Entry<String, String> entry : params.entrySet()) {
-            buffer.append(entry.getKey()).append("=").append(entry.getValue()).append("&");
-        }
-        buffer.deleteCharAt(buffer.length() - 1);
-        return buffer.toString();
+    public static String buildRankUrl(Date date, int page) {
+        return Endpoints.DEFAULT.rank(date, page);
+    }
+
+    /**
+     * 请求搜索的url，指向Pixiv。关键词按RFC 3986编码，可以包含空格、&amp;、#和非ASCII字符
+     * the search api url on Pixiv, the key word is RFC 3986 encoded and may contain spaces, &amp;, # and non-ASCII characters
+     * @param keyWord
+     * @param page
+     * @return
+     */
+    public static String buildSearchUrl(String keyWord, int page) {
+        return Endpoints.DEFAULT.search(keyWord, page);
     }
 
     /**
@@ -459,10 +1138,21 @@ public class PixivParserClient {
     }
 
     /**
-     * 关闭client
-     * close the client
+     * 关闭client，会等待已提交的下载完成
+     * close the client, submitted downloads are finished first
      */
     public void close() {
+        DownloadEngine engine;
+        synchronized (this) {
+            engine = downloadEngine;
+            if (ownsAsyncExecutor) {
+                asyncExecutor.shutdown();
+            }
+        }
+        if (engine != null) {
+            engine.close();
+        }
+        pageExecutor.shutdownNow();
         try {
             client.close();
         } catch (IOException e) {
@@ -470,57 +1160,61 @@ public class PixivParserClient {
         }
     }
 
-    public static void download(Work work, DownloadCallback callback) {
-        DownloadTask task = new DownloadTask(work, callback);
-        new Thread(task).start();
+    /**
+     * 下载作品，任务会进入下载引擎的队列
+     * download a work, the task is queued in the download engine
+     * @param work
+     * @param callback
+     */
+    public void download(Work work, DownloadCallback callback) {
+        getDownloadEngine().download(work, callback);
     }
 
-    private static class DownloadTask implements Runnable {
-
-        private Work work;
-
-        private DownloadCallback callback;
+    /**
+     * 下载作品并将图片直接写入目录，不会在内存中保留图片内容
+     * download a work straight into a directory, the image content is never kept in memory
+     * @param work
+     * @param directory
+     * @param callback
+     */
+    public void download(Work work, File directory, TransferCallback callback) {
+        download(work, new FileImageSink(directory), callback);
+    }
 
-        public DownloadTask(Work work, DownloadCallback callback) {
-            this.work = work;
-            this.callback = callback;
-        }
+    /**
+     * 下载作品并将图片写入自定义的sink
+     * download a work into a custom sink
+     * @param work
+     * @param sink
+     * @param callback
+     */
+    public void download(Work work, ImageSink sink, TransferCallback callback) {
+        getDownloadEngine().download(work, sink, callback);
+    }
 
-        @Override
-        public void run() {
-            if (work.isManga()) {
-                List<byte[]> files = new ArrayList<>();
-                for (Page page : work.getMetadata().getPages()) {
-                    files.add(downloadImage(page.getImageUrls().getLarge()));
-                }
-                if (callback != null) {
-                    callback.onMangaFinished(work, files);
-                }
-            } else {
-                byte[] file = downloadImage(work.getImageUrls().getLarge());
-                if (callback != null) {
-                    callback.onIllustFinished(work, file);
-                }
-            }
-        }
+    /**
+     * 等待所有已提交的下载完成
+     * wait until every submitted download is finished
+     * @param timeout
+     * @param unit
+     * @return false if timed out
+     * @throws InterruptedException
+     */
+    public boolean awaitDownloads(long timeout, TimeUnit unit) throws InterruptedException {
+        return getDownloadEngine().awaitCompletion(timeout, unit);
+    }
 
-        private byte[] downloadImage(String url) {
-            HttpGet get = new HttpGet(url);
-            get.setHeader("Referer", "http://www.pixiv.net");
-            try (CloseableHttpClient client = HttpClients.createDefault();
-                 CloseableHttpResponse response = client.execute(get);
-                 ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-                byte[] buffer = new byte[1024];
-                int len;
-                while ((len = response.getEntity().getContent().read(buffer)) != -1) {
-                    out.write(buffer, 0, len);
-                }
-                return out.toByteArray();
-            } catch (IOException e) {
-                LOGGER.error(e.getMessage());
-            }
-            return null;
+    /**
+     * 获得下载引擎，可以查看队列长度和线程的繁忙程度
+     * get the download engine, to inspect queue depth and worker utilization
+     * @return
+     */
+    public synchronized DownloadEngine getDownloadEngine() {
+        if (downloadEngine == null) {
+            downloadEngine = new DownloadEngine(downloadParam);
+            downloadEngine.setMetrics(metrics);
         }
+        return downloadEngine;
     }
 
 }
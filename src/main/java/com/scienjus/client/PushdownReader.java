@@ -0,0 +1,541 @@
+package com.scienjus.client;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.scienjus.config.PixivParserConfig;
+import com.scienjus.filter.PushdownFilter;
+import com.scienjus.filter.RawEntry;
+import com.scienjus.model.ApiResponse;
+import com.scienjus.model.Pagination;
+import com.scienjus.model.Work;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.CharsetDecoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 先在原始的json条目上执行PushdownFilter，只有通过的条目才会绑定为Work。
+ * 扫描条目时只解码过滤器需要的路径，被拒绝的条目不会生成caption、tools、User和ImageUrls等对象
+ * runs a PushdownFilter on the raw json entries and binds only the ones that pass into a Work.
+ * scanning decodes only the paths the filter needs, a rejected entry allocates no caption, tools, User or ImageUrls
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+final class PushdownReader implements RawEntry {
+
+    private final byte[] buf;
+
+    private final int limit;
+
+    private int pos;
+
+    private final PushdownFilter filter;
+
+    private final PathNode root;
+
+    private final boolean[] present;
+
+    private final long[] longs;
+
+    /**
+     * 字符串、布尔值或字符串列表，数值时为null
+     * a String, Boolean or list of strings, null for a number
+     */
+    private final Object[] objects;
+
+    private final CharsetDecoder decoder = PixivParserConfig.CHARSET.newDecoder();
+
+    private int keyStart;
+
+    private int keyEnd;
+
+    private PushdownReader(byte[] buf, int limit, PushdownFilter filter, PathNode root) {
+        this.buf = buf;
+        this.limit = limit;
+        this.filter = filter;
+        this.root = root;
+        int paths = filter.getPaths().size();
+        this.present = new boolean[paths];
+        this.longs = new long[paths];
+        this.objects = new Object[paths];
+    }
+
+    /**
+     * 读取一页作品，response中被过滤器拒绝的条目不会出现在结果中
+     * read one page of works, entries the filter rejects are left out of the response
+     * @param in
+     * @param filter
+     * @param root the path tree built from the filter by PathNode.build
+     * @return
+     * @throws IOException
+     */
+    static ApiResponse<Work> readPage(InputStream in, PushdownFilter filter, PathNode root) throws IOException {
+        byte[] buf = new byte[16 * 1024];
+        int length = 0;
+        int read;
+        while ((read = in.read(buf, length, buf.length - length)) != -1) {
+            length += read;
+            if (length == buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+        }
+        return new PushdownReader(buf, length, filter, root).readPage();
+    }
+
+    private ApiResponse<Work> readPage() throws IOException {
+        ApiResponse<Work> page = new ApiResponse<>();
+        expect('{');
+        if (!consume('}')) {
+            do {
+                readKey();
+                skipWhitespace();
+                if (keyIs("response") && peek() == '[') {
+                    page.setResponse(readEntries());
+                } else if (keyIs("pagination") && peek() == '{') {
+                    int start = pos;
+                    skipValue();
+                    page.setPagination(bind(start, Pagination.class));
+                } else if (keyIs("status") && peek() == '"') {
+                    page.setStatus(readString());
+                } else if (keyIs("count") && peek() != 'n' && peek() != '"') {
+                    page.setCount((int) readNumber());
+                } else {
+                    skipValue();
+                }
+            } while (consume(','));
+            expect('}');
+        }
+        if (page.getResponse() == null) {
+            page.setResponse(new ArrayList<Work>(0));
+        }
+        return page;
+    }
+
+    private List<Work> readEntries() throws IOException {
+        List<Work> works = new ArrayList<>();
+        expect('[');
+        if (!consume(']')) {
+            do {
+                skipWhitespace();
+                if (peek() == '{') {
+                    int start = pos;
+                    Arrays.fill(present, false);
+                    Arrays.fill(objects, null);
+                    scanObject(root);
+                    if (filter.doFilter(this)) {
+                        works.add(bind(start, Work.class));
+                    }
+                } else {
+                    skipValue();
+                }
+            } while (consume(','));
+            expect(']');
+        }
+        return works;
+    }
+
+    /**
+     * 扫描一个对象，只读取路径树中的键，其余的值直接跳过
+     * scan one object, reading only the keys in the path tree and skipping every other value
+     */
+    private void scanObject(PathNode node) throws IOException {
+        expect('{');
+        if (consume('}')) {
+            return;
+        }
+        do {
+            readKey();
+            PathNode child = node.find(buf, keyStart, keyEnd);
+            if (child == null) {
+                skipValue();
+            } else {
+                readValue(child);
+            }
+        } while (consume(','));
+        expect('}');
+    }
+
+    private void readValue(PathNode node) throws IOException {
+        skipWhitespace();
+        byte c = peek();
+        int slot = node.slot;
+        if (c == '{') {
+            if (slot >= 0) {
+                present[slot] = true;
+            }
+            if (node.children.length > 0) {
+                scanObject(node);
+            } else {
+                skipValue();
+            }
+            return;
+        }
+        if (slot < 0 || c == 'n') {
+            skipValue();
+            return;
+        }
+        present[slot] = true;
+        if (c == '"') {
+            objects[slot] = readString();
+        } else if (c == '[') {
+            objects[slot] = readStrings();
+        } else if (c == 't' || c == 'f') {
+            skipValue();
+            objects[slot] = c == 't';
+        } else {
+            longs[slot] = readNumber();
+        }
+    }
+
+    private List<String> readStrings() throws IOException {
+        List<String> values = new ArrayList<>();
+        expect('[');
+        if (!consume(']')) {
+            do {
+                skipWhitespace();
+                byte c = peek();
+                if (c == '"') {
+                    values.add(readString());
+                } else {
+                    int start = pos;
+                    skipValue();
+                    values.add(c == 'n' ? null : new String(buf, start, pos - start, PixivParserConfig.CHARSET));
+                }
+            } while (consume(','));
+            expect(']');
+        }
+        return values;
+    }
+
+    private String readString() throws IOException {
+        int start = ++pos;
+        boolean escaped = false;
+        while (pos < limit && buf[pos] != '"') {
+            if (buf[pos] == '\\') {
+                escaped = true;
+                pos++;
+            }
+            pos++;
+        }
+        if (pos >= limit) {
+            throw malformed();
+        }
+        int end = pos++;
+        return escaped ? unescape(start, end) : new String(buf, start, end - start, PixivParserConfig.CHARSET);
+    }
+
+    private String unescape(int start, int end) throws IOException {
+        StringBuilder value = new StringBuilder(end - start);
+        int segment = start;
+        int i = start;
+        while (i < end) {
+            if (buf[i] != '\\') {
+                i++;
+                continue;
+            }
+            value.append(new String(buf, segment, i - segment, PixivParserConfig.CHARSET));
+            char c = (char) buf[i + 1];
+            switch (c) {
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'u':
+                    if (i + 6 > end) {
+                        throw malformed();
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(new String(buf, i + 2, 4, PixivParserConfig.CHARSET), 16));
+                    } catch (NumberFormatException e) {
+                        throw malformed();
+                    }
+                    i += 4;
+                    break;
+                default:
+                    value.append(c);
+            }
+            i += 2;
+            segment = i;
+        }
+        value.append(new String(buf, segment, end - segment, PixivParserConfig.CHARSET));
+        return value.toString();
+    }
+
+    /**
+     * 读取数值，带小数或指数时截断为整数，与绑定到int字段时相同
+     * read a number, truncated when it has a fraction or exponent as binding to an int field does
+     */
+    private long readNumber() throws IOException {
+        int start = pos;
+        boolean negative = pos < limit && buf[pos] == '-';
+        if (negative) {
+            pos++;
+        }
+        long value = 0;
+        int digits = 0;
+        while (pos < limit && buf[pos] >= '0' && buf[pos] <= '9') {
+            value = value * 10 + (buf[pos++] - '0');
+            digits++;
+        }
+        if (digits == 0) {
+            throw malformed();
+        }
+        if (digits < 19 && (pos >= limit || (buf[pos] != '.' && buf[pos] != 'e' && buf[pos] != 'E'))) {
+            return negative ? -value : value;
+        }
+        pos = start;
+        skipValue();
+        try {
+            return (long) Double.parseDouble(new String(buf, start, pos - start, PixivParserConfig.CHARSET));
+        } catch (NumberFormatException e) {
+            throw malformed();
+        }
+    }
+
+    /**
+     * 跳过一个值，对象和数组按层级跳过，不会解码其中的任何内容
+     * skip one value, objects and arrays are skipped by depth without decoding anything inside
+     */
+    private void skipValue() throws IOException {
+        skipWhitespace();
+        byte c = peek();
+        if (c == '"') {
+            skipString();
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            do {
+                if (pos >= limit) {
+                    throw malformed();
+                }
+                byte b = buf[pos];
+                if (b == '"') {
+                    skipString();
+                    continue;
+                }
+                if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    depth--;
+                }
+                pos++;
+            } while (depth > 0);
+        } else {
+            while (pos < limit) {
+                byte b = buf[pos];
+                if (b == ',' || b == '}' || b == ']' || (b <= ' ' && b >= 0)) {
+                    break;
+                }
+                pos++;
+            }
+        }
+    }
+
+    private void skipString() throws IOException {
+        pos++;
+        while (pos < limit && buf[pos] != '"') {
+            pos += buf[pos] == '\\' ? 2 : 1;
+        }
+        if (pos >= limit) {
+            throw malformed();
+        }
+        pos++;
+    }
+
+    private void readKey() throws IOException {
+        skipWhitespace();
+        if (peek() != '"') {
+            throw malformed();
+        }
+        keyStart = pos + 1;
+        skipString();
+        keyEnd = pos - 1;
+        expect(':');
+    }
+
+    private boolean keyIs(String name) {
+        if (keyEnd - keyStart != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (buf[keyStart + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private <T> T bind(int start, Class<T> type) throws IOException {
+        try {
+            decoder.reset();
+            return JSON.<T>parseObject(buf, start, pos - start, decoder, type);
+        } catch (JSONException e) {
+            throw new IOException("解析响应失败：" + e.getMessage(), e);
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < limit && buf[pos] <= ' ' && buf[pos] >= 0) {
+            pos++;
+        }
+    }
+
+    private byte peek() throws IOException {
+        if (pos >= limit) {
+            throw malformed();
+        }
+        return buf[pos];
+    }
+
+    private void expect(char c) throws IOException {
+        skipWhitespace();
+        if (peek() != c) {
+            throw malformed();
+        }
+        pos++;
+    }
+
+    private boolean consume(char c) {
+        skipWhitespace();
+        if (pos < limit && buf[pos] == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private IOException malformed() {
+        return new IOException("解析响应失败：位置" + pos + "的json格式错误");
+    }
+
+    @Override
+    public boolean has(int path) {
+        return present[path];
+    }
+
+    @Override
+    public long getLong(int path) {
+        if (!present[path]) {
+            return MISSING;
+        }
+        Object value = objects[path];
+        if (value == null) {
+            return longs[path];
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        if (value instanceof String) {
+            try {
+                return Long.parseLong((String) value);
+            } catch (NumberFormatException e) {
+                return MISSING;
+            }
+        }
+        return MISSING;
+    }
+
+    @Override
+    public String getString(int path) {
+        if (!present[path]) {
+            return null;
+        }
+        Object value = objects[path];
+        if (value == null) {
+            return String.valueOf(longs[path]);
+        }
+        return value instanceof List ? null : value.toString();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> getStrings(int path) {
+        Object value = present[path] ? objects[path] : null;
+        return value instanceof List ? (List<String>) value : null;
+    }
+
+    @Override
+    public boolean getBoolean(int path) {
+        if (!present[path]) {
+            return false;
+        }
+        Object value = objects[path];
+        if (value == null) {
+            return longs[path] != 0;
+        }
+        return value instanceof Boolean ? (Boolean) value : "true".equalsIgnoreCase(value.toString());
+    }
+
+    /**
+     * 过滤器路径组成的树，键以字节形式比较，不需要为每个键生成字符串。只读，可以在多个线程中共享
+     * the tree of the filter paths, keys are compared as bytes so no String is made per key. read only and shareable
+     */
+    static final class PathNode {
+
+        private final byte[] name;
+
+        private int slot = -1;
+
+        private PathNode[] children = new PathNode[0];
+
+        private PathNode(String name) {
+            this.name = name.getBytes(PixivParserConfig.CHARSET);
+        }
+
+        static PathNode build(List<String> paths) {
+            PathNode root = new PathNode("");
+            for (int i = 0; i < paths.size(); i++) {
+                PathNode node = root;
+                for (String name : paths.get(i).split("\\.")) {
+                    node = node.child(name);
+                }
+                node.slot = i;
+            }
+            return root;
+        }
+
+        private PathNode child(String name) {
+            byte[] bytes = name.getBytes(PixivParserConfig.CHARSET);
+            for (PathNode child : children) {
+                if (Arrays.equals(child.name, bytes)) {
+                    return child;
+                }
+            }
+            PathNode child = new PathNode(name);
+            children = Arrays.copyOf(children, children.length + 1);
+            children[children.length - 1] = child;
+            return child;
+        }
+
+        PathNode find(byte[] buf, int start, int end) {
+            int length = end - start;
+            for (PathNode child : children) {
+                byte[] name = child.name;
+                if (name.length != length) {
+                    continue;
+                }
+                int i = 0;
+                while (i < length && name[i] == buf[start + i]) {
+                    i++;
+                }
+                if (i == length) {
+                    return child;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.scienjus.client;
+
+import com.scienjus.model.ApiResponse;
+import com.scienjus.model.Pagination;
+import com.scienjus.model.Rank;
+import com.scienjus.model.RankPage;
+import com.scienjus.model.RankWork;
+
+import java.util.ArrayList;
+
+/**
+ * 将每一页的排行榜作品追加到一个Rank中
+ * appends the works of each ranking page to one Rank
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+class RankCollector implements PageConsumer<RankWork> {
+
+    private Rank rank;
+
+    @Override
+    public boolean onPage(ApiResponse<RankWork> page) {
+        if (rank == null) {
+            RankPage first = (RankPage) page;
+            rank = new Rank();
+            rank.setContent(first.getContent());
+            rank.setMode(first.getMode());
+            rank.setDate(first.getDate());
+            //按第一页返回的总数预分配
+            Pagination pagination = page.getPagination();
+            int total = pagination != null && pagination.getTotal() != null ? pagination.getTotal() : 0;
+            rank.setWorks(new ArrayList<RankWork>(Math.max(total, page.getResponse().size())));
+        }
+        rank.getWorks().addAll(page.getResponse());
+        return true;
+    }
+
+    Rank getRank() {
+        return rank;
+    }
+}
@@ -0,0 +1,165 @@
+package com.scienjus.client;
+
+import com.scienjus.callback.RankCallback;
+import com.scienjus.model.Rank;
+import com.scienjus.store.RankStore;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * 并发获取一段时间内每天的排行榜，已经保存在历史中的日期不会请求，等到交给回调时才从历史中读取，结果按日期顺序交给回调
+ * fetches the daily rankings of a date range concurrently, days already in the history are not requested and are only read
+ * from it when handed to the callback, results reach the callback in date order
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+class RankRangeFetcher {
+
+    private static final Logger LOGGER = Logger.getLogger(RankRangeFetcher.class);
+
+    private final PixivParserClient client;
+
+    private final ExecutorService executor;
+
+    private final RankStore store;
+
+    private final int concurrency;
+
+    RankRangeFetcher(PixivParserClient client, ExecutorService executor, RankStore store, int concurrency) {
+        this.client = client;
+        this.executor = executor;
+        this.store = store;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * 获取from到to（包含）每天的排行榜，获取失败的日期会被跳过
+     * fetch the ranking of every day from `from` to `to` inclusive, failed days are skipped
+     * @param from
+     * @param to
+     * @param callback
+     */
+    void fetch(Date from, Date to, RankCallback callback) {
+        Calendar next = startOfDay(from);
+        Calendar last = startOfDay(to);
+        Deque<Day> window = new ArrayDeque<>();
+        int inFlight = 0;
+        try {
+            while (!next.after(last) || !window.isEmpty()) {
+                //历史中已有的日期不占用并发数，它们在轮到时才读取，不会占用内存
+                while (!next.after(last) && inFlight < concurrency) {
+                    Day day = load(next.getTime());
+                    if (day.future != null) {
+                        inFlight++;
+                    }
+                    window.add(day);
+                    next.add(Calendar.DAY_OF_MONTH, 1);
+                }
+                Day day = window.poll();
+                if (day.future != null) {
+                    inFlight--;
+                }
+                Rank rank = day.await();
+                if (rank != null) {
+                    callback.onRank(day.date, rank);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.error("等待排行榜时被中断");
+        } finally {
+            for (Day day : window) {
+                if (day.future != null) {
+                    day.future.cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * 历史中已有时等到轮到这一天再读取，没有时提交请求
+     * a day in the history is read when its turn comes, otherwise a request is submitted
+     */
+    private Day load(Date date) {
+        if (store != null && store.contains(date)) {
+            return new Day(date, null);
+        }
+        return new Day(date, submit(date));
+    }
+
+    private Future<Rank> submit(final Date date) {
+        return executor.submit(new Callable<Rank>() {
+            @Override
+            public Rank call() throws IOException {
+                Rank rank = client.requestRanking(date);
+                if (store != null && rank != null && rank.getWorks() != null && !rank.getWorks().isEmpty()) {
+                    store.put(date, rank);
+                }
+                return rank;
+            }
+        });
+    }
+
+    private static Calendar startOfDay(Date date) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar;
+    }
+
+    /**
+     * 一天的排行榜，在历史中或正在请求
+     * the ranking of one day, in the history or being requested
+     */
+    private class Day {
+
+        private final Date date;
+
+        /**
+         * 请求的结果，为null时从历史中读取
+         * the pending request, null when the day is read from the history
+         */
+        private Future<Rank> future;
+
+        Day(Date date, Future<Rank> future) {
+            this.date = date;
+            this.future = future;
+        }
+
+        /**
+         * 等待这一天的排行榜，历史读取失败时改为请求，失败时返回null
+         * wait for the ranking of this day, requested instead when the history cannot be read, null on failure
+         */
+        Rank await() throws InterruptedException {
+            if (future == null) {
+                try {
+                    Rank stored = store.get(date);
+                    if (stored != null) {
+                        return stored;
+                    }
+                } catch (IOException e) {
+                    LOGGER.error("读取排行榜历史失败：" + e.getMessage());
+                }
+                future = submit(date);
+            }
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                LOGGER.error(PixivParserClient.formatDate(date) + "的排行榜获取失败：" + e.getCause());
+                return null;
+            }
+        }
+    }
+}
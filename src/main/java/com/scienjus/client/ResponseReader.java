@@ -0,0 +1,204 @@
+package com.scienjus.client;
+
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONReader;
+import com.scienjus.config.PixivParserConfig;
+import com.scienjus.model.ApiResponse;
+import com.scienjus.model.Pagination;
+import com.scienjus.model.RankPage;
+import com.scienjus.model.RankWork;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 直接从响应流中绑定Api的返回数据，不会生成中间的字符串或JSONObject
+ * binds api responses straight from the entity stream, without an intermediate String or JSONObject tree
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+final class ResponseReader {
+
+    /**
+     * 排行榜每页的作品数，用于预分配列表
+     * works per ranking page, used to presize the list
+     */
+    static final int RANK_PER_PAGE = 50;
+
+    private ResponseReader() {
+    }
+
+    /**
+     * 读取一页数据，response为数组
+     * read one page whose response is an array
+     * @param in
+     * @param itemType
+     * @return
+     * @throws IOException
+     */
+    static <T> ApiResponse<T> readPage(InputStream in, Class<T> itemType) throws IOException {
+        return readPage(in, new ApiResponse<T>(), new ArrayItems<>(itemType));
+    }
+
+    /**
+     * 读取排行榜的一页，作品直接读入这一页的列表，不会生成中间的Rank
+     * read one ranking page, works are read straight into the page list without an intermediate Rank
+     * @param in
+     * @return
+     * @throws IOException
+     */
+    static RankPage readRankPage(InputStream in) throws IOException {
+        RankPage page = new RankPage();
+        return readPage(in, page, new RankItems(page));
+    }
+
+    private static <T, P extends ApiResponse<T>> P readPage(InputStream in, P page, ItemsReader<T> items) throws IOException {
+        JSONReader reader = new JSONReader(new InputStreamReader(in, PixivParserConfig.CHARSET));
+        try {
+            reader.startObject();
+            while (reader.hasNext()) {
+                String key = reader.readString();
+                switch (key) {
+                    case "response":
+                        page.setResponse(items.read(reader));
+                        break;
+                    case "pagination":
+                        page.setPagination(reader.readObject(Pagination.class));
+                        break;
+                    case "status":
+                        page.setStatus(reader.readString());
+                        break;
+                    case "count":
+                        page.setCount(reader.readInteger());
+                        break;
+                    default:
+                        reader.readObject();
+                }
+            }
+            reader.endObject();
+            if (page.getResponse() == null) {
+                page.setResponse(new ArrayList<T>(0));
+            }
+            return page;
+        } catch (JSONException e) {
+            throw new IOException("解析响应失败：" + e.getMessage(), e);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * 读取response字段，response为对象
+     * read the response field whose value is an object
+     * @param in
+     * @param type
+     * @return
+     * @throws IOException
+     */
+    static <T> T readResponse(InputStream in, Class<T> type) throws IOException {
+        JSONReader reader = new JSONReader(new InputStreamReader(in, PixivParserConfig.CHARSET));
+        try {
+            T value = null;
+            reader.startObject();
+            while (reader.hasNext()) {
+                String key = reader.readString();
+                if ("response".equals(key)) {
+                    value = reader.readObject(type);
+                } else {
+                    reader.readObject();
+                }
+            }
+            reader.endObject();
+            return value;
+        } catch (JSONException e) {
+            throw new IOException("解析响应失败：" + e.getMessage(), e);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * 读取response的值
+     * reads the value of response
+     */
+    private interface ItemsReader<T> {
+
+        List<T> read(JSONReader reader);
+    }
+
+    /**
+     * response为数组，每个元素绑定为一个对象
+     * response is an array, each element is bound to one object
+     */
+    private static class ArrayItems<T> implements ItemsReader<T> {
+
+        private final Class<T> itemType;
+
+        ArrayItems(Class<T> itemType) {
+            this.itemType = itemType;
+        }
+
+        @Override
+        public List<T> read(JSONReader reader) {
+            List<T> items = new ArrayList<>();
+            reader.startArray();
+            while (reader.hasNext()) {
+                items.add(reader.readObject(itemType));
+            }
+            reader.endArray();
+            return items;
+        }
+    }
+
+    /**
+     * response为只有一个Rank的数组，Rank的属性写入RankPage，works作为这一页的数据
+     * response is an array of one Rank, its fields go to the RankPage and its works become the items
+     */
+    private static class RankItems implements ItemsReader<RankWork> {
+
+        private final RankPage page;
+
+        RankItems(RankPage page) {
+            this.page = page;
+        }
+
+        @Override
+        public List<RankWork> read(JSONReader reader) {
+            List<RankWork> works = new ArrayList<>(RANK_PER_PAGE);
+            reader.startArray();
+            while (reader.hasNext()) {
+                reader.startObject();
+                while (reader.hasNext()) {
+                    String key = reader.readString();
+                    switch (key) {
+                        case "works":
+                            reader.startArray();
+                            while (reader.hasNext()) {
+                                works.add(reader.readObject(RankWork.class));
+                            }
+                            reader.endArray();
+                            break;
+                        case "content":
+                            page.setContent(reader.readString());
+                            break;
+                        case "mode":
+                            page.setMode(reader.readString());
+                            break;
+                        case "date":
+                            page.setDate(reader.readObject(Date.class));
+                            break;
+                        default:
+                            reader.readObject();
+                    }
+                }
+                reader.endObject();
+            }
+            reader.endArray();
+            return works;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.scienjus.client;
+
+import com.alibaba.fastjson.JSONObject;
+import com.scienjus.auth.AccessToken;
+import com.scienjus.auth.TokenStore;
+import com.scienjus.config.PixivParserConfig;
+import com.scienjus.metrics.Endpoint;
+import com.scienjus.metrics.MetricsRecorder;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 管理Token的生命周期：登录、过期前刷新、401后刷新，以及保存到磁盘。
+ * 同一时间只有一个线程刷新，其他线程等待并使用它的结果
+ * manages the token lifecycle: login, refresh before expiry, refresh after a 401, and saving to disk.
+ * only one thread refreshes at a time, the others wait and use its result
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+class TokenManager {
+
+    private static final Logger LOGGER = Logger.getLogger(TokenManager.class);
+
+    private final CloseableHttpClient client;
+
+    private volatile String username;
+
+    private volatile String password;
+
+    private volatile AccessToken token;
+
+    private volatile TokenStore store;
+
+    private volatile MetricsRecorder metrics = MetricsRecorder.NONE;
+
+    /**
+     * 最近一次刷新失败的时间，0表示没有失败过
+     * when the last refresh failed, 0 when none has
+     */
+    private volatile long refreshFailedAt;
+
+    private volatile String loginUrl = PixivParserConfig.LOGIN_URL;
+
+    TokenManager(CloseableHttpClient client) {
+        this.client = client;
+    }
+
+    /**
+     * 登录，保存的Token未过期时直接使用
+     * login, a saved token is used as long as it has not expired
+     * @throws IOException
+     */
+    synchronized void login() throws IOException {
+        if (username == null || password == null) {
+            throw new IOException("用户名或密码为空！");
+        }
+        LOGGER.info("当前登录的用户为：" + username);
+        AccessToken saved = loadSaved();
+        if (saved != null && !saved.isExpiring(PixivParserConfig.TOKEN_REFRESH_MARGIN_MILLIS, System.currentTimeMillis())) {
+            LOGGER.info("使用保存的Token");
+            token = saved;
+            return;
+        }
+        if (saved != null && saved.getRefreshToken() != null && tryRefresh(saved.getRefreshToken())) {
+            return;
+        }
+        token = requestToken(passwordGrant());
+        LOGGER.info("登录成功！");
+        save();
+    }
+
+    /**
+     * 当前的Token，快要过期时先刷新，刷新失败时仍然返回旧的Token。
+     * 刷新失败后的一段时间内，还没有过期的Token不会再次刷新
+     * the current token, refreshed first when about to expire, the old one is returned if the refresh fails.
+     * for a while after a failed refresh a token that has not expired yet is not refreshed again
+     * @return null when not logged in
+     */
+    String current() {
+        AccessToken current = token;
+        long now = System.currentTimeMillis();
+        if (current == null || !current.isExpiring(PixivParserConfig.TOKEN_REFRESH_MARGIN_MILLIS, now)) {
+            return current == null ? null : current.getAccessToken();
+        }
+        if (!current.isExpiring(0, now) && now - refreshFailedAt < PixivParserConfig.TOKEN_REFRESH_BACKOFF_MILLIS) {
+            return current.getAccessToken();
+        }
+        try {
+            return refresh(current.getAccessToken());
+        } catch (IOException e) {
+            LOGGER.error("刷新Token失败：" + e.getMessage());
+            return current.getAccessToken();
+        }
+    }
+
+    /**
+     * 刷新Token。其他线程已经刷新过时直接返回新的Token，不会再次请求；
+     * 等待期间其他线程的刷新失败时直接失败，不会再次请求
+     * refresh the token. when another thread already replaced the stale one, the new token is returned without a request;
+     * when another thread's refresh failed while this one waited, it fails without a request too
+     * @param stale the token that was rejected or is expiring
+     * @return
+     * @throws IOException
+     */
+    String refresh(String stale) throws IOException {
+        long requestedAt = System.currentTimeMillis();
+        synchronized (this) {
+            AccessToken current = token;
+            if (current != null && !current.getAccessToken().equals(stale)) {
+                return current.getAccessToken();
+            }
+            if (refreshFailedAt >= requestedAt) {
+                throw new IOException("刷新Token刚刚失败");
+            }
+            try {
+                return doRefresh(current);
+            } catch (IOException e) {
+                refreshFailedAt = System.currentTimeMillis();
+                throw e;
+            }
+        }
+    }
+
+    private String doRefresh(AccessToken current) throws IOException {
+        if (current != null && current.getRefreshToken() != null && tryRefresh(current.getRefreshToken())) {
+            return token.getAccessToken();
+        }
+        if (username == null || password == null) {
+            throw new IOException("Token已失效且没有用户名或密码");
+        }
+        token = requestToken(passwordGrant());
+        LOGGER.info("重新登录成功！");
+        save();
+        return token.getAccessToken();
+    }
+
+    /**
+     * 是否可以刷新Token
+     * whether the token can be refreshed
+     * @return
+     */
+    boolean canRefresh() {
+        AccessToken current = token;
+        return (current != null && current.getRefreshToken() != null) || (username != null && password != null);
+    }
+
+    private boolean tryRefresh(String refreshToken) {
+        List<NameValuePair> params = clientParams();
+        params.add(new BasicNameValuePair("refresh_token", refreshToken));
+        params.add(new BasicNameValuePair("grant_type", "refresh_token"));
+        try {
+            token = requestToken(params);
+            LOGGER.info("刷新Token成功！");
+            save();
+            return true;
+        } catch (IOException e) {
+            LOGGER.warn("刷新Token失败，重新登录：" + e.getMessage());
+            return false;
+        }
+    }
+
+    private AccessToken requestToken(List<NameValuePair> params) throws IOException {
+        HttpPost post = new HttpPost(loginUrl);
+        post.setEntity(new UrlEncodedFormEntity(params, PixivParserConfig.CHARSET));
+        MetricsRecorder recorder = metrics;
+        long start = System.nanoTime();
+        boolean success = false;
+        try (CloseableHttpResponse response = client.execute(post)) {
+            if (response.getStatusLine().getStatusCode() != 200) {
+                throw new IOException("登录失败！请检查用户名或密码是否正确");
+            }
+            JSONObject json = ResponseReader.readResponse(response.getEntity().getContent(), JSONObject.class);
+            if (json == null || json.getString("access_token") == null) {
+                throw new IOException("登录失败！响应中没有access_token");
+            }
+            Long expiresIn = json.getLong("expires_in");
+            long expiresAt = expiresIn == null ? Long.MAX_VALUE : System.currentTimeMillis() + expiresIn * 1000;
+            success = true;
+            return new AccessToken(json.getString("access_token"), json.getString("refresh_token"), expiresAt);
+        } finally {
+            recorder.onRequest(Endpoint.LOGIN, System.nanoTime() - start, success);
+        }
+    }
+
+    private List<NameValuePair> passwordGrant() {
+        List<NameValuePair> params = clientParams();
+        params.add(new BasicNameValuePair("username", username));
+        params.add(new BasicNameValuePair("password", password));
+        params.add(new BasicNameValuePair("grant_type", "password"));
+        return params;
+    }
+
+    private static List<NameValuePair> clientParams() {
+        List<NameValuePair> params = new ArrayList<>();
+        params.add(new BasicNameValuePair("client_id", "bYGKuGVw91e0NMfPGp44euvGt59s"));    //感谢 pixivpy 提供
+        params.add(new BasicNameValuePair("client_secret", "HP3RmkgAmEGro0gn1x9ioawQE8WMfvLXDz3ZqxpK"));
+        return params;
+    }
+
+    private AccessToken loadSaved() {
+        TokenStore current = store;
+        if (current == null) {
+            return null;
+        }
+        try {
+            return current.load(username);
+        } catch (IOException e) {
+            LOGGER.warn("读取保存的Token失败：" + e.getMessage());
+            return null;
+        }
+    }
+
+    private void save() {
+        TokenStore current = store;
+        if (current == null || username == null) {
+            return;
+        }
+        try {
+            current.save(username, token);
+        } catch (IOException e) {
+            LOGGER.warn("保存Token失败：" + e.getMessage());
+        }
+    }
+
+    void setUsername(String username) {
+        this.username = username;
+    }
+
+    void setPassword(String password) {
+        this.password = password;
+    }
+
+    void setMetrics(MetricsRecorder metrics) {
+        this.metrics = metrics;
+    }
+
+    void setStore(TokenStore store) {
+        this.store = store;
+    }
+
+    void setLoginUrl(String loginUrl) {
+        this.loginUrl = loginUrl;
+    }
+
+    AccessToken getToken() {
+        return token;
+    }
+}
@@ -0,0 +1,113 @@
+package com.scienjus.client;
+
+import com.scienjus.http.UriEncoding;
+
+/**
+ * 拼接Api请求的url。每个线程复用一个builder，从端点预先拼接好的前缀开始，只追加变化的参数，参数值按RFC 3986编码
+ * builds api request urls. each thread reuses one builder, starting from the prefix precomputed for the endpoint
+ * and appending only the varying params, whose values are RFC 3986 encoded
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+final class UrlBuilder {
+
+    /**
+     * 超过这个长度的缓冲区用完后不再复用
+     * a buffer grown beyond this is not kept for reuse
+     */
+    private static final int MAX_RETAINED = 4096;
+
+    private static final ThreadLocal<UrlBuilder> BUILDERS = new ThreadLocal<UrlBuilder>() {
+        @Override
+        protected UrlBuilder initialValue() {
+            return new UrlBuilder();
+        }
+    };
+
+    private StringBuilder buffer = new StringBuilder(512);
+
+    private boolean hasQuery;
+
+    private UrlBuilder() {
+    }
+
+    /**
+     * 当前线程的builder，内容为prefix
+     * the builder of this thread holding prefix
+     * @param prefix already encoded, may end with a query
+     * @return
+     */
+    static UrlBuilder start(String prefix) {
+        UrlBuilder builder = BUILDERS.get();
+        if (builder.buffer.capacity() > MAX_RETAINED) {
+            builder.buffer = new StringBuilder(512);
+        }
+        builder.buffer.setLength(0);
+        builder.buffer.append(prefix);
+        builder.hasQuery = prefix.indexOf('?') >= 0;
+        return builder;
+    }
+
+    /**
+     * 追加已经编码的内容，例如路径中id之后的部分
+     * append content already encoded, such as the rest of the path after an id
+     */
+    UrlBuilder raw(String encoded) {
+        buffer.append(encoded);
+        if (!hasQuery) {
+            hasQuery = encoded.indexOf('?') >= 0;
+        }
+        return this;
+    }
+
+    UrlBuilder raw(int value) {
+        buffer.append(value);
+        return this;
+    }
+
+    UrlBuilder param(String name, String value) {
+        separator().append(name).append('=');
+        UriEncoding.append(buffer, value);
+        return this;
+    }
+
+    UrlBuilder param(String name, int value) {
+        separator().append(name).append('=').append(value);
+        return this;
+    }
+
+    String build() {
+        return buffer.toString();
+    }
+
+    private StringBuilder separator() {
+        if (hasQuery) {
+            char last = buffer.charAt(buffer.length() - 1);
+            if (last != '?' && last != '&') {
+                buffer.append('&');
+            }
+        } else {
+            buffer.append('?');
+            hasQuery = true;
+        }
+        return buffer;
+    }
+
+    /**
+     * 将固定的参数预先编码为查询字符串，不带?
+     * encode constant params into a query string in advance, without the ?
+     * @param params name and value pairs
+     * @return
+     */
+    static String query(String... params) {
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < params.length; i += 2) {
+            if (i > 0) {
+                query.append('&');
+            }
+            query.append(params[i]).append('=');
+            UriEncoding.append(query, params[i + 1]);
+        }
+        return query.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package com.scienjus.client;
+
+import com.scienjus.model.ApiResponse;
+import com.scienjus.model.Work;
+
+import java.util.List;
+
+/**
+ * 遇到不大于高水位的作品时停止分页，作品按时间倒序排列，所以之后的作品都已经见过
+ * stops paging at the first work not above the high-water mark, works come newest first so everything after it was seen before
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+class WatermarkConsumer implements PageConsumer<Work> {
+
+    private final PageConsumer<Work> delegate;
+
+    private final int mark;
+
+    private int newest;
+
+    /**
+     * 是否到达了高水位或最后一页，而且delegate收下了所有新作品
+     * whether the mark or the last page was reached with the delegate taking every new work
+     */
+    private boolean caughtUp = true;
+
+    WatermarkConsumer(PageConsumer<Work> delegate, int mark) {
+        this.delegate = delegate;
+        this.mark = mark;
+        this.newest = mark;
+    }
+
+    @Override
+    public boolean onPage(ApiResponse<Work> page) {
+        List<Work> works = page.getResponse();
+        int end = 0;
+        while (end < works.size() && works.get(end).getId() > mark) {
+            newest = Math.max(newest, works.get(end).getId());
+            end++;
+        }
+        boolean reached = end < works.size();
+        if (reached) {
+            page.setResponse(works.subList(0, end));
+        }
+        if (!delegate.onPage(page)) {
+            //不知道delegate收下了这一页的多少作品，即使到达了高水位也不能前移，否则没收下的作品以后不会再出现
+            caughtUp = false;
+            return false;
+        }
+        return !reached;
+    }
+
+    /**
+     * 新的高水位
+     * the new high-water mark
+     * @return
+     */
+    int getNewest() {
+        return newest;
+    }
+
+    boolean isCaughtUp() {
+        return caughtUp;
+    }
+}
@@ -0,0 +1,57 @@
+package com.scienjus.client;
+
+import com.scienjus.callback.WorkCallback;
+import com.scienjus.config.PixivParserConfig;
+import com.scienjus.filter.WorkFilter;
+import com.scienjus.model.ApiResponse;
+import com.scienjus.model.Work;
+import com.scienjus.param.ParserParam;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按照ParserParam过滤和收集作品
+ * filters and collects works by ParserParam
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+class WorkCollector implements PageConsumer<Work> {
+
+    private final ParserParam param;
+
+    private final WorkFilter filter;
+
+    private final List<Work> works = new ArrayList<>();
+
+    /**
+     * @param param
+     * @param filter the filter to run on each work, null when the source already filtered them
+     */
+    WorkCollector(ParserParam param, WorkFilter filter) {
+        this.param = param;
+        this.filter = filter;
+    }
+
+    @Override
+    public boolean onPage(ApiResponse<Work> page) {
+        WorkCallback callback = param.getCallback();
+        int limit = param.getLimit();
+        for (Work work : page.getResponse()) {
+            if (filter == null || filter.doFilter(work)) {
+                if (callback != null) {
+                    callback.onFound(work);
+                }
+                works.add(work);
+                if (limit != PixivParserConfig.NO_LIMIT && works.size() >= limit) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    List<Work> getWorks() {
+        return works;
+    }
+}
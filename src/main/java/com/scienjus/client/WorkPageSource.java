@@ -0,0 +1,58 @@
+package com.scienjus.client;
+
+import com.scienjus.filter.PushdownFilter;
+import com.scienjus.filter.WorkFilter;
+import com.scienjus.metrics.Endpoint;
+import com.scienjus.model.ApiResponse;
+import com.scienjus.model.Work;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 作品列表的数据源。过滤器是PushdownFilter时在原始条目上过滤，只绑定通过的作品
+ * the source of a work list. with a PushdownFilter the raw entries are filtered and only the passing works are bound
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+abstract class WorkPageSource extends PageSource<Work> {
+
+    private final WorkFilter filter;
+
+    private final PushdownFilter pushdown;
+
+    private final PushdownReader.PathNode paths;
+
+    /**
+     * @param endpoint
+     * @param filter the filter of the request, null when every work is wanted or the consumer filters by itself
+     */
+    WorkPageSource(Endpoint endpoint, WorkFilter filter) {
+        super(Work.class, endpoint);
+        this.filter = filter;
+        if (filter instanceof PushdownFilter) {
+            this.pushdown = (PushdownFilter) filter;
+            this.paths = PushdownReader.PathNode.build(pushdown.getPaths());
+        } else {
+            this.pushdown = null;
+            this.paths = null;
+        }
+    }
+
+    @Override
+    ApiResponse<Work> read(InputStream in) throws IOException {
+        if (pushdown == null) {
+            return super.read(in);
+        }
+        return PushdownReader.readPage(in, pushdown, paths);
+    }
+
+    /**
+     * 读取后仍需对Work执行的过滤器，已经在原始条目上过滤时为null
+     * the filter still to run on the bound works, null once the raw entries were filtered
+     * @return
+     */
+    WorkFilter getRemainingFilter() {
+        return pushdown == null ? filter : null;
+    }
+}
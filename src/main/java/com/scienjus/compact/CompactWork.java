@@ -0,0 +1,266 @@
+package com.scienjus.compact;
+
+/**
+ * 紧凑的作品，统计数据直接保存为基本类型，时间保存为epoch秒，分类字段保存为字节编码，标签和作者保存为字典中的id。
+ * 只保留分析时常用的字段，caption、tools、图片地址、漫画的每一页和作者的头像等不会保留。由WorkDictionary创建
+ * a compact work: stats are inline primitives, times are epoch seconds, categorical fields are byte codes, tags
+ * and the author are ids in a dictionary. only the fields commonly used for analysis are kept, caption, tools,
+ * image urls, manga pages and the author's profile images are dropped. created by WorkDictionary
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public final class CompactWork {
+
+    static final int MANGA = 1;
+
+    static final int LIKED = 1 << 1;
+
+    /**
+     * 原作品有stats
+     * the original work has stats
+     */
+    static final int STATS = 1 << 2;
+
+    /**
+     * 原作品有stats.favorited_count，搜索结果中通常没有
+     * the original work has stats.favorited_count, which search results usually lack
+     */
+    static final int FAVORITES = 1 << 3;
+
+    /**
+     * stats.commented_count是数字
+     * stats.commented_count is a number
+     */
+    static final int COMMENTS = 1 << 4;
+
+    static final int USER = 1 << 5;
+
+    static final int TAGS = 1 << 6;
+
+    final int id;
+
+    final String title;
+
+    final int width;
+
+    final int height;
+
+    final int pageCount;
+
+    final int publicity;
+
+    final int score;
+
+    final int scoredCount;
+
+    final int views;
+
+    final int favorites;
+
+    final int privateFavorites;
+
+    final int comments;
+
+    final long createdTime;
+
+    final long reuploadedTime;
+
+    final byte ageLimit;
+
+    final byte sanityLevel;
+
+    final byte type;
+
+    final byte flags;
+
+    final int userId;
+
+    final int userName;
+
+    final int userAccount;
+
+    final int[] tags;
+
+    CompactWork(int id, String title, int width, int height, int pageCount, int publicity,
+                int score, int scoredCount, int views, int favorites, int privateFavorites, int comments,
+                long createdTime, long reuploadedTime, byte ageLimit, byte sanityLevel, byte type, byte flags,
+                int userId, int userName, int userAccount, int[] tags) {
+        this.id = id;
+        this.title = title;
+        this.width = width;
+        this.height = height;
+        this.pageCount = pageCount;
+        this.publicity = publicity;
+        this.score = score;
+        this.scoredCount = scoredCount;
+        this.views = views;
+        this.favorites = favorites;
+        this.privateFavorites = privateFavorites;
+        this.comments = comments;
+        this.createdTime = createdTime;
+        this.reuploadedTime = reuploadedTime;
+        this.ageLimit = ageLimit;
+        this.sanityLevel = sanityLevel;
+        this.type = type;
+        this.flags = flags;
+        this.userId = userId;
+        this.userName = userName;
+        this.userAccount = userAccount;
+        this.tags = tags;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public int getPublicity() {
+        return publicity;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getScoredCount() {
+        return scoredCount;
+    }
+
+    public int getViews() {
+        return views;
+    }
+
+    /**
+     * 公开收藏数，hasFavorites为false时为0
+     * the public favorites, 0 when hasFavorites is false
+     * @return
+     */
+    public int getFavorites() {
+        return favorites;
+    }
+
+    public int getPrivateFavorites() {
+        return privateFavorites;
+    }
+
+    /**
+     * 评论数，hasComments为false时为0
+     * the comment count, 0 when hasComments is false
+     * @return
+     */
+    public int getComments() {
+        return comments;
+    }
+
+    /**
+     * 投稿时间
+     * when the work was posted
+     * @return epoch seconds, PixivTime.NO_TIME when absent
+     */
+    public long getCreatedTime() {
+        return createdTime;
+    }
+
+    /**
+     * @return epoch seconds, PixivTime.NO_TIME when absent
+     */
+    public long getReuploadedTime() {
+        return reuploadedTime;
+    }
+
+    /**
+     * 年龄限制的编码，0为null，其余为WorkDictionary中的编码
+     * the code of the age limit, 0 for null and otherwise a code of the WorkDictionary
+     * @return
+     */
+    public int getAgeLimitCode() {
+        return ageLimit & 0xff;
+    }
+
+    public int getSanityLevelCode() {
+        return sanityLevel & 0xff;
+    }
+
+    public int getTypeCode() {
+        return type & 0xff;
+    }
+
+    public boolean isManga() {
+        return (flags & MANGA) != 0;
+    }
+
+    public boolean isLiked() {
+        return (flags & LIKED) != 0;
+    }
+
+    public boolean hasStats() {
+        return (flags & STATS) != 0;
+    }
+
+    public boolean hasFavorites() {
+        return (flags & FAVORITES) != 0;
+    }
+
+    public boolean hasComments() {
+        return (flags & COMMENTS) != 0;
+    }
+
+    public boolean hasUser() {
+        return (flags & USER) != 0;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * 作者名在WorkDictionary.getUsers中的id
+     * the id of the author name in WorkDictionary.getUsers
+     * @return
+     */
+    public int getUserNameId() {
+        return userName;
+    }
+
+    public int getUserAccountId() {
+        return userAccount;
+    }
+
+    public int getTagCount() {
+        return tags.length;
+    }
+
+    /**
+     * 第index个标签在WorkDictionary.getTags中的id
+     * the id of the index-th tag in WorkDictionary.getTags
+     * @param index
+     * @return
+     */
+    public int getTagId(int index) {
+        return tags[index];
+    }
+
+    public boolean hasTag(int tagId) {
+        for (int tag : tags) {
+            if (tag == tagId) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,114 @@
+package com.scienjus.compact;
+
+import com.scienjus.config.PixivParserConfig;
+
+/**
+ * Api中yyyy-MM-dd HH:mm:ss形式的时间与epoch秒之间的转换，直接按公历计算，不会创建Date或Calendar
+ * converts between the yyyy-MM-dd HH:mm:ss times of the api and epoch seconds, computed straight from the
+ * proleptic Gregorian calendar without creating a Date or Calendar
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public final class PixivTime {
+
+    /**
+     * 时间缺失
+     * no time
+     */
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    private PixivTime() {
+    }
+
+    /**
+     * 解析Api返回的时间，只有日期时视为当天0点
+     * parse a time the api returned, a date alone means its midnight
+     * @param time
+     * @return epoch seconds, NO_TIME when null or not a time
+     */
+    public static long toEpochSecond(String time) {
+        if (time == null) {
+            return NO_TIME;
+        }
+        //依次读取年、月、日、时、分、秒，每组在分隔符或位数读满时结束
+        long[] parts = new long[6];
+        int part = 0;
+        int digits = 0;
+        for (int i = 0; i < time.length() && part < parts.length; i++) {
+            char c = time.charAt(i);
+            if (c >= '0' && c <= '9') {
+                parts[part] = parts[part] * 10 + (c - '0');
+                if (++digits == (part == 0 ? 4 : 2)) {
+                    part++;
+                    digits = 0;
+                }
+            } else if (digits > 0) {
+                part++;
+                digits = 0;
+            }
+        }
+        if (digits > 0) {
+            part++;
+        }
+        int month = (int) parts[1];
+        int day = (int) parts[2];
+        if (part < 3 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return NO_TIME;
+        }
+        long days = daysFromCivil((int) parts[0], month, day);
+        return days * 86400 + parts[3] * 3600 + parts[4] * 60 + parts[5] - PixivParserConfig.PIXIV_UTC_OFFSET_SECONDS;
+    }
+
+    /**
+     * 格式化为Api使用的yyyy-MM-dd HH:mm:ss
+     * format as the yyyy-MM-dd HH:mm:ss the api uses
+     * @param epochSecond
+     * @return null for NO_TIME
+     */
+    public static String format(long epochSecond) {
+        if (epochSecond == NO_TIME) {
+            return null;
+        }
+        long local = epochSecond + PixivParserConfig.PIXIV_UTC_OFFSET_SECONDS;
+        long days = local / 86400;
+        int seconds = (int) (local % 86400);
+        if (seconds < 0) {
+            days--;
+            seconds += 86400;
+        }
+        //civil from days, see http://howardhinnant.github.io/date_algorithms.html
+        long z = days + 719468;
+        long era = (z >= 0 ? z : z - 146096) / 146097;
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        long day = doy - (153 * mp + 2) / 5 + 1;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        StringBuilder builder = new StringBuilder(19);
+        pad(builder, year, 4).append('-');
+        pad(builder, month, 2).append('-');
+        pad(builder, day, 2).append(' ');
+        pad(builder, seconds / 3600, 2).append(':');
+        pad(builder, seconds / 60 % 60, 2).append(':');
+        return pad(builder, seconds % 60, 2).toString();
+    }
+
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097L + doe - 719468;
+    }
+
+    private static StringBuilder pad(StringBuilder builder, long value, int width) {
+        String text = String.valueOf(value);
+        for (int i = text.length(); i < width; i++) {
+            builder.append('0');
+        }
+        return builder.append(text);
+    }
+}
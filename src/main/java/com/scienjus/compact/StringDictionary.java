@@ -0,0 +1,105 @@
+package com.scienjus.compact;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 字符串到连续整数id的字典，相同的字符串只保存一份。可以在多个线程中共享：添加时加锁，查询id对应的字符串不加锁
+ * a dictionary from strings to dense int ids, each distinct string is kept once. shareable between threads:
+ * adding takes a lock, looking up the string of an id does not
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class StringDictionary {
+
+    /**
+     * null对应的id
+     * the id of null
+     */
+    public static final int NULL_ID = -1;
+
+    private final int capacity;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    private volatile String[] values = new String[16];
+
+    private volatile int size;
+
+    public StringDictionary() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param capacity the max distinct strings, adding more throws IllegalStateException
+     */
+    public StringDictionary(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * 字符串的id，第一次出现时分配新的id
+     * the id of a string, a new id is assigned the first time it is seen
+     * @param value
+     * @return NULL_ID for null
+     * @throws IllegalStateException if the dictionary is full
+     */
+    public synchronized int intern(String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        if (size == capacity) {
+            throw new IllegalStateException("dictionary is full: " + capacity);
+        }
+        String[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, (int) Math.min((long) current.length * 2, capacity));
+        }
+        current[size] = value;
+        ids.put(value, size);
+        //先写入数组，再通过volatile写发布给不加锁的读
+        values = current;
+        return size++;
+    }
+
+    /**
+     * 已有的字符串的id，不会分配新的id
+     * the id of a string already present, no new id is assigned
+     * @param value
+     * @return NULL_ID when absent
+     */
+    public synchronized int find(String value) {
+        Integer id = value == null ? null : ids.get(value);
+        return id == null ? NULL_ID : id;
+    }
+
+    /**
+     * id对应的字符串
+     * the string of an id
+     * @param id
+     * @return null for NULL_ID
+     */
+    public String get(int id) {
+        if (id == NULL_ID) {
+            return null;
+        }
+        int count = size;
+        String[] current = values;
+        if (id < 0 || id >= count) {
+            throw new IndexOutOfBoundsException("id: " + id + ", size: " + count);
+        }
+        return current[id];
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,429 @@
+package com.scienjus.compact;
+
+import com.scienjus.model.Work;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 按列保存大量作品，每个字段是一个基本类型数组，标签按作品顺序连续保存在一个int数组中。
+ * 与保存Work对象相比，每件作品只占用几十字节加上标题。不是线程安全的
+ * holds many works by column: every field is one primitive array and the tags of all works are stored back to
+ * back in one int array. compared with holding Work objects a work takes some tens of bytes plus its title.
+ * not thread safe
+ * <pre>
+ * WorkBatch batch = new WorkBatch();
+ * batch.addAll(client.search("風景", param));
+ * int r18 = batch.getDictionary().getAgeLimitCode("r18");
+ * for (int i = 0; i &lt; batch.size(); i++) {
+ *     if (batch.getAgeLimitCode(i) != r18 &amp;&amp; batch.getScore(i) &gt; 1000) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class WorkBatch {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final WorkDictionary dictionary;
+
+    private int size;
+
+    private int[] ids;
+
+    private String[] titles;
+
+    private int[] widths;
+
+    private int[] heights;
+
+    private int[] pageCounts;
+
+    private int[] publicities;
+
+    private int[] scores;
+
+    private int[] scoredCounts;
+
+    private int[] views;
+
+    private int[] favorites;
+
+    private int[] privateFavorites;
+
+    private int[] comments;
+
+    private long[] createdTimes;
+
+    private long[] reuploadedTimes;
+
+    private byte[] ageLimits;
+
+    private byte[] sanityLevels;
+
+    private byte[] types;
+
+    private byte[] flags;
+
+    private int[] userIds;
+
+    private int[] userNames;
+
+    private int[] userAccounts;
+
+    /**
+     * 第i件作品的标签是tagIds[tagStarts[i]]到tagIds[tagStarts[i + 1]]
+     * the tags of the i-th work are tagIds[tagStarts[i]] until tagIds[tagStarts[i + 1]]
+     */
+    private int[] tagStarts;
+
+    private int[] tagIds;
+
+    public WorkBatch() {
+        this(new WorkDictionary());
+    }
+
+    public WorkBatch(WorkDictionary dictionary) {
+        this(dictionary, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param dictionary shared with other batches so their tag ids and codes can be compared
+     * @param capacity the works to allocate room for
+     */
+    public WorkBatch(WorkDictionary dictionary, int capacity) {
+        if (dictionary == null) {
+            throw new IllegalArgumentException("dictionary must not be null");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.dictionary = dictionary;
+        allocate(capacity, capacity * 4);
+    }
+
+    /**
+     * 添加一件作品
+     * add a work
+     * @param work
+     * @return the index of the work in this batch
+     */
+    public int add(Work work) {
+        return add(dictionary.compact(work));
+    }
+
+    /**
+     * 添加一件CompactWork，它必须由这个批次的字典创建
+     * add a CompactWork, which must have been created by the dictionary of this batch
+     * @param work
+     * @return the index of the work in this batch
+     */
+    public int add(CompactWork work) {
+        if (size == ids.length) {
+            allocate(size * 2, tagIds.length);
+        }
+        int tagEnd = tagStarts[size] + work.tags.length;
+        if (tagEnd > tagIds.length) {
+            tagIds = Arrays.copyOf(tagIds, Math.max(tagEnd, tagIds.length * 2));
+        }
+        System.arraycopy(work.tags, 0, tagIds, tagStarts[size], work.tags.length);
+        int i = size++;
+        tagStarts[size] = tagEnd;
+        ids[i] = work.id;
+        titles[i] = work.title;
+        widths[i] = work.width;
+        heights[i] = work.height;
+        pageCounts[i] = work.pageCount;
+        publicities[i] = work.publicity;
+        scores[i] = work.score;
+        scoredCounts[i] = work.scoredCount;
+        views[i] = work.views;
+        favorites[i] = work.favorites;
+        privateFavorites[i] = work.privateFavorites;
+        comments[i] = work.comments;
+        createdTimes[i] = work.createdTime;
+        reuploadedTimes[i] = work.reuploadedTime;
+        ageLimits[i] = work.ageLimit;
+        sanityLevels[i] = work.sanityLevel;
+        types[i] = work.type;
+        flags[i] = work.flags;
+        userIds[i] = work.userId;
+        userNames[i] = work.userName;
+        userAccounts[i] = work.userAccount;
+        return i;
+    }
+
+    public void addAll(Iterable<Work> works) {
+        for (Work work : works) {
+            add(work);
+        }
+    }
+
+    /**
+     * 第index件作品的CompactWork
+     * the CompactWork of the index-th work
+     * @param index
+     * @return
+     */
+    public CompactWork get(int index) {
+        check(index);
+        int[] tags = Arrays.copyOfRange(tagIds, tagStarts[index], tagStarts[index + 1]);
+        return new CompactWork(ids[index], titles[index], widths[index], heights[index], pageCounts[index],
+                publicities[index], scores[index], scoredCounts[index], views[index], favorites[index],
+                privateFavorites[index], comments[index], createdTimes[index], reuploadedTimes[index],
+                ageLimits[index], sanityLevels[index], types[index], flags[index],
+                userIds[index], userNames[index], userAccounts[index], tags);
+    }
+
+    /**
+     * 将第index件作品还原为Work
+     * convert the index-th work back into a Work
+     * @param index
+     * @return
+     */
+    public Work toWork(int index) {
+        return dictionary.toWork(get(index));
+    }
+
+    public List<Work> toWorks() {
+        List<Work> works = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            works.add(toWork(i));
+        }
+        return works;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public WorkDictionary getDictionary() {
+        return dictionary;
+    }
+
+    public int getId(int index) {
+        check(index);
+        return ids[index];
+    }
+
+    public String getTitle(int index) {
+        check(index);
+        return titles[index];
+    }
+
+    public int getWidth(int index) {
+        check(index);
+        return widths[index];
+    }
+
+    public int getHeight(int index) {
+        check(index);
+        return heights[index];
+    }
+
+    public int getPageCount(int index) {
+        check(index);
+        return pageCounts[index];
+    }
+
+    public int getScore(int index) {
+        check(index);
+        return scores[index];
+    }
+
+    public int getScoredCount(int index) {
+        check(index);
+        return scoredCounts[index];
+    }
+
+    public int getViews(int index) {
+        check(index);
+        return views[index];
+    }
+
+    /**
+     * 公开收藏数，原作品没有favorited_count时为0，见hasFavorites
+     * the public favorites, 0 when the original work had no favorited_count, see hasFavorites
+     * @param index
+     * @return
+     */
+    public int getFavorites(int index) {
+        check(index);
+        return favorites[index];
+    }
+
+    public int getPrivateFavorites(int index) {
+        check(index);
+        return privateFavorites[index];
+    }
+
+    public boolean hasFavorites(int index) {
+        check(index);
+        return (flags[index] & CompactWork.FAVORITES) != 0;
+    }
+
+    /**
+     * @param index
+     * @return epoch seconds, PixivTime.NO_TIME when absent
+     */
+    public long getCreatedTime(int index) {
+        check(index);
+        return createdTimes[index];
+    }
+
+    public long getReuploadedTime(int index) {
+        check(index);
+        return reuploadedTimes[index];
+    }
+
+    public int getAgeLimitCode(int index) {
+        check(index);
+        return ageLimits[index] & 0xff;
+    }
+
+    public String getAgeLimit(int index) {
+        return dictionary.getAgeLimit(getAgeLimitCode(index));
+    }
+
+    public int getSanityLevelCode(int index) {
+        check(index);
+        return sanityLevels[index] & 0xff;
+    }
+
+    public String getSanityLevel(int index) {
+        return dictionary.getSanityLevel(getSanityLevelCode(index));
+    }
+
+    public int getTypeCode(int index) {
+        check(index);
+        return types[index] & 0xff;
+    }
+
+    public String getType(int index) {
+        return dictionary.getType(getTypeCode(index));
+    }
+
+    public boolean isManga(int index) {
+        check(index);
+        return (flags[index] & CompactWork.MANGA) != 0;
+    }
+
+    public boolean isLiked(int index) {
+        check(index);
+        return (flags[index] & CompactWork.LIKED) != 0;
+    }
+
+    public int getUserId(int index) {
+        check(index);
+        return userIds[index];
+    }
+
+    public String getUserName(int index) {
+        check(index);
+        return dictionary.getUsers().get(userNames[index]);
+    }
+
+    public int getTagCount(int index) {
+        check(index);
+        return tagStarts[index + 1] - tagStarts[index];
+    }
+
+    /**
+     * 第index件作品的第tag个标签在字典中的id
+     * the dictionary id of the tag-th tag of the index-th work
+     * @param index
+     * @param tag
+     * @return
+     */
+    public int getTagId(int index, int tag) {
+        if (tag < 0 || tag >= getTagCount(index)) {
+            throw new IndexOutOfBoundsException("tag: " + tag + ", count: " + getTagCount(index));
+        }
+        return tagIds[tagStarts[index] + tag];
+    }
+
+    public boolean hasTag(int index, int tagId) {
+        check(index);
+        for (int i = tagStarts[index], end = tagStarts[index + 1]; i < end; i++) {
+            if (tagIds[i] == tagId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<String> getTags(int index) {
+        check(index);
+        return dictionary.tagList(tagIds, tagStarts[index], tagStarts[index + 1]);
+    }
+
+    /**
+     * 释放数组中未使用的空间
+     * release the unused room of the arrays
+     */
+    public void trimToSize() {
+        allocate(Math.max(size, 1), tagStarts[size]);
+    }
+
+    /**
+     * 估计占用的内存，包括标题但不包括共享的字典
+     * estimate the memory used, titles included and the shared dictionary excluded
+     * @return bytes
+     */
+    public long estimateBytes() {
+        long capacity = ids.length;
+        //14个int列、2个long列、4个byte列、标题的引用、标签的起点和标签
+        long bytes = capacity * (14 * 4 + 2 * 8 + 4 + 4) + (capacity + 1) * 4 + (long) tagIds.length * 4;
+        for (int i = 0; i < size; i++) {
+            if (titles[i] != null) {
+                //String对象、char数组的对象头和字符
+                bytes += 24 + 16 + titles[i].length() * 2L;
+            }
+        }
+        return bytes;
+    }
+
+    private void allocate(int capacity, int tagCapacity) {
+        ids = resize(ids, capacity);
+        titles = titles == null ? new String[capacity] : Arrays.copyOf(titles, capacity);
+        widths = resize(widths, capacity);
+        heights = resize(heights, capacity);
+        pageCounts = resize(pageCounts, capacity);
+        publicities = resize(publicities, capacity);
+        scores = resize(scores, capacity);
+        scoredCounts = resize(scoredCounts, capacity);
+        views = resize(views, capacity);
+        favorites = resize(favorites, capacity);
+        privateFavorites = resize(privateFavorites, capacity);
+        comments = resize(comments, capacity);
+        createdTimes = createdTimes == null ? new long[capacity] : Arrays.copyOf(createdTimes, capacity);
+        reuploadedTimes = reuploadedTimes == null ? new long[capacity] : Arrays.copyOf(reuploadedTimes, capacity);
+        ageLimits = resize(ageLimits, capacity);
+        sanityLevels = resize(sanityLevels, capacity);
+        types = resize(types, capacity);
+        flags = resize(flags, capacity);
+        userIds = resize(userIds, capacity);
+        userNames = resize(userNames, capacity);
+        userAccounts = resize(userAccounts, capacity);
+        tagStarts = resize(tagStarts, capacity + 1);
+        tagIds = resize(tagIds, tagCapacity);
+    }
+
+    private static int[] resize(int[] array, int length) {
+        return array == null ? new int[length] : Arrays.copyOf(array, length);
+    }
+
+    private static byte[] resize(byte[] array, int length) {
+        return array == null ? new byte[length] : Arrays.copyOf(array, length);
+    }
+
+    private void check(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.scienjus.compact;
+
+import com.scienjus.model.FavoritedCount;
+import com.scienjus.model.Stats;
+import com.scienjus.model.User;
+import com.scienjus.model.Work;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CompactWork使用的字典：标签、作者名和账号、以及年龄限制、内容分级和类型的编码。
+ * 使用同一个字典的CompactWork和WorkBatch之间，标签id和编码可以直接比较
+ * the dictionaries CompactWork uses: tags, author names and accounts, and the codes of age limit, sanity level
+ * and type. tag ids and codes can be compared directly between CompactWorks and WorkBatches sharing one dictionary
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class WorkDictionary {
+
+    /**
+     * 分类字段最多的取值，编码为一个字节，0表示null
+     * the most values of a categorical field, coded as one byte with 0 for null
+     */
+    private static final int MAX_CODES = 255;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final StringDictionary tags = new StringDictionary();
+
+    private final StringDictionary users = new StringDictionary();
+
+    private final StringDictionary ageLimits = new StringDictionary(MAX_CODES);
+
+    private final StringDictionary sanityLevels = new StringDictionary(MAX_CODES);
+
+    private final StringDictionary types = new StringDictionary(MAX_CODES);
+
+    public WorkDictionary() {
+        //常见的取值预先加入，不同的字典中编码相同
+        ageLimits.intern("all-age");
+        ageLimits.intern("r18");
+        ageLimits.intern("r18-g");
+        sanityLevels.intern("white");
+        sanityLevels.intern("semi_black");
+        sanityLevels.intern("black");
+        types.intern("illustration");
+        types.intern("manga");
+        types.intern("ugoira");
+    }
+
+    /**
+     * 将Work转为CompactWork
+     * convert a Work into a CompactWork
+     * @param work
+     * @return
+     */
+    public CompactWork compact(Work work) {
+        int flags = 0;
+        if (work.isManga()) {
+            flags |= CompactWork.MANGA;
+        }
+        if (work.isLiked()) {
+            flags |= CompactWork.LIKED;
+        }
+        int score = 0;
+        int scoredCount = 0;
+        int views = 0;
+        int favorites = 0;
+        int privateFavorites = 0;
+        int comments = 0;
+        Stats stats = work.getStats();
+        if (stats != null) {
+            flags |= CompactWork.STATS;
+            score = stats.getScore();
+            scoredCount = stats.getScoredCount();
+            views = stats.getViewsCount();
+            FavoritedCount favorited = stats.getFavoritedCount();
+            if (favorited != null) {
+                flags |= CompactWork.FAVORITES;
+                favorites = favorited.getPublicCount();
+                privateFavorites = favorited.getPrivateCount();
+            }
+            if (stats.getCommentedCount() != null) {
+                try {
+                    comments = Integer.parseInt(stats.getCommentedCount());
+                    flags |= CompactWork.COMMENTS;
+                } catch (NumberFormatException e) {
+                    //不是数字的评论数不保留
+                }
+            }
+        }
+        int userId = 0;
+        int userName = StringDictionary.NULL_ID;
+        int userAccount = StringDictionary.NULL_ID;
+        User user = work.getUser();
+        if (user != null) {
+            flags |= CompactWork.USER;
+            userId = user.getId();
+            userName = users.intern(user.getName());
+            userAccount = users.intern(user.getAccount());
+        }
+        int[] tagIds = internTags(work.getTags());
+        if (work.getTags() != null) {
+            flags |= CompactWork.TAGS;
+        }
+        return new CompactWork(work.getId(), work.getTitle(), work.getWidth(), work.getHeight(), work.getPageCount(),
+                work.getPublicity(), score, scoredCount, views, favorites, privateFavorites, comments,
+                PixivTime.toEpochSecond(work.getCreatedTime()), PixivTime.toEpochSecond(work.getReuploadedTime()),
+                code(ageLimits, work.getAgeLimit()), code(sanityLevels, work.getSanityLevel()), code(types, work.getType()),
+                (byte) flags, userId, userName, userAccount, tagIds);
+    }
+
+    /**
+     * 将CompactWork还原为Work，没有保留的字段为null，时间格式化为yyyy-MM-dd HH:mm:ss
+     * convert a CompactWork back into a Work, the dropped fields are null and times are formatted as yyyy-MM-dd HH:mm:ss
+     * @param compact
+     * @return
+     */
+    public Work toWork(CompactWork compact) {
+        Work work = new Work();
+        work.setId(compact.id);
+        work.setTitle(compact.title);
+        work.setWidth(compact.width);
+        work.setHeight(compact.height);
+        work.setPageCount(compact.pageCount);
+        work.setPublicity(compact.publicity);
+        work.setCreatedTime(PixivTime.format(compact.createdTime));
+        work.setReuploadedTime(PixivTime.format(compact.reuploadedTime));
+        work.setAgeLimit(getAgeLimit(compact.getAgeLimitCode()));
+        work.setSanityLevel(getSanityLevel(compact.getSanityLevelCode()));
+        work.setType(getType(compact.getTypeCode()));
+        work.setManga(compact.isManga());
+        work.setLiked(compact.isLiked());
+        if (compact.hasStats()) {
+            Stats stats = new Stats();
+            stats.setScore(compact.score);
+            stats.setScoredCount(compact.scoredCount);
+            stats.setViewsCount(compact.views);
+            if (compact.hasFavorites()) {
+                FavoritedCount favorited = new FavoritedCount();
+                favorited.setPublicCount(compact.favorites);
+                favorited.setPrivateCount(compact.privateFavorites);
+                stats.setFavoritedCount(favorited);
+            }
+            if (compact.hasComments()) {
+                stats.setCommentedCount(String.valueOf(compact.comments));
+            }
+            work.setStats(stats);
+        }
+        if (compact.hasUser()) {
+            User user = new User();
+            user.setId(compact.userId);
+            user.setName(users.get(compact.userName));
+            user.setAccount(users.get(compact.userAccount));
+            work.setUser(user);
+        }
+        if ((compact.flags & CompactWork.TAGS) != 0) {
+            work.setTags(tagList(compact.tags, 0, compact.tags.length));
+        }
+        return work;
+    }
+
+    int[] internTags(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return EMPTY;
+        }
+        int[] ids = new int[values.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = tags.intern(values.get(i));
+        }
+        return ids;
+    }
+
+    List<String> tagList(int[] ids, int from, int to) {
+        List<String> values = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            values.add(tags.get(ids[i]));
+        }
+        return values;
+    }
+
+    private static byte code(StringDictionary dictionary, String value) {
+        return (byte) (dictionary.intern(value) + 1);
+    }
+
+    private static int find(StringDictionary dictionary, String value) {
+        return value == null ? 0 : dictionary.find(value) + 1;
+    }
+
+    /**
+     * 年龄限制的编码，用于按编码比较
+     * the code of an age limit, for comparing by code
+     * @param ageLimit
+     * @return 0 for null or a value never seen
+     */
+    public int getAgeLimitCode(String ageLimit) {
+        return find(ageLimits, ageLimit);
+    }
+
+    public int getSanityLevelCode(String sanityLevel) {
+        return find(sanityLevels, sanityLevel);
+    }
+
+    public int getTypeCode(String type) {
+        return find(types, type);
+    }
+
+    public String getAgeLimit(int code) {
+        return ageLimits.get(code - 1);
+    }
+
+    public String getSanityLevel(int code) {
+        return sanityLevels.get(code - 1);
+    }
+
+    public String getType(int code) {
+        return types.get(code - 1);
+    }
+
+    /**
+     * 标签的字典，可以用find查找标签的id后与getTagId比较
+     * the dictionary of tags, look up a tag id with find and compare it with getTagId
+     * @return
+     */
+    public StringDictionary getTags() {
+        return tags;
+    }
+
+    /**
+     * 作者名和账号的字典
+     * the dictionary of author names and accounts
+     * @return
+     */
+    public StringDictionary getUsers() {
+        return users;
+    }
+}
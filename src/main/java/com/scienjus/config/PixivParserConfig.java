@@ -20,35 +20,47 @@ public class PixivParserConfig {
      */
     public static final Charset CHARSET = Charset.forName("UTF-8");
 
+    /**
+     * 认证服务器，可以通过PixivParserClient.setOAuthBase替换
+     * the oauth server, PixivParserClient.setOAuthBase replaces it
+     */
+    public static final String OAUTH_BASE = "https://oauth.secure.pixiv.net";
+
+    /**
+     * Api服务器，可以通过PixivParserClient.setApiBase替换
+     * the api server, PixivParserClient.setApiBase replaces it
+     */
+    public static final String API_BASE = "https://public-api.secure.pixiv.net";
+
     /**
      * 登陆地址
      * login url
      */
-    public static final String LOGIN_URL = "https://oauth.secure.pixiv.net/auth/token";
+    public static final String LOGIN_URL = OAUTH_BASE + "/auth/token";
 
     /**
      * 作品详情地址
      * illust detail url
      */
-    public static final String ILLUST_DETAIL_URL = "https://public-api.secure.pixiv.net/v1/works/{illustId}.json";
+    public static final String ILLUST_DETAIL_URL = API_BASE + "/v1/works/{illustId}.json";
 
     /**
      * 作者详情地址
      * author detail url
      */
-    public static final String AUTHOR_DETAIL_URL = "https://public-api.secure.pixiv.net/v1/users/{authorId}/works.json";
+    public static final String AUTHOR_DETAIL_URL = API_BASE + "/v1/users/{authorId}/works.json";
 
     /**
      * 排行榜地址
      * rank url
      */
-    public static final String RANK_URL = "https://public-api.secure.pixiv.net/v1/ranking/all";
+    public static final String RANK_URL = API_BASE + "/v1/ranking/all";
 
     /**
      * 搜索地址
      * search url
      */
-    public static final String SEARCH_URL = "https://public-api.secure.pixiv.net/v1/search/works.json";
+    public static final String SEARCH_URL = API_BASE + "/v1/search/works.json";
 
     /**
      * 起始页的页码
@@ -62,4 +74,143 @@ public class PixivParserConfig {
      */
     public static final int NO_NEXT_PAGE = -1;
 
+    /**
+     * 默认的下载线程数
+     * default number of download workers
+     */
+    public static final int DEFAULT_DOWNLOAD_THREADS = 4;
+
+    /**
+     * 默认的下载队列长度
+     * default capacity of the download queue
+     */
+    public static final int DEFAULT_DOWNLOAD_QUEUE_CAPACITY = 256;
+
+    /**
+     * 每件漫画同时下载的页数
+     * pages of one manga downloaded at the same time
+     */
+    public static final int DEFAULT_DOWNLOAD_PAGE_PARALLELISM = 4;
+
+    /**
+     * 下载连接池的总连接数
+     * max connections in the download connection pool
+     */
+    public static final int DEFAULT_DOWNLOAD_MAX_CONNECTIONS = 64;
+
+    /**
+     * 下载连接池中每个host的连接数
+     * max connections per host in the download connection pool
+     */
+    public static final int DEFAULT_DOWNLOAD_MAX_CONNECTIONS_PER_ROUTE = 16;
+
+    /**
+     * 服务器未指定时连接的保持时间（毫秒）
+     * keep-alive of a pooled connection when the server does not send one, in milliseconds
+     */
+    public static final long DEFAULT_KEEP_ALIVE_MILLIS = 30000;
+
+    /**
+     * 分页请求默认的并发数
+     * default number of pages requested at the same time
+     */
+    public static final int DEFAULT_PAGE_CONCURRENCY = 4;
+
+    /**
+     * Api连接池的总连接数
+     * max connections in the api connection pool
+     */
+    public static final int DEFAULT_API_MAX_CONNECTIONS = 32;
+
+    /**
+     * Api连接池中每个host的连接数
+     * max connections per host in the api connection pool
+     */
+    public static final int DEFAULT_API_MAX_CONNECTIONS_PER_ROUTE = 16;
+
+    /**
+     * 默认的异步请求线程数
+     * default number of threads running asynchronous requests
+     */
+    public static final int DEFAULT_ASYNC_THREADS = 16;
+
+    /**
+     * 默认缓存的作品数
+     * default number of cached work details
+     */
+    public static final int DEFAULT_WORK_CACHE_SIZE = 1024;
+
+    /**
+     * 默认的作品缓存有效期（毫秒），过期后会重新验证，以免统计数据过旧
+     * default milliseconds a cached work stays fresh, revalidated afterwards so the stats do not go stale
+     */
+    public static final long DEFAULT_WORK_CACHE_TTL_MILLIS = 5 * 60 * 1000;
+
+    /**
+     * 默认同时请求排行榜的天数
+     * default number of days whose rankings are requested at the same time
+     */
+    public static final int DEFAULT_RANKING_CONCURRENCY = 4;
+
+    /**
+     * Token在过期前多少毫秒刷新
+     * milliseconds before expiry at which the token is refreshed
+     */
+    public static final long TOKEN_REFRESH_MARGIN_MILLIS = 60 * 1000;
+
+    /**
+     * 提前刷新失败后，多少毫秒内不再提前刷新，期间继续使用未过期的Token
+     * milliseconds after a failed early refresh before trying again, the unexpired token is used meanwhile
+     */
+    public static final long TOKEN_REFRESH_BACKOFF_MILLIS = 10 * 1000;
+
+    /**
+     * 默认每秒api请求的上限
+     * default max api requests per second
+     */
+    public static final double DEFAULT_API_RATE_LIMIT = 10;
+
+    /**
+     * 默认每秒图片请求的上限
+     * default max image requests per second
+     */
+    public static final double DEFAULT_IMAGE_RATE_LIMIT = 20;
+
+    /**
+     * 包括第一次在内的最大请求次数
+     * max attempts of a request including the first one
+     */
+    public static final int DEFAULT_RETRY_MAX_ATTEMPTS = 5;
+
+    /**
+     * 第一次重试前的最长等待时间，之后每次翻倍
+     * the longest wait before the first retry, doubled for each later one
+     */
+    public static final long DEFAULT_RETRY_BASE_DELAY_MILLIS = 500;
+
+    public static final long DEFAULT_RETRY_MAX_DELAY_MILLIS = 30 * 1000;
+
+    /**
+     * 同一主机连续失败多少次后熔断
+     * consecutive failures of a host before its circuit opens
+     */
+    public static final int DEFAULT_CIRCUIT_FAILURE_THRESHOLD = 5;
+
+    /**
+     * 熔断持续的时间
+     * how long an open circuit fails requests fast
+     */
+    public static final long DEFAULT_CIRCUIT_OPEN_MILLIS = 30 * 1000;
+
+    /**
+     * JmxMetricsExporter默认的域名
+     * the default domain of JmxMetricsExporter
+     */
+    public static final String METRICS_JMX_DOMAIN = "com.scienjus.pixiv";
+
+    /**
+     * Api返回的时间所在时区（日本标准时间）与UTC的差，单位秒
+     * the offset from UTC in seconds of the times the api returns, which are in Japan Standard Time
+     */
+    public static final int PIXIV_UTC_OFFSET_SECONDS = 9 * 60 * 60;
 }
@@ -0,0 +1,64 @@
+package com.scienjus.download;
+
+import com.scienjus.callback.DownloadCallback;
+import com.scienjus.callback.PageErrorCallback;
+import com.scienjus.model.Work;
+import org.apache.http.client.methods.CloseableHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * 将图片读入内存的下载任务
+ * the download task that reads images into byte arrays
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class BufferedDownloadTask extends DownloadTask<byte[]> {
+
+    private final DownloadCallback callback;
+
+    public BufferedDownloadTask(DownloadEngine engine, Work work, DownloadCallback callback) {
+        super(engine, work);
+        this.callback = callback;
+    }
+
+    @Override
+    protected byte[] downloadImage(int page, String url) throws IOException {
+        try (CloseableHttpResponse response = execute(url);
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            InputStream in = response.getEntity().getContent();
+            byte[] buffer = new byte[1024];
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                out.write(buffer, 0, len);
+            }
+            recordBytes(out.size());
+            return out.toByteArray();
+        }
+    }
+
+    @Override
+    protected byte[] onPageFailed(int page, String url, Exception error) {
+        if (callback instanceof PageErrorCallback) {
+            ((PageErrorCallback) callback).onPageFailed(work, page, error);
+        }
+        return null;
+    }
+
+    @Override
+    protected void onIllustFinished(byte[] result) {
+        if (callback != null) {
+            callback.onIllustFinished(work, result);
+        }
+    }
+
+    @Override
+    protected void onMangaFinished(List<byte[]> results) {
+        if (callback != null) {
+            callback.onMangaFinished(work, results);
+        }
+    }
+}
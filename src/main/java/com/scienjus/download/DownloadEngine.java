@@ -0,0 +1,490 @@
+package com.scienjus.download;
+
+import com.scienjus.callback.DownloadCallback;
+import com.scienjus.callback.TransferCallback;
+import com.scienjus.config.PixivParserConfig;
+import com.scienjus.http.RateLimitInterceptor;
+import com.scienjus.http.RateLimiter;
+import com.scienjus.http.Retrier;
+import com.scienjus.metrics.MetricsRecorder;
+import com.scienjus.metrics.PoolGauges;
+import com.scienjus.model.Work;
+import com.scienjus.param.DownloadParam;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 下载引擎，使用有界的线程池和队列执行下载任务
+ * download engine, runs download tasks on a bounded worker pool with a bounded queue
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class DownloadEngine {
+
+    private static final Logger LOGGER = Logger.getLogger(DownloadEngine.class);
+
+    /**
+     * 空闲线程的存活时间（秒）
+     * seconds an idle worker is kept alive
+     */
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final ThreadPoolExecutor executor;
+
+    private final RejectPolicy rejectPolicy;
+
+    /**
+     * 每件作品同时下载的页数
+     * pages of one work downloaded at the same time
+     */
+    private final int pageParallelism;
+
+    /**
+     * 下载漫画其余页面的线程池，每个下载线程最多占用pageParallelism - 1个
+     * the pool for the extra pages of a manga, each download worker uses at most pageParallelism - 1 of them
+     */
+    private final ThreadPoolExecutor pageExecutor;
+
+    /**
+     * 所有下载任务共享的连接池
+     * the connection pool shared by all download tasks
+     */
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    private final CloseableHttpClient httpClient;
+
+    /**
+     * 图片请求的限流器，与api请求分开计算
+     * the rate limiter of image requests, counted apart from api requests
+     */
+    private final RateLimiter rateLimiter;
+
+    /**
+     * 图片请求的重试策略和熔断器
+     * the retry policy and circuit breakers of image requests
+     */
+    private final Retrier retrier;
+
+    private volatile MetricsRecorder metrics = MetricsRecorder.NONE;
+
+    /**
+     * 已提交但未完成的任务数
+     * tasks submitted but not finished yet
+     */
+    private int pending;
+
+    private final Object pendingLock = new Object();
+
+    public DownloadEngine(DownloadParam param) {
+        this.rejectPolicy = param.getRejectPolicy();
+        this.executor = new ThreadPoolExecutor(param.getThreads(), param.getThreads(),
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(param.getQueueCapacity()),
+                new WorkerFactory("pixiv-download-"), new RejectHandler()) {
+            @Override
+            protected void afterExecute(Runnable r, Throwable t) {
+                if (t != null) {
+                    LOGGER.error("下载任务异常：" + t.getMessage());
+                }
+                taskFinished();
+            }
+        };
+        //空闲时释放所有线程，未关闭的引擎不会阻止JVM退出
+        this.executor.allowCoreThreadTimeOut(true);
+        this.pageParallelism = param.getPageParallelism();
+        if (pageParallelism > 1) {
+            //通道数不会超过threads * (pageParallelism - 1)，所以队列不需要设置上限
+            int pageThreads = param.getThreads() * (pageParallelism - 1);
+            this.pageExecutor = new ThreadPoolExecutor(pageThreads, pageThreads,
+                    KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new WorkerFactory("pixiv-page-"));
+            this.pageExecutor.allowCoreThreadTimeOut(true);
+        } else {
+            this.pageExecutor = null;
+        }
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+        this.connectionManager.setMaxTotal(param.getMaxConnections());
+        this.connectionManager.setDefaultMaxPerRoute(param.getMaxConnectionsPerRoute());
+        this.rateLimiter = new RateLimiter(param.getRateLimit());
+        RateLimitInterceptor rateLimit = new RateLimitInterceptor(rateLimiter);
+        this.retrier = new Retrier(param.getRetryPolicy());
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .addInterceptorFirst((HttpRequestInterceptor) rateLimit)
+                .addInterceptorFirst((HttpResponseInterceptor) rateLimit)
+                .setKeepAliveStrategy(new PooledKeepAliveStrategy())
+                .evictExpiredConnections()
+                .evictIdleConnections(PixivParserConfig.DEFAULT_KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * 下载一件作品
+     * download a work
+     * @param work
+     * @param callback
+     */
+    public void download(Work work, DownloadCallback callback) {
+        submit(new BufferedDownloadTask(this, work, callback));
+    }
+
+    /**
+     * 下载一件作品并将图片流式写入sink
+     * download a work and stream the images into the sink
+     * @param work
+     * @param sink
+     * @param callback
+     */
+    public void download(Work work, ImageSink sink, TransferCallback callback) {
+        submit(new StreamDownloadTask(this, work, sink, callback));
+    }
+
+    /**
+     * 提交下载任务，队列已满时按照RejectPolicy处理
+     * submit a download task, a full queue is handled by the RejectPolicy
+     * @param task
+     */
+    public void submit(DownloadTask<?> task) {
+        taskSubmitted();
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            taskFinished();
+            throw e;
+        }
+    }
+
+    /**
+     * 提交一条下载漫画页面的通道
+     * submit a lane that downloads pages of a manga
+     * @param lane
+     * @return
+     */
+    Future<?> submitPages(Runnable lane) {
+        return pageExecutor.submit(lane);
+    }
+
+    /**
+     * 每件作品同时下载的页数
+     * pages of one work downloaded at the same time
+     * @return
+     */
+    public int getPageParallelism() {
+        return pageParallelism;
+    }
+
+    /**
+     * 等待所有已提交的任务完成
+     * wait until every submitted task is finished
+     * @param timeout
+     * @param unit
+     * @return false if timed out
+     * @throws InterruptedException
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (pendingLock) {
+            while (pending > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(pendingLock, remaining);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 移除队列中尚未开始的任务
+     * remove the tasks that have not started yet
+     * @return the removed tasks
+     */
+    public List<DownloadTask<?>> drain() {
+        List<Runnable> drained = new ArrayList<>();
+        executor.getQueue().drainTo(drained);
+        List<DownloadTask<?>> tasks = new ArrayList<>(drained.size());
+        for (Runnable runnable : drained) {
+            tasks.add((DownloadTask<?>) runnable);
+            taskFinished();
+        }
+        return tasks;
+    }
+
+    /**
+     * 不再接受新任务，已提交的任务会继续执行
+     * stop accepting tasks, submitted tasks still run
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 不再接受新任务并移除队列中的任务
+     * stop accepting tasks and drain the queue
+     * @return the tasks never started
+     */
+    public List<DownloadTask<?>> shutdownNow() {
+        executor.shutdown();
+        return drain();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * 等待已提交的任务完成后关闭连接池
+     * wait for the submitted tasks, then close the connection pool
+     */
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.error("等待下载完成时被中断");
+        }
+        if (pageExecutor != null) {
+            pageExecutor.shutdown();
+        }
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            LOGGER.error("关闭下载连接池失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 共享的http客户端
+     * the shared http client
+     * @return
+     */
+    public CloseableHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * 图片请求的限流器
+     * the rate limiter of image requests
+     * @return
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * 图片请求的重试器
+     * the retrier of image requests
+     * @return
+     */
+    public Retrier getRetrier() {
+        return retrier;
+    }
+
+    /**
+     * 设置统计数据的接收者，图片连接池和下载线程池会注册到它
+     * set the receiver of measurements, the image connection pool and the download pools are registered with it
+     * @param metrics
+     */
+    public void setMetrics(MetricsRecorder metrics) {
+        if (metrics == null) {
+            throw new IllegalArgumentException("metrics must not be null");
+        }
+        this.metrics = metrics;
+        metrics.registerPool("image-connections", PoolGauges.of(connectionManager));
+        metrics.registerPool("download-workers", PoolGauges.of(executor));
+        if (pageExecutor != null) {
+            metrics.registerPool("download-pages", PoolGauges.of(pageExecutor));
+        }
+    }
+
+    public MetricsRecorder getMetrics() {
+        return metrics;
+    }
+
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    /**
+     * 队列中等待的任务数
+     * tasks waiting in the queue
+     * @return
+     */
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * 队列剩余容量
+     * free slots left in the queue
+     * @return
+     */
+    public int getQueueRemainingCapacity() {
+        return executor.getQueue().remainingCapacity();
+    }
+
+    /**
+     * 正在下载的线程数
+     * workers downloading right now
+     * @return
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * 线程数上限
+     * the max number of workers
+     * @return
+     */
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * 忙碌线程的比例，0到1
+     * the ratio of busy workers, from 0 to 1
+     * @return
+     */
+    public double getUtilization() {
+        return (double) executor.getActiveCount() / executor.getMaximumPoolSize();
+    }
+
+    /**
+     * 已提交但未完成的任务数
+     * tasks submitted but not finished yet
+     * @return
+     */
+    public int getPendingCount() {
+        synchronized (pendingLock) {
+            return pending;
+        }
+    }
+
+    public long getCompletedCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    /**
+     * 连接池中正在使用的连接数
+     * connections leased from the pool
+     * @return
+     */
+    public int getLeasedConnections() {
+        return connectionManager.getTotalStats().getLeased();
+    }
+
+    /**
+     * 连接池中空闲的连接数
+     * idle connections kept alive in the pool
+     * @return
+     */
+    public int getIdleConnections() {
+        return connectionManager.getTotalStats().getAvailable();
+    }
+
+    private void taskSubmitted() {
+        synchronized (pendingLock) {
+            pending++;
+        }
+    }
+
+    private void taskFinished() {
+        synchronized (pendingLock) {
+            pending--;
+            if (pending == 0) {
+                pendingLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 优先使用服务器返回的Keep-Alive，没有时使用默认值
+     * use the server's Keep-Alive, fall back to a default when it sends none
+     */
+    private static class PooledKeepAliveStrategy implements ConnectionKeepAliveStrategy {
+
+        @Override
+        public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return duration > 0 ? duration : PixivParserConfig.DEFAULT_KEEP_ALIVE_MILLIS;
+        }
+    }
+
+    private static class WorkerFactory implements ThreadFactory {
+
+        private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        private final String prefix;
+
+        WorkerFactory(String name) {
+            this.prefix = name + POOL_NUMBER.getAndIncrement() + "-";
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            return new Thread(r, prefix + threadNumber.getAndIncrement());
+        }
+    }
+
+    private class RejectHandler implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("下载引擎已关闭");
+            }
+            switch (rejectPolicy) {
+                case BLOCK:
+                    try {
+                        executor.getQueue().put(r);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("等待下载队列时被中断", e);
+                    }
+                    if (executor.isShutdown() && executor.remove(r)) {
+                        throw new RejectedExecutionException("下载引擎已关闭");
+                    }
+                    break;
+                case CALLER_RUNS:
+                    try {
+                        r.run();
+                    } finally {
+                        taskFinished();
+                    }
+                    break;
+                case DISCARD:
+                    LOGGER.warn("下载队列已满，丢弃任务：" + ((DownloadTask<?>) r).getWork().getId());
+                    taskFinished();
+                    break;
+                default:
+                    throw new RejectedExecutionException("下载队列已满");
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.scienjus.download;
+
+import com.scienjus.http.HttpStatusException;
+import com.scienjus.http.Retrier;
+import com.scienjus.metrics.Endpoint;
+import com.scienjus.metrics.MetricsRecorder;
+import com.scienjus.model.Page;
+import com.scienjus.model.Work;
+import org.apache.http.Header;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.message.BasicHeader;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 下载一件作品的任务，由DownloadEngine调度
+ * the task to download one work, scheduled by DownloadEngine
+ * @param <T> the result of one downloaded image
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public abstract class DownloadTask<T> implements Runnable {
+
+    private static final Logger LOGGER = Logger.getLogger(DownloadTask.class);
+
+    /**
+     * 图片服务器要求的Referer，所有请求共用
+     * the Referer the image server requires, shared by every request
+     */
+    private static final Header REFERER = new BasicHeader("Referer", "http://www.pixiv.net");
+
+    protected final DownloadEngine engine;
+
+    protected final Work work;
+
+    protected DownloadTask(DownloadEngine engine, Work work) {
+        this.engine = engine;
+        this.work = work;
+    }
+
+    public Work getWork() {
+        return work;
+    }
+
+    @Override
+    public void run() {
+        if (work.isManga()) {
+            onMangaFinished(downloadPages(work.getMetadata().getPages()));
+        } else {
+            onIllustFinished(fetch(0, work.getImageUrls().getLarge()));
+        }
+    }
+
+    /**
+     * 并发下载漫画的每一页，结果按页码排序
+     * download the pages of a manga concurrently, results are in page order
+     * @param pages
+     * @return
+     */
+    private List<T> downloadPages(final List<Page> pages) {
+        final AtomicReferenceArray<T> results = new AtomicReferenceArray<>(pages.size());
+        final AtomicInteger next = new AtomicInteger();
+        //每条通道依次领取下一页，当前线程也作为其中一条
+        Runnable lane = new Runnable() {
+            @Override
+            public void run() {
+                int page;
+                while ((page = next.getAndIncrement()) < pages.size()) {
+                    results.set(page, fetch(page, pages.get(page).getImageUrls().getLarge()));
+                }
+            }
+        };
+        int lanes = Math.min(engine.getPageParallelism(), pages.size());
+        List<Future<?>> futures = new ArrayList<>(lanes);
+        for (int i = 1; i < lanes; i++) {
+            futures.add(engine.submitPages(lane));
+        }
+        lane.run();
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    LOGGER.error("下载页面异常：" + e.getCause());
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        List<T> list = new ArrayList<>(pages.size());
+        for (int i = 0; i < pages.size(); i++) {
+            list.add(results.get(i));
+        }
+        return list;
+    }
+
+    /**
+     * 下载一页，按照引擎的重试策略重试，最终失败时交给onPageFailed处理
+     * download one page retried under the retry policy of the engine, a final failure is handed to onPageFailed
+     * @param page
+     * @param url
+     * @return
+     */
+    private T fetch(final int page, final String url) {
+        try {
+            return engine.getRetrier().execute(url, new Retrier.Attempt<T>() {
+                @Override
+                public T call() throws IOException {
+                    MetricsRecorder metrics = engine.getMetrics();
+                    long start = System.nanoTime();
+                    boolean success = false;
+                    try {
+                        T result = downloadImage(page, url);
+                        success = true;
+                        return result;
+                    } finally {
+                        metrics.onRequest(Endpoint.IMAGE, System.nanoTime() - start, success);
+                    }
+                }
+            });
+        } catch (Exception e) {
+            LOGGER.error("作品" + work.getId() + "的第" + page + "页下载失败：" + e.getMessage());
+            return onPageFailed(page, url, e);
+        }
+    }
+
+    /**
+     * 下载一张图片
+     * download one image
+     * @param page page index, 0 for an illust
+     * @param url
+     * @return
+     * @throws IOException
+     */
+    protected abstract T downloadImage(int page, String url) throws IOException;
+
+    /**
+     * 一页下载失败，返回这一页的结果
+     * one page failed, return the result for this page
+     * @param page
+     * @param url
+     * @param error
+     * @return
+     */
+    protected abstract T onPageFailed(int page, String url, Exception error);
+
+    protected abstract void onIllustFinished(T result);
+
+    protected abstract void onMangaFinished(List<T> results);
+
+    /**
+     * 记录从网络读取的图片字节
+     * record image bytes read from the network
+     * @param bytes
+     */
+    protected void recordBytes(long bytes) {
+        engine.getMetrics().onBytes(Endpoint.IMAGE, bytes);
+    }
+
+    /**
+     * 创建图片请求，带有图片服务器要求的Referer
+     * create an image request with the Referer the image server requires
+     * @param url
+     * @return
+     */
+    protected HttpGet newRequest(String url) {
+        HttpGet get = new HttpGet(url);
+        get.setHeader(REFERER);
+        return get;
+    }
+
+    /**
+     * 通过共享的连接池请求图片，读完响应后连接会被复用
+     * request an image through the shared pool, the connection is reused once the body is consumed
+     * @param url
+     * @return
+     * @throws IOException
+     */
+    protected CloseableHttpResponse execute(String url) throws IOException {
+        CloseableHttpResponse response = engine.getHttpClient().execute(newRequest(url));
+        int status = response.getStatusLine().getStatusCode();
+        if (status != 200) {
+            response.close();
+            throw new HttpStatusException(status, "下载失败，HTTP " + status + "：" + url);
+        }
+        return response;
+    }
+}
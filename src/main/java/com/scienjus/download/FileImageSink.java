@@ -0,0 +1,68 @@
+package com.scienjus.download;
+
+import com.scienjus.model.Work;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 将图片写入目录，插画命名为{id}.jpg，漫画命名为{id}_p{page}.jpg
+ * writes images into a directory, named {id}.jpg for an illust and {id}_p{page}.jpg for a manga
+ * <p>
+ * 已经存在的图片不会重新下载，中断的下载会从.part文件继续
+ * existing images are not downloaded again, interrupted downloads resume from the .part file
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class FileImageSink implements ResumableImageSink {
+
+    private final File directory;
+
+    public FileImageSink(File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public WritableByteChannel open(Work work, int page, String url) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("无法创建目录：" + directory);
+        }
+        return new FileOutputStream(locate(work, page, url)).getChannel();
+    }
+
+    @Override
+    public File locate(Work work, int page, String url) {
+        String name = work.isManga() ? work.getId() + "_p" + page : String.valueOf(work.getId());
+        return new File(directory, name + extension(url));
+    }
+
+    @Override
+    public File onCompleted(Work work, int page, String url, File file) {
+        return file;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * 从url中取得扩展名
+     * get the file extension from url
+     * @param url
+     * @return
+     */
+    public static String extension(String url) {
+        int end = url.indexOf('?');
+        if (end == -1) {
+            end = url.length();
+        }
+        int dot = url.lastIndexOf('.', end);
+        int slash = url.lastIndexOf('/', end);
+        if (dot == -1 || dot < slash) {
+            return "";
+        }
+        return url.substring(dot, end);
+    }
+}
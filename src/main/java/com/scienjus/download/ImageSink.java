@@ -0,0 +1,37 @@
+package com.scienjus.download;
+
+import com.scienjus.model.Work;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 流式下载的写入目标
+ * where a streaming download writes the image body
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public interface ImageSink {
+
+    /**
+     * 打开写入某一页的通道，下载结束后会被关闭
+     * open the channel for one page, it is closed when the download ends
+     * @param work
+     * @param page page index, 0 for an illust
+     * @param url
+     * @return
+     * @throws IOException
+     */
+    WritableByteChannel open(Work work, int page, String url) throws IOException;
+
+    /**
+     * 某一页对应的文件，不写入文件时返回null
+     * the file of one page, null if the sink does not write to files
+     * @param work
+     * @param page
+     * @param url
+     * @return
+     */
+    File locate(Work work, int page, String url);
+}
@@ -0,0 +1,87 @@
+package com.scienjus.download;
+
+import java.io.File;
+
+/**
+ * 一张图片的流式下载结果
+ * the result of streaming one image
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class ImageTransfer {
+
+    private final int page;
+
+    private final String url;
+
+    private final File file;
+
+    private final long bytes;
+
+    private final Exception error;
+
+    private ImageTransfer(int page, String url, File file, long bytes, Exception error) {
+        this.page = page;
+        this.url = url;
+        this.file = file;
+        this.bytes = bytes;
+        this.error = error;
+    }
+
+    public static ImageTransfer success(int page, String url, File file, long bytes) {
+        return new ImageTransfer(page, url, file, bytes, null);
+    }
+
+    public static ImageTransfer failure(int page, String url, Exception error) {
+        return new ImageTransfer(page, url, null, -1, error);
+    }
+
+//    get
+
+    public int getPage() {
+        return page;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * 写入的文件，写入自定义通道时为null
+     * the written file, null when written to a custom channel
+     * @return
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * 写入的字节数，失败时为-1
+     * bytes written, -1 on failure
+     * @return
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    public Exception getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+//    to string
+
+    @Override
+    public String toString() {
+        return "ImageTransfer{" +
+                "page=" + page +
+                ", url='" + url + '\'' +
+                ", file=" + file +
+                ", bytes=" + bytes +
+                ", error=" + error +
+                '}';
+    }
+}
@@ -0,0 +1,138 @@
+package com.scienjus.download;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * 下载中的文件：{name}.part保存已下载的内容，{name}.part.ckpt记录url、总长度和用于If-Range的ETag/Last-Modified
+ * a file being downloaded: {name}.part holds the bytes so far, {name}.part.ckpt records the url, the total length and the ETag/Last-Modified for If-Range
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+class PartialFile {
+
+    private static final String URL = "url";
+
+    private static final String ETAG = "etag";
+
+    private static final String LAST_MODIFIED = "lastModified";
+
+    private static final String LENGTH = "length";
+
+    private final File target;
+
+    private final File part;
+
+    private final File checkpoint;
+
+    private final Properties properties = new Properties();
+
+    PartialFile(File target) {
+        this.target = target;
+        this.part = new File(target.getPath() + ".part");
+        this.checkpoint = new File(target.getPath() + ".part.ckpt");
+    }
+
+    /**
+     * 读取检查点，返回可以继续下载的位置，没有检查点或url不同时返回0
+     * load the checkpoint and return where the download can resume, 0 without a checkpoint or for another url
+     * @param url
+     * @return
+     * @throws IOException
+     */
+    long resumeOffset(String url) throws IOException {
+        if (!checkpoint.exists() || !part.exists()) {
+            return 0;
+        }
+        try (InputStream in = new FileInputStream(checkpoint)) {
+            properties.load(in);
+        }
+        if (!url.equals(properties.getProperty(URL))) {
+            properties.clear();
+            return 0;
+        }
+        long length = part.length();
+        long total = getTotal();
+        return total >= 0 && length > total ? 0 : length;
+    }
+
+    /**
+     * 用于If-Range的校验值，优先使用ETag
+     * the validator for If-Range, the ETag is preferred
+     * @return
+     */
+    String getValidator() {
+        String etag = properties.getProperty(ETAG);
+        return etag != null ? etag : properties.getProperty(LAST_MODIFIED);
+    }
+
+    /**
+     * 图片的总长度，未知时为-1
+     * total length of the image, -1 when unknown
+     * @return
+     */
+    long getTotal() {
+        return Long.parseLong(properties.getProperty(LENGTH, "-1"));
+    }
+
+    /**
+     * 从头开始下载，写入新的检查点
+     * start from zero and write a new checkpoint
+     */
+    void begin(String url, String etag, String lastModified, long total) throws IOException {
+        File directory = target.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("无法创建目录：" + directory);
+        }
+        properties.clear();
+        properties.setProperty(URL, url);
+        if (etag != null) {
+            properties.setProperty(ETAG, etag);
+        }
+        if (lastModified != null) {
+            properties.setProperty(LAST_MODIFIED, lastModified);
+        }
+        properties.setProperty(LENGTH, String.valueOf(total));
+        try (OutputStream out = new FileOutputStream(checkpoint)) {
+            properties.store(out, null);
+        }
+    }
+
+    /**
+     * 打开.part文件，从offset开始写入，之后的内容会被截掉
+     * open the .part file for writing at offset, anything after it is truncated
+     * @param offset
+     * @return
+     * @throws IOException
+     */
+    FileChannel open(long offset) throws IOException {
+        FileChannel channel = new RandomAccessFile(part, "rw").getChannel();
+        channel.truncate(offset);
+        channel.position(offset);
+        return channel;
+    }
+
+    /**
+     * 下载完成，移动到目标位置并删除检查点
+     * finished, move to the target and delete the checkpoint
+     * @throws IOException
+     */
+    void complete() throws IOException {
+        Files.move(part.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        Files.deleteIfExists(checkpoint.toPath());
+    }
+
+    void discard() throws IOException {
+        Files.deleteIfExists(part.toPath());
+        Files.deleteIfExists(checkpoint.toPath());
+    }
+}
@@ -0,0 +1,34 @@
+package com.scienjus.download;
+
+/**
+ * 下载队列已满时的处理策略
+ * what to do when the download queue is full
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public enum RejectPolicy {
+
+    /**
+     * 阻塞提交者直到队列有空位（背压）
+     * block the submitter until the queue has room (backpressure)
+     */
+    BLOCK,
+
+    /**
+     * 由提交者的线程直接执行
+     * run the task on the submitter's thread
+     */
+    CALLER_RUNS,
+
+    /**
+     * 抛出RejectedExecutionException
+     * throw RejectedExecutionException to the submitter
+     */
+    ABORT,
+
+    /**
+     * 丢弃该任务并记录日志
+     * drop the task and log it
+     */
+    DISCARD
+}
@@ -0,0 +1,34 @@
+package com.scienjus.download;
+
+import com.scienjus.model.Work;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * 写入文件的写入目标，下载会先写入locate旁边的.part文件，中断后可以用Range请求继续下载
+ * a sink writing to files, the download goes to a .part file next to locate() and can resume with a Range request after a failure
+ * <p>
+ * locate返回的文件已经存在时，这一页视为已经下载完成，不会发送请求，但仍会调用onCompleted，
+ * 因为上次可能在文件移动之后、onCompleted之前中断
+ * a page whose located file already exists is treated as finished and nothing is requested, onCompleted is still called
+ * because the last run may have stopped after the file was moved but before onCompleted
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public interface ResumableImageSink extends ImageSink {
+
+    /**
+     * 某一页下载完成，文件已经移动到locate的位置，写入目标可以再将它移动到别处。
+     * 对已经处理过的文件也会调用，需要直接返回它
+     * one page is finished and the file has been moved to where locate() points, the sink may move it again.
+     * it is also called for a file already handled, which should be returned as is
+     * @param work
+     * @param page
+     * @param url
+     * @param file
+     * @return where the file is now
+     * @throws IOException
+     */
+    File onCompleted(Work work, int page, String url, File file) throws IOException;
+}
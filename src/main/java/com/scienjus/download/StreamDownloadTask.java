@@ -0,0 +1,222 @@
+package com.scienjus.download;
+
+import com.scienjus.callback.TransferCallback;
+import com.scienjus.http.HttpStatusException;
+import com.scienjus.model.Work;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * 将响应直接写入通道的下载任务，图片不会完整地留在堆中
+ * the download task that streams the response into a channel, images are never held on the heap
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class StreamDownloadTask extends DownloadTask<ImageTransfer> {
+
+    private static final Logger LOGGER = Logger.getLogger(StreamDownloadTask.class);
+
+    /**
+     * 直接缓冲区的大小
+     * size of the direct buffer
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 单次transferFrom的最大字节数
+     * max bytes of one transferFrom call
+     */
+    private static final long TRANSFER_CHUNK = 8 * 1024 * 1024;
+
+    /**
+     * 每个下载线程复用一个直接缓冲区
+     * each download thread reuses one direct buffer
+     */
+    private static final ThreadLocal<ByteBuffer> BUFFER = new ThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+            return ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+    };
+
+    private final ImageSink sink;
+
+    private final TransferCallback callback;
+
+    public StreamDownloadTask(DownloadEngine engine, Work work, ImageSink sink, TransferCallback callback) {
+        super(engine, work);
+        this.sink = sink;
+        this.callback = callback;
+    }
+
+    @Override
+    protected ImageTransfer downloadImage(int page, String url) throws IOException {
+        if (sink instanceof ResumableImageSink) {
+            return downloadResumable((ResumableImageSink) sink, page, url);
+        }
+        try (CloseableHttpResponse response = execute(url);
+             WritableByteChannel out = sink.open(work, page, url)) {
+            long bytes = transfer(response.getEntity().getContent(), out);
+            recordBytes(bytes);
+            return ImageTransfer.success(page, url, sink.locate(work, page, url), bytes);
+        }
+    }
+
+    /**
+     * 写入.part文件，已有部分内容时用Range请求剩余的字节，图片已经变化时从头下载
+     * write into the .part file, request the missing bytes with Range when some are already there, start over when the image has changed
+     * @param sink
+     * @param page
+     * @param url
+     * @return
+     * @throws IOException
+     */
+    private ImageTransfer downloadResumable(ResumableImageSink sink, int page, String url) throws IOException {
+        File file = sink.locate(work, page, url);
+        if (file.exists()) {
+            //上次已经下载完成，但可能在onCompleted之前中断，交给写入目标再处理一次
+            file = sink.onCompleted(work, page, url, file);
+            return ImageTransfer.success(page, url, file, file.length());
+        }
+        PartialFile part = new PartialFile(file);
+        long offset = part.resumeOffset(url);
+        HttpGet get = newRequest(url);
+        if (offset > 0) {
+            get.setHeader(HttpHeaders.RANGE, "bytes=" + offset + "-");
+            String validator = part.getValidator();
+            if (validator != null) {
+                get.setHeader(HttpHeaders.IF_RANGE, validator);
+            }
+        }
+        try (CloseableHttpResponse response = engine.getHttpClient().execute(get)) {
+            int status = response.getStatusLine().getStatusCode();
+            if (offset > 0 && status == HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE && offset == part.getTotal()) {
+                //上次已经下载了所有字节，只是没有移动文件
+                part.complete();
+                file = sink.onCompleted(work, page, url, file);
+                return ImageTransfer.success(page, url, file, file.length());
+            }
+            if (status == HttpStatus.SC_PARTIAL_CONTENT && offset > 0 && rangeStart(response) == offset) {
+                LOGGER.info("作品" + work.getId() + "的第" + page + "页从" + offset + "字节继续下载");
+            } else if (status == HttpStatus.SC_OK) {
+                offset = 0;
+                part.begin(url, header(response, HttpHeaders.ETAG), header(response, HttpHeaders.LAST_MODIFIED),
+                        response.getEntity().getContentLength());
+            } else {
+                if (offset > 0) {
+                    part.discard();
+                }
+                throw new HttpStatusException(status, "下载失败，HTTP " + status + "：" + url);
+            }
+            long bytes;
+            try (FileChannel out = part.open(offset)) {
+                bytes = transfer(response.getEntity().getContent(), out);
+            }
+            recordBytes(bytes);
+            long total = part.getTotal();
+            if (total >= 0 && offset + bytes != total) {
+                throw new IOException("下载不完整，" + (offset + bytes) + "/" + total + "：" + url);
+            }
+            part.complete();
+            file = sink.onCompleted(work, page, url, file);
+            return ImageTransfer.success(page, url, file, offset + bytes);
+        }
+    }
+
+    /**
+     * Content-Range的起始位置，格式为bytes start-end/total
+     * the start of Content-Range, formatted as bytes start-end/total
+     */
+    private static long rangeStart(CloseableHttpResponse response) {
+        String range = header(response, HttpHeaders.CONTENT_RANGE);
+        if (range == null || !range.startsWith("bytes ")) {
+            return -1;
+        }
+        int dash = range.indexOf('-');
+        try {
+            return dash == -1 ? -1 : Long.parseLong(range.substring(6, dash).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String header(CloseableHttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
+    @Override
+    protected ImageTransfer onPageFailed(int page, String url, Exception error) {
+        if (sink instanceof ResumableImageSink) {
+            //保留.part文件和检查点，下次继续下载
+            return ImageTransfer.failure(page, url, error);
+        }
+        File file = sink.locate(work, page, url);
+        if (file != null && file.exists() && !file.delete()) {
+            LOGGER.warn("无法删除不完整的文件：" + file);
+        }
+        return ImageTransfer.failure(page, url, error);
+    }
+
+    @Override
+    protected void onIllustFinished(ImageTransfer result) {
+        if (callback != null) {
+            callback.onIllustFinished(work, result);
+        }
+    }
+
+    @Override
+    protected void onMangaFinished(List<ImageTransfer> results) {
+        if (callback != null) {
+            callback.onMangaFinished(work, results);
+        }
+    }
+
+    /**
+     * 将输入流写入通道，文件通道使用transferFrom，其他通道使用直接缓冲区
+     * copy the stream into the channel, with transferFrom for a file channel and a direct buffer otherwise
+     * @param in
+     * @param out
+     * @return bytes written
+     * @throws IOException
+     */
+    static long transfer(InputStream in, WritableByteChannel out) throws IOException {
+        ReadableByteChannel source = Channels.newChannel(in);
+        if (out instanceof FileChannel) {
+            FileChannel file = (FileChannel) out;
+            long position = file.position();
+            long start = position;
+            long count;
+            while ((count = file.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+                position += count;
+            }
+            file.position(position);
+            return position - start;
+        }
+        ByteBuffer buffer = BUFFER.get();
+        buffer.clear();
+        long total = 0;
+        while (source.read(buffer) != -1) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                total += out.write(buffer);
+            }
+            buffer.clear();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,805 @@
+package com.scienjus.filter;
+
+import com.scienjus.model.Work;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 编译后的条件。工厂方法在构造时完成常量折叠，and和or的操作数按开销从低到高排列，
+ * 短路时尽量少执行开销大的条件。缺失的字段使比较结果为false
+ * a compiled condition. the factory methods fold constants while building, and the operands of and/or are
+ * sorted from cheap to expensive so short-circuiting skips the costly ones. a missing field makes a comparison false
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+abstract class BoolExpr implements WorkFilter {
+
+    static final BoolExpr TRUE = new Constant(true);
+
+    static final BoolExpr FALSE = new Constant(false);
+
+    private static final Comparator<BoolExpr> BY_COST = new Comparator<BoolExpr>() {
+        @Override
+        public int compare(BoolExpr a, BoolExpr b) {
+            return Integer.compare(a.cost(), b.cost());
+        }
+    };
+
+    /**
+     * 估计的执行开销，只用于排序
+     * the estimated cost of evaluating, only used for ordering
+     * @return
+     */
+    abstract int cost();
+
+    /**
+     * 在原始条目上判断，与doFilter(Work)的结果相同
+     * decide on a raw entry, with the same result as doFilter(Work)
+     * @param entry
+     * @return
+     */
+    abstract boolean doFilter(RawEntry entry);
+
+    static BoolExpr constant(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    static BoolExpr and(List<BoolExpr> operands) {
+        List<BoolExpr> flat = new ArrayList<>();
+        for (BoolExpr operand : operands) {
+            if (operand == FALSE) {
+                return FALSE;
+            }
+            if (operand instanceof And) {
+                flat.addAll(Arrays.asList(((And) operand).operands));
+            } else if (operand != TRUE) {
+                flat.add(operand);
+            }
+        }
+        if (flat.isEmpty()) {
+            return TRUE;
+        }
+        if (flat.size() == 1) {
+            return flat.get(0);
+        }
+        //排序是稳定的，开销相同时保持书写顺序
+        Collections.sort(flat, BY_COST);
+        return new And(flat.toArray(new BoolExpr[flat.size()]));
+    }
+
+    static BoolExpr or(List<BoolExpr> operands) {
+        List<BoolExpr> flat = new ArrayList<>();
+        for (BoolExpr operand : operands) {
+            if (operand == TRUE) {
+                return TRUE;
+            }
+            if (operand instanceof Or) {
+                flat.addAll(Arrays.asList(((Or) operand).operands));
+            } else if (operand != FALSE) {
+                flat.add(operand);
+            }
+        }
+        if (flat.isEmpty()) {
+            return FALSE;
+        }
+        if (flat.size() == 1) {
+            return flat.get(0);
+        }
+        Collections.sort(flat, BY_COST);
+        return new Or(flat.toArray(new BoolExpr[flat.size()]));
+    }
+
+    static BoolExpr not(BoolExpr operand) {
+        if (operand == TRUE) {
+            return FALSE;
+        }
+        if (operand == FALSE) {
+            return TRUE;
+        }
+        if (operand instanceof Not) {
+            return ((Not) operand).operand;
+        }
+        return new Not(operand);
+    }
+
+    /**
+     * 比较，两边都是常量时直接计算，一边是字段另一边是常量时使用专门的实现
+     * a comparison, computed right away for two constants, specialised for a field against a constant
+     */
+    static BoolExpr compare(Op op, NumExpr left, NumExpr right) {
+        if (left.isConstant() && right.isConstant()) {
+            long a = left.eval((Work) null);
+            long b = right.eval((Work) null);
+            return constant(a != NumExpr.MISSING && b != NumExpr.MISSING && op.apply(a, b));
+        }
+        if (right.isConstant() && left instanceof NumExpr.Field) {
+            return fieldCompare(op, (NumExpr.Field) left, right.eval((Work) null));
+        }
+        if (left.isConstant() && right instanceof NumExpr.Field) {
+            return fieldCompare(op.flip(), (NumExpr.Field) right, left.eval((Work) null));
+        }
+        return new Compare(op, left, right);
+    }
+
+    private static BoolExpr fieldCompare(Op op, NumExpr.Field field, long value) {
+        if (value == NumExpr.MISSING) {
+            return FALSE;
+        }
+        return new FieldCompare(op, field.field, field.slots, value);
+    }
+
+    static BoolExpr bool(WorkFields.BooleanField field, int slot) {
+        return new BooleanTest(field, slot);
+    }
+
+    static BoolExpr stringEquals(WorkFields.StringField field, int slot, String value) {
+        return new StringEquals(field, slot, value);
+    }
+
+    static BoolExpr stringIn(WorkFields.StringField field, int slot, List<String> values) {
+        if (values.size() == 1) {
+            return new StringEquals(field, slot, values.get(0));
+        }
+        return new StringIn(field, slot, new HashSet<>(values));
+    }
+
+    static BoolExpr stringContains(WorkFields.StringField field, int slot, String value) {
+        return new StringContains(field, slot, value);
+    }
+
+    static BoolExpr tagHas(int slot, String tag) {
+        return new TagHas(slot, tag);
+    }
+
+    static BoolExpr tagAny(int slot, List<String> tags) {
+        if (tags.size() == 1) {
+            return new TagHas(slot, tags.get(0));
+        }
+        return new TagAny(slot, new HashSet<>(tags));
+    }
+
+    static BoolExpr tagAll(int slot, List<String> tags) {
+        Set<String> distinct = new HashSet<>(tags);
+        if (distinct.size() == 1) {
+            return new TagHas(slot, tags.get(0));
+        }
+        return new TagAll(slot, distinct);
+    }
+
+    enum Op {
+        EQ("="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">=");
+
+        private final String symbol;
+
+        Op(String symbol) {
+            this.symbol = symbol;
+        }
+
+        boolean apply(long a, long b) {
+            switch (this) {
+                case EQ:
+                    return a == b;
+                case NE:
+                    return a != b;
+                case LT:
+                    return a < b;
+                case LE:
+                    return a <= b;
+                case GT:
+                    return a > b;
+                default:
+                    return a >= b;
+            }
+        }
+
+        /**
+         * 交换两边后的运算符
+         * the operator once both sides are swapped
+         */
+        Op flip() {
+            switch (this) {
+                case LT:
+                    return GT;
+                case LE:
+                    return GE;
+                case GT:
+                    return LT;
+                case GE:
+                    return LE;
+                default:
+                    return this;
+            }
+        }
+
+        static Op of(String symbol) {
+            switch (symbol) {
+                case "=":
+                case "==":
+                    return EQ;
+                case "!=":
+                    return NE;
+                case "<":
+                    return LT;
+                case "<=":
+                    return LE;
+                case ">":
+                    return GT;
+                case ">=":
+                    return GE;
+                default:
+                    return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return symbol;
+        }
+    }
+
+    static final class Constant extends BoolExpr {
+
+        private final boolean value;
+
+        Constant(boolean value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean doFilter(Work work) {
+            return value;
+        }
+
+        @Override
+        boolean doFilter(RawEntry entry) {
+            return value;
+        }
+
+        @Override
+        int cost() {
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(value);
+        }
+    }
+
+    static final class And extends BoolExpr {
+
+        private final BoolExpr[] operands;
+
+        private final int cost;
+
+        And(BoolExpr[] operands) {
+            this.operands = operands;
+            int sum = 0;
+            for (BoolExpr operand : operands) {
+                sum += operand.cost();
+            }
+            this.cost = sum;
+        }
+
+        @Override
+        public boolean doFilter(Work work) {
+            for (BoolExpr operand : operands) {
+                if (!operand.doFilter(work)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        boolean doFilter(RawEntry entry) {
+            for (BoolExpr operand : operands) {
+                if (!operand.doFilter(entry)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        int cost() {
+            return cost;
+        }
+
+        @Override
+        public String toString() {
+            return join(operands, " and ");
+        }
+    }
+
+    static final class Or extends BoolExpr {
+
+        private final BoolExpr[] operands;
+
+        private final int cost;
+
+        Or(BoolExpr[] operands) {
+            this.operands = operands;
+            int sum = 0;
+            for (BoolExpr operand : operands) {
+                sum += operand.cost();
+            }
+            this.cost = sum;
+        }
+
+        @Override
+        public boolean doFilter(Work work) {
+            for (BoolExpr operand : operands) {
+                if (operand.doFilter(work)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        boolean doFilter(RawEntry entry) {
+            for (BoolExpr operand : operands) {
+                if (operand.doFilter(entry)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        int cost() {
+            return cost;
+        }
+
+        @Override
+        public String toString() {
+            return join(operands, " or ");
+        }
+    }
+
+    static final class Not extends BoolExpr {
+
+        private final BoolExpr operand;
+
+        Not(BoolExpr operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public boolean doFilter(Work work) {
+            return !operand.doFilter(work);
+        }
+
+        @Override
+        boolean doFilter(RawEntry entry) {
+            return !operand.doFilter(entry);
+        }
+
+        @Override
+        int cost() {
+            return operand.cost();
+        }
+
+        @Override
+        public String toString() {
+            return "not " + operand;
+        }
+    }
+
+    static final class FieldCompare extends BoolExpr {
+
+        private final Op op;
+
+        private final WorkFields.NumberField field;
+
+        private final int[] slots;
+
+        private final long value;
+
+        FieldCompare(Op op, WorkFields.NumberField field, int[] slots, long value) {
+            this.op = op;
+            this.field = field;
+            this.slots = slots;
+            this.value = value;
+        }
+
+        @Override
+        public boolean doFilter(Work work) {
+            long actual = field.get(work);
+            return actual != NumExpr.MISSING && op.apply(actual, value);
+        }
+
+        @Override
+        boolean doFilter(RawEntry entry) {
+            long actual = field.get(entry, slots);
+            return actual != NumExpr.MISSING && op.apply(actual, value);
+        }
+
+        @Override
+        int cost() {
+            return field.cost + 1;
+        }
+
+        @Override
+        public String toString() {
+            return field.name + " " + op + " " + value;
+        }
+    }
+
+    static final class Compare extends BoolExpr {
+
+        private final Op op;
+
+        private final NumExpr left;
+
+        private final NumExpr right;
+
+        Compare(Op op, NumExpr left, NumExpr right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean doFilter(Work work) {
+            long a = left.eval(work);
+            if (a == NumExpr.MISSING) {
+                return false;
+            }
+            long b = right.eval(work);
+            return b != NumExpr.MISSING && op.apply(a, b);
+        }
+
+        @Override
+        boolean doFilter(RawEntry entry) {
+            long a = left.eval(entry);
+            if (a == NumExpr.MISSING) {
+                return false;
+            }
+            long b = right.eval(entry);
+            return b != NumExpr.MISSING && op.apply(a, b);
+        }
+
+        @Override
+        int cost() {
+            return left.cost() + right.cost() + 1;
+        }
+
+        @Override
+        public String toString() {
+            return left + " " + op + " " + right;
+        }
+    }
+
+    static final class BooleanTest extends BoolExpr {
+
+        private final WorkFields.BooleanField field;
+
+        private final int slot;
+
+        BooleanTest(WorkFields.BooleanField field, int slot) {
+            this.field = field;
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean doFilter(Work work) {
+            return field.get(work);
+        }
+
+        @Override
+        boolean doFilter(RawEntry entry) {
+            return field.get(entry, slot);
+        }
+
+        @Override
+        int cost() {
+            return 1;
+        }
+
+        @Override
+        public String toString() {
+            return field.name;
+        }
+    }
+
+    static final class StringEquals extends BoolExpr {
+
+        private final WorkFields.StringField field;
+
+        private final int slot;
+
+        private final String value;
+
+        StringEquals(WorkFields.StringField field, int slot, String value) {
+            this.field = field;
+            this.slot = slot;
+            this.value = value;
+        }
+
+        @Override
+        public boolean doFilter(Work work) {
+            return value.equals(field.get(work));
+        }
+
+        @Override
+        boolean doFilter(RawEntry entry) {
+            return value.equals(field.get(entry, slot));
+        }
+
+        @Override
+        int cost() {
+            return field.cost + 2;
+        }
+
+        @Override
+        public String toString() {
+            return field.name + " = " + quote(value);
+        }
+    }
+
+    static final class StringIn extends BoolExpr {
+
+        private final WorkFields.StringField field;
+
+        private final int slot;
+
+        private final Set<String> values;
+
+        StringIn(WorkFields.StringField field, int slot, Set<String> values) {
+            this.field = field;
+            this.slot = slot;
+            this.values = values;
+        }
+
+        @Override
+        public boolean doFilter(Work work) {
+            return test(field.get(work));
+        }
+
+        @Override
+        boolean doFilter(RawEntry entry) {
+            return test(field.get(entry, slot));
+        }
+
+        private boolean test(String actual) {
+            return actual != null && values.contains(actual);
+        }
+
+        @Override
+        int cost() {
+            return field.cost + 3;
+        }
+
+        @Override
+        public String toString() {
+            return field.name + " in " + list(values);
+        }
+    }
+
+    static final class StringContains extends BoolExpr {
+
+        private final WorkFields.StringField field;
+
+        private final int slot;
+
+        private final String value;
+
+        StringContains(WorkFields.StringField field, int slot, String value) {
+            this.field = field;
+            this.slot = slot;
+            this.value = value;
+        }
+
+        @Override
+        public boolean doFilter(Work work) {
+            return test(field.get(work));
+        }
+
+        @Override
+        boolean doFilter(RawEntry entry) {
+            return test(field.get(entry, slot));
+        }
+
+        private boolean test(String actual) {
+            return actual != null && actual.contains(value);
+        }
+
+        @Override
+        int cost() {
+            return field.cost + 5;
+        }
+
+        @Override
+        public String toString() {
+            return field.name + " contains " + quote(value);
+        }
+    }
+
+    static final class TagHas extends BoolExpr {
+
+        private final int slot;
+
+        private final String tag;
+
+        TagHas(int slot, String tag) {
+            this.slot = slot;
+            this.tag = tag;
+        }
+
+        @Override
+        public boolean doFilter(Work work) {
+            return test(work.getTags());
+        }
+
+        @Override
+        boolean doFilter(RawEntry entry) {
+            return test(entry.getStrings(slot));
+        }
+
+        private boolean test(List<String> tags) {
+            return tags != null && tags.contains(tag);
+        }
+
+        @Override
+        int cost() {
+            return 4;
+        }
+
+        @Override
+        public String toString() {
+            return "tags has " + quote(tag);
+        }
+    }
+
+    /**
+     * 作品的每个标签在集合中查找一次，而不是每个常量扫描一遍标签列表
+     * each tag of the work is looked up in the set once, instead of scanning the tag list for every constant
+     */
+    static final class TagAny extends BoolExpr {
+
+        private final int slot;
+
+        private final Set<String> wanted;
+
+        TagAny(int slot, Set<String> wanted) {
+            this.slot = slot;
+            this.wanted = wanted;
+        }
+
+        @Override
+        public boolean doFilter(Work work) {
+            return test(work.getTags());
+        }
+
+        @Override
+        boolean doFilter(RawEntry entry) {
+            return test(entry.getStrings(slot));
+        }
+
+        private boolean test(List<String> tags) {
+            if (tags == null) {
+                return false;
+            }
+            for (int i = 0, n = tags.size(); i < n; i++) {
+                if (wanted.contains(tags.get(i))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        int cost() {
+            return 6;
+        }
+
+        @Override
+        public String toString() {
+            return "tags any " + list(wanted);
+        }
+    }
+
+    /**
+     * 每个常量对应一位，作品的标签命中时置位，所有位都置位时满足
+     * each constant owns a bit that a matching tag sets, the condition holds once every bit is set
+     */
+    static final class TagAll extends BoolExpr {
+
+        private final int slot;
+
+        private final Map<String, Integer> bits = new HashMap<>();
+
+        private final int count;
+
+        TagAll(int slot, Set<String> wanted) {
+            this.slot = slot;
+            for (String tag : wanted) {
+                bits.put(tag, bits.size());
+            }
+            this.count = wanted.size();
+        }
+
+        @Override
+        public boolean doFilter(Work work) {
+            return test(work.getTags());
+        }
+
+        @Override
+        boolean doFilter(RawEntry entry) {
+            return test(entry.getStrings(slot));
+        }
+
+        private boolean test(List<String> tags) {
+            if (tags == null || tags.size() < count) {
+                return false;
+            }
+            if (count <= 64) {
+                long full = count == 64 ? -1L : (1L << count) - 1;
+                long seen = 0;
+                for (int i = 0, n = tags.size(); i < n; i++) {
+                    Integer bit = bits.get(tags.get(i));
+                    if (bit != null) {
+                        seen |= 1L << bit;
+                        if (seen == full) {
+                            return true;
+                        }
+                    }
+                }
+                return false;
+            }
+            Set<String> seen = new HashSet<>();
+            for (String tag : tags) {
+                if (bits.containsKey(tag)) {
+                    seen.add(tag);
+                }
+            }
+            return seen.size() == count;
+        }
+
+        @Override
+        int cost() {
+            return 6;
+        }
+
+        @Override
+        public String toString() {
+            return "tags all " + list(bits.keySet());
+        }
+    }
+
+    private static String join(BoolExpr[] operands, String separator) {
+        StringBuilder builder = new StringBuilder("(");
+        for (int i = 0; i < operands.length; i++) {
+            if (i > 0) {
+                builder.append(separator);
+            }
+            builder.append(operands[i]);
+        }
+        return builder.append(")").toString();
+    }
+
+    private static String list(Set<String> values) {
+        StringBuilder builder = new StringBuilder("(");
+        for (String value : values) {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(quote(value));
+        }
+        return builder.append(")").toString();
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
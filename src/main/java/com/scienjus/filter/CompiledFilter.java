@@ -0,0 +1,43 @@
+package com.scienjus.filter;
+
+import com.scienjus.model.Work;
+
+import java.util.List;
+
+/**
+ * 编译后的过滤表达式，同时可以判断Work和原始条目
+ * a compiled filter expression, deciding on both a Work and a raw entry
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+final class CompiledFilter implements PushdownFilter {
+
+    private final BoolExpr root;
+
+    private final List<String> paths;
+
+    CompiledFilter(BoolExpr root, List<String> paths) {
+        this.root = root;
+        this.paths = paths;
+    }
+
+    @Override
+    public boolean doFilter(Work work) {
+        return root.doFilter(work);
+    }
+
+    @Override
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    @Override
+    public boolean doFilter(RawEntry entry) {
+        return root.doFilter(entry);
+    }
+
+    @Override
+    public String toString() {
+        return root.toString();
+    }
+}
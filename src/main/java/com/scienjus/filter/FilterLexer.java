@@ -0,0 +1,108 @@
+package com.scienjus.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 将过滤表达式切分为记号
+ * splits a filter expression into tokens
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+final class FilterLexer {
+
+    enum Type {
+        IDENT, NUMBER, STRING, SYMBOL, END
+    }
+
+    static final class Token {
+
+        final Type type;
+
+        final String text;
+
+        final int position;
+
+        Token(Type type, String text, int position) {
+            this.type = type;
+            this.text = text;
+            this.position = position;
+        }
+
+        boolean is(String symbolOrKeyword) {
+            return (type == Type.SYMBOL || type == Type.IDENT) && text.equalsIgnoreCase(symbolOrKeyword);
+        }
+
+        @Override
+        public String toString() {
+            return type == Type.END ? "结尾" : "'" + text + "'";
+        }
+    }
+
+    private FilterLexer() {
+    }
+
+    static List<Token> tokenize(String expression) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        int length = expression.length();
+        while (i < length) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(expression.charAt(i)) || expression.charAt(i) == '_')) {
+                    i++;
+                }
+                tokens.add(new Token(Type.IDENT, expression.substring(start, i), start));
+            } else if (Character.isDigit(c)) {
+                int start = i;
+                while (i < length && Character.isDigit(expression.charAt(i))) {
+                    i++;
+                }
+                tokens.add(new Token(Type.NUMBER, expression.substring(start, i), start));
+            } else if (c == '"' || c == '\'') {
+                i = readString(expression, i, tokens);
+            } else {
+                String two = i + 1 < length ? expression.substring(i, i + 2) : "";
+                if (two.equals("==") || two.equals("!=") || two.equals("<=") || two.equals(">=")
+                        || two.equals("&&") || two.equals("||")) {
+                    tokens.add(new Token(Type.SYMBOL, two, i));
+                    i += 2;
+                } else if ("=<>!()+-*/%,".indexOf(c) >= 0) {
+                    tokens.add(new Token(Type.SYMBOL, String.valueOf(c), i));
+                    i++;
+                } else {
+                    throw new FilterSyntaxException("无法识别的字符'" + c + "'", expression, i);
+                }
+            }
+        }
+        tokens.add(new Token(Type.END, "", length));
+        return tokens;
+    }
+
+    /**
+     * 读取单引号或双引号的字符串，反斜杠转义下一个字符
+     * read a single or double quoted string, a backslash escapes the next character
+     */
+    private static int readString(String expression, int start, List<Token> tokens) {
+        char quote = expression.charAt(start);
+        StringBuilder value = new StringBuilder();
+        int i = start + 1;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (c == '\\' && i + 1 < expression.length()) {
+                value.append(expression.charAt(i + 1));
+                i += 2;
+            } else if (c == quote) {
+                tokens.add(new Token(Type.STRING, value.toString(), start));
+                return i + 1;
+            } else {
+                value.append(c);
+                i++;
+            }
+        }
+        throw new FilterSyntaxException("字符串没有结束", expression, start);
+    }
+}
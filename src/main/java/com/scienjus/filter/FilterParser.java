@@ -0,0 +1,270 @@
+package com.scienjus.filter;
+
+import com.scienjus.filter.FilterLexer.Token;
+import com.scienjus.filter.FilterLexer.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 过滤表达式的递归下降解析器，边解析边构造折叠后的条件
+ * a recursive descent parser of filter expressions, the folded condition is built while parsing
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+final class FilterParser {
+
+    private final String expression;
+
+    private final List<Token> tokens;
+
+    private final PathTable paths = new PathTable();
+
+    private int index;
+
+    private FilterParser(String expression) {
+        this.expression = expression;
+        this.tokens = FilterLexer.tokenize(expression);
+    }
+
+    static CompiledFilter parse(String expression) {
+        FilterParser parser = new FilterParser(expression);
+        BoolExpr result = parser.parseOr();
+        if (parser.peek().type != Type.END) {
+            throw parser.error("多余的" + parser.peek());
+        }
+        return new CompiledFilter(result, parser.paths.getPaths());
+    }
+
+    /**
+     * or := and (('or' | '||') and)*
+     */
+    private BoolExpr parseOr() {
+        List<BoolExpr> operands = new ArrayList<>();
+        operands.add(parseAnd());
+        while (accept("or") || accept("||")) {
+            operands.add(parseAnd());
+        }
+        return operands.size() == 1 ? operands.get(0) : BoolExpr.or(operands);
+    }
+
+    /**
+     * and := unary (('and' | '&&') unary)*
+     */
+    private BoolExpr parseAnd() {
+        List<BoolExpr> operands = new ArrayList<>();
+        operands.add(parseUnary());
+        while (accept("and") || accept("&&")) {
+            operands.add(parseUnary());
+        }
+        return operands.size() == 1 ? operands.get(0) : BoolExpr.and(operands);
+    }
+
+    /**
+     * unary := ('not' | '!') unary | '(' or ')' | 'true' | 'false' | predicate
+     */
+    private BoolExpr parseUnary() {
+        if (accept("not") || accept("!")) {
+            return BoolExpr.not(parseUnary());
+        }
+        if (accept("(")) {
+            BoolExpr inner = parseOr();
+            expect(")");
+            return inner;
+        }
+        if (accept("true")) {
+            return BoolExpr.TRUE;
+        }
+        if (accept("false")) {
+            return BoolExpr.FALSE;
+        }
+        return parsePredicate();
+    }
+
+    private BoolExpr parsePredicate() {
+        Token token = peek();
+        if (token.type == Type.IDENT) {
+            if (token.is("tags")) {
+                index++;
+                return parseTags();
+            }
+            WorkFields.StringField stringField = WorkFields.string(token.text);
+            if (stringField != null) {
+                index++;
+                return parseString(stringField);
+            }
+            WorkFields.BooleanField booleanField = WorkFields.bool(token.text);
+            if (booleanField != null) {
+                index++;
+                return BoolExpr.bool(booleanField, paths.slot(booleanField.path));
+            }
+        }
+        NumExpr left = parseSum();
+        if (accept("between")) {
+            NumExpr low = parseSum();
+            expect("and");
+            NumExpr high = parseSum();
+            List<BoolExpr> range = new ArrayList<>(2);
+            range.add(BoolExpr.compare(BoolExpr.Op.GE, left, low));
+            range.add(BoolExpr.compare(BoolExpr.Op.LE, left, high));
+            return BoolExpr.and(range);
+        }
+        BoolExpr.Op op = BoolExpr.Op.of(peek().text);
+        if (peek().type != Type.SYMBOL || op == null) {
+            throw error("需要比较运算符，实际为" + peek());
+        }
+        index++;
+        return BoolExpr.compare(op, left, parseSum());
+    }
+
+    /**
+     * tags has STR | tags (any | in | all | none) '(' STR (',' STR)* ')'
+     */
+    private BoolExpr parseTags() {
+        int slot = paths.slot(WorkFields.TAGS);
+        if (accept("has") || accept("contains")) {
+            return BoolExpr.tagHas(slot, expectString());
+        }
+        if (accept("any") || accept("in")) {
+            return BoolExpr.tagAny(slot, parseStringList());
+        }
+        if (accept("all")) {
+            return BoolExpr.tagAll(slot, parseStringList());
+        }
+        if (accept("none")) {
+            return BoolExpr.not(BoolExpr.tagAny(slot, parseStringList()));
+        }
+        throw error("tags后需要has、any、all或none，实际为" + peek());
+    }
+
+    /**
+     * field (('=' | '==') STR | '!=' STR | 'contains' STR | 'in' '(' STR (',' STR)* ')')
+     */
+    private BoolExpr parseString(WorkFields.StringField field) {
+        int slot = paths.slot(field.path);
+        if (accept("=") || accept("==")) {
+            return BoolExpr.stringEquals(field, slot, expectString());
+        }
+        if (accept("!=")) {
+            return BoolExpr.not(BoolExpr.stringEquals(field, slot, expectString()));
+        }
+        if (accept("contains")) {
+            return BoolExpr.stringContains(field, slot, expectString());
+        }
+        if (accept("in")) {
+            return BoolExpr.stringIn(field, slot, parseStringList());
+        }
+        throw error(field.name + "后需要=、!=、contains或in，实际为" + peek());
+    }
+
+    private List<String> parseStringList() {
+        expect("(");
+        List<String> values = new ArrayList<>();
+        values.add(expectString());
+        while (accept(",")) {
+            values.add(expectString());
+        }
+        expect(")");
+        return values;
+    }
+
+    /**
+     * sum := product (('+' | '-') product)*
+     */
+    private NumExpr parseSum() {
+        NumExpr left = parseProduct();
+        while (true) {
+            if (accept("+")) {
+                left = NumExpr.binary('+', left, parseProduct());
+            } else if (accept("-")) {
+                left = NumExpr.binary('-', left, parseProduct());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    /**
+     * product := atom (('*' | '/' | '%') atom)*
+     */
+    private NumExpr parseProduct() {
+        NumExpr left = parseAtom();
+        while (true) {
+            if (accept("*")) {
+                left = NumExpr.binary('*', left, parseAtom());
+            } else if (accept("/")) {
+                left = NumExpr.binary('/', left, parseAtom());
+            } else if (accept("%")) {
+                left = NumExpr.binary('%', left, parseAtom());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    /**
+     * atom := '-' atom | NUMBER | STR(时间 time) | numberField
+     */
+    private NumExpr parseAtom() {
+        Token token = peek();
+        if (accept("-")) {
+            return NumExpr.binary('-', NumExpr.constant(0), parseAtom());
+        }
+        if (token.type == Type.NUMBER) {
+            index++;
+            try {
+                return NumExpr.constant(Long.parseLong(token.text));
+            } catch (NumberFormatException e) {
+                throw new FilterSyntaxException("数字超出范围" + token, expression, token.position);
+            }
+        }
+        if (token.type == Type.STRING) {
+            index++;
+            long time = WorkFields.timestamp(token.text);
+            if (time == NumExpr.MISSING) {
+                throw new FilterSyntaxException("无法识别的时间" + token, expression, token.position);
+            }
+            return NumExpr.constant(time);
+        }
+        if (token.type == Type.IDENT) {
+            WorkFields.NumberField field = WorkFields.number(token.text);
+            if (field != null) {
+                index++;
+                return NumExpr.field(field, paths.slots(field.paths));
+            }
+            throw new FilterSyntaxException("未知的字段" + token, expression, token.position);
+        }
+        throw error("需要数值，实际为" + token);
+    }
+
+    private Token peek() {
+        return tokens.get(index);
+    }
+
+    private boolean accept(String symbolOrKeyword) {
+        if (peek().is(symbolOrKeyword)) {
+            index++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String symbolOrKeyword) {
+        if (!accept(symbolOrKeyword)) {
+            throw error("需要'" + symbolOrKeyword + "'，实际为" + peek());
+        }
+    }
+
+    private String expectString() {
+        Token token = peek();
+        if (token.type != Type.STRING) {
+            throw error("需要字符串，实际为" + token);
+        }
+        index++;
+        return token.text;
+    }
+
+    private FilterSyntaxException error(String message) {
+        return new FilterSyntaxException(message, expression, peek().position);
+    }
+}
@@ -0,0 +1,28 @@
+package com.scienjus.filter;
+
+/**
+ * 过滤表达式的语法错误
+ * a syntax error in a filter expression
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class FilterSyntaxException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int position;
+
+    public FilterSyntaxException(String message, String expression, int position) {
+        super(message + "，位置" + position + "：" + expression);
+        this.position = position;
+    }
+
+    /**
+     * 出错的字符位置，从0开始
+     * the character offset of the error, starting from 0
+     * @return
+     */
+    public int getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,163 @@
+package com.scienjus.filter;
+
+import com.scienjus.model.Work;
+
+/**
+ * 数值表达式。任一操作数缺失时结果也缺失
+ * a numeric expression. the result is missing when any operand is
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+abstract class NumExpr {
+
+    static final long MISSING = RawEntry.MISSING;
+
+    abstract long eval(Work work);
+
+    abstract long eval(RawEntry entry);
+
+    abstract int cost();
+
+    boolean isConstant() {
+        return false;
+    }
+
+    static NumExpr constant(long value) {
+        return new Constant(value);
+    }
+
+    static NumExpr field(WorkFields.NumberField field, int[] slots) {
+        return new Field(field, slots);
+    }
+
+    /**
+     * 算术运算，两边都是常量时直接计算
+     * an arithmetic operation, computed right away when both sides are constants
+     */
+    static NumExpr binary(char op, NumExpr left, NumExpr right) {
+        NumExpr expr = new Binary(op, left, right);
+        if (left.isConstant() && right.isConstant()) {
+            return new Constant(expr.eval((Work) null));
+        }
+        return expr;
+    }
+
+    static final class Constant extends NumExpr {
+
+        final long value;
+
+        Constant(long value) {
+            this.value = value;
+        }
+
+        @Override
+        long eval(Work work) {
+            return value;
+        }
+
+        @Override
+        long eval(RawEntry entry) {
+            return value;
+        }
+
+        @Override
+        int cost() {
+            return 0;
+        }
+
+        @Override
+        boolean isConstant() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return value == MISSING ? "missing" : String.valueOf(value);
+        }
+    }
+
+    static final class Field extends NumExpr {
+
+        final WorkFields.NumberField field;
+
+        final int[] slots;
+
+        Field(WorkFields.NumberField field, int[] slots) {
+            this.field = field;
+            this.slots = slots;
+        }
+
+        @Override
+        long eval(Work work) {
+            return field.get(work);
+        }
+
+        @Override
+        long eval(RawEntry entry) {
+            return field.get(entry, slots);
+        }
+
+        @Override
+        int cost() {
+            return field.cost;
+        }
+
+        @Override
+        public String toString() {
+            return field.name;
+        }
+    }
+
+    static final class Binary extends NumExpr {
+
+        private final char op;
+
+        private final NumExpr left;
+
+        private final NumExpr right;
+
+        Binary(char op, NumExpr left, NumExpr right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        long eval(Work work) {
+            return apply(left.eval(work), right.eval(work));
+        }
+
+        @Override
+        long eval(RawEntry entry) {
+            return apply(left.eval(entry), right.eval(entry));
+        }
+
+        private long apply(long a, long b) {
+            if (a == MISSING || b == MISSING) {
+                return MISSING;
+            }
+            switch (op) {
+                case '+':
+                    return a + b;
+                case '-':
+                    return a - b;
+                case '*':
+                    return a * b;
+                case '/':
+                    return b == 0 ? MISSING : a / b;
+                default:
+                    return b == 0 ? MISSING : a % b;
+            }
+        }
+
+        @Override
+        int cost() {
+            return left.cost() + right.cost() + 1;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " " + op + " " + right + ")";
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.scienjus.filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译时为用到的json路径分配下标，相同的路径只读取一次
+ * assigns indexes to the json paths used while compiling, each path is read only once
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+final class PathTable {
+
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    private final List<String> paths = new ArrayList<>();
+
+    int slot(String path) {
+        Integer index = indexes.get(path);
+        if (index == null) {
+            index = paths.size();
+            indexes.put(path, index);
+            paths.add(path);
+        }
+        return index;
+    }
+
+    int[] slots(String[] paths) {
+        int[] slots = new int[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            slots[i] = slot(paths[i]);
+        }
+        return slots;
+    }
+
+    List<String> getPaths() {
+        return Collections.unmodifiableList(new ArrayList<>(paths));
+    }
+}
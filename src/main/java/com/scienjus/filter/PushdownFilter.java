@@ -0,0 +1,30 @@
+package com.scienjus.filter;
+
+import java.util.List;
+
+/**
+ * 可以直接在原始json条目上判断的过滤器。搜索和作者作品的请求会先在条目上判断，只有通过的条目才会绑定为Work，
+ * 通过的Work不会再调用doFilter(Work)。FilterCompiler编译的过滤器都实现了这个接口
+ * a filter that can decide on the raw json entry. search and author requests test the entry first and only bind
+ * the ones that pass into a Work, doFilter(Work) is not called again for them. filters compiled by FilterCompiler
+ * implement this interface
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public interface PushdownFilter extends WorkFilter {
+
+    /**
+     * 需要读取的json路径，相对于一件作品，用.分隔，例如stats.favorited_count.public
+     * the json paths to read, relative to one work and separated by dots, such as stats.favorited_count.public
+     * @return
+     */
+    List<String> getPaths();
+
+    /**
+     * 判断原始条目，结果必须与对绑定后的Work调用doFilter(Work)相同
+     * decide on the raw entry, the result must match doFilter(Work) on the bound Work
+     * @param entry
+     * @return
+     */
+    boolean doFilter(RawEntry entry);
+}
@@ -0,0 +1,48 @@
+package com.scienjus.filter;
+
+import java.util.List;
+
+/**
+ * 一件作品在响应中的原始json条目，只包含PushdownFilter需要的路径。
+ * 路径的下标即它在PushdownFilter.getPaths中的位置
+ * the raw json entry of one work in a response, holding only the paths a PushdownFilter asked for.
+ * a path is addressed by its index in PushdownFilter.getPaths
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public interface RawEntry {
+
+    /**
+     * 数值缺失或不是数值时的返回值
+     * returned when a number is absent or not a number
+     */
+    long MISSING = Long.MIN_VALUE;
+
+    /**
+     * 路径是否存在且不为null，对象也算存在
+     * whether the path exists and is not null, an object counts as present
+     * @param path
+     * @return
+     */
+    boolean has(int path);
+
+    long getLong(int path);
+
+    String getString(int path);
+
+    /**
+     * 字符串数组，例如tags
+     * an array of strings, such as tags
+     * @param path
+     * @return null when absent
+     */
+    List<String> getStrings(int path);
+
+    /**
+     * 缺失时为false，与绑定后的Work相同
+     * false when absent, the same as a bound Work
+     * @param path
+     * @return
+     */
+    boolean getBoolean(int path);
+}
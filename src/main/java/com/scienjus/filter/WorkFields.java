@@ -0,0 +1,321 @@
+package com.scienjus.filter;
+
+import com.scienjus.model.FavoritedCount;
+import com.scienjus.model.Stats;
+import com.scienjus.model.User;
+import com.scienjus.model.Work;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 过滤表达式可以使用的作品字段，名称不区分大小写
+ * the work fields a filter expression can use, names are case insensitive
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+final class WorkFields {
+
+    /**
+     * 数值字段，缺失时返回NumExpr.MISSING。paths的第一个是值的json路径，第二个是值所在对象的路径：
+     * Work中的int字段在json中缺失时为0，只有所在的对象缺失时才算缺失
+     * a numeric field, NumExpr.MISSING when absent. the first path is the json path of the value and the second one
+     * the object holding it: an int of Work is 0 when absent from the json, only a missing holder makes it missing
+     */
+    abstract static class NumberField {
+
+        final String name;
+
+        final int cost;
+
+        final String[] paths;
+
+        NumberField(String name, int cost, String... paths) {
+            this.name = name;
+            this.cost = cost;
+            this.paths = paths;
+        }
+
+        abstract long get(Work work);
+
+        long get(RawEntry entry, int[] slots) {
+            long value = entry.getLong(slots[0]);
+            if (value != RawEntry.MISSING) {
+                return value;
+            }
+            return slots.length == 1 || entry.has(slots[1]) ? 0 : NumExpr.MISSING;
+        }
+    }
+
+    /**
+     * 时间字段，json中是yyyy-MM-dd HH:mm:ss形式的字符串
+     * a time field, a yyyy-MM-dd HH:mm:ss string in the json
+     */
+    abstract static class TimeField extends NumberField {
+
+        TimeField(String name, int cost, String path) {
+            super(name, cost, path);
+        }
+
+        @Override
+        long get(RawEntry entry, int[] slots) {
+            return timestamp(entry.getString(slots[0]));
+        }
+    }
+
+    abstract static class StringField {
+
+        final String name;
+
+        final int cost;
+
+        final String path;
+
+        StringField(String name, int cost, String path) {
+            this.name = name;
+            this.cost = cost;
+            this.path = path;
+        }
+
+        abstract String get(Work work);
+
+        String get(RawEntry entry, int slot) {
+            return entry.getString(slot);
+        }
+    }
+
+    abstract static class BooleanField {
+
+        final String name;
+
+        final String path;
+
+        BooleanField(String name, String path) {
+            this.name = name;
+            this.path = path;
+        }
+
+        abstract boolean get(Work work);
+
+        boolean get(RawEntry entry, int slot) {
+            return entry.getBoolean(slot);
+        }
+    }
+
+    /**
+     * 标签的json路径
+     * the json path of tags
+     */
+    static final String TAGS = "tags";
+
+    private static final Map<String, Object> FIELDS = new HashMap<>();
+
+    static {
+        number(new NumberField("id", 1, "id") {
+            @Override
+            long get(Work work) {
+                return work.getId();
+            }
+        });
+        number(new NumberField("width", 1, "width") {
+            @Override
+            long get(Work work) {
+                return work.getWidth();
+            }
+        });
+        number(new NumberField("height", 1, "height") {
+            @Override
+            long get(Work work) {
+                return work.getHeight();
+            }
+        });
+        number(new NumberField("pageCount", 1, "page_count") {
+            @Override
+            long get(Work work) {
+                return work.getPageCount();
+            }
+        }, "pages");
+        number(new NumberField("score", 2, "stats.score", "stats") {
+            @Override
+            long get(Work work) {
+                Stats stats = work.getStats();
+                return stats == null ? NumExpr.MISSING : stats.getScore();
+            }
+        });
+        number(new NumberField("scoredCount", 2, "stats.scored_count", "stats") {
+            @Override
+            long get(Work work) {
+                Stats stats = work.getStats();
+                return stats == null ? NumExpr.MISSING : stats.getScoredCount();
+            }
+        });
+        number(new NumberField("views", 2, "stats.views_count", "stats") {
+            @Override
+            long get(Work work) {
+                Stats stats = work.getStats();
+                return stats == null ? NumExpr.MISSING : stats.getViewsCount();
+            }
+        }, "viewsCount");
+        number(new NumberField("favorites", 3, "stats.favorited_count.public", "stats.favorited_count") {
+            @Override
+            long get(Work work) {
+                FavoritedCount count = favorited(work);
+                return count == null ? NumExpr.MISSING : count.getPublicCount();
+            }
+        }, "publicFavorites");
+        number(new NumberField("privateFavorites", 3, "stats.favorited_count.private", "stats.favorited_count") {
+            @Override
+            long get(Work work) {
+                FavoritedCount count = favorited(work);
+                return count == null ? NumExpr.MISSING : count.getPrivateCount();
+            }
+        });
+        number(new NumberField("userId", 2, "user.id", "user") {
+            @Override
+            long get(Work work) {
+                User user = work.getUser();
+                return user == null ? NumExpr.MISSING : user.getId();
+            }
+        }, "authorId");
+        number(new TimeField("createdTime", 4, "created_time") {
+            @Override
+            long get(Work work) {
+                return timestamp(work.getCreatedTime());
+            }
+        }, "created");
+        number(new TimeField("reuploadedTime", 4, "reuploaded_time") {
+            @Override
+            long get(Work work) {
+                return timestamp(work.getReuploadedTime());
+            }
+        }, "reuploaded");
+
+        string(new StringField("ageLimit", 1, "age_limit") {
+            @Override
+            String get(Work work) {
+                return work.getAgeLimit();
+            }
+        });
+        string(new StringField("sanityLevel", 1, "sanity_level") {
+            @Override
+            String get(Work work) {
+                return work.getSanityLevel();
+            }
+        });
+        string(new StringField("type", 1, "type") {
+            @Override
+            String get(Work work) {
+                return work.getType();
+            }
+        });
+        string(new StringField("title", 1, "title") {
+            @Override
+            String get(Work work) {
+                return work.getTitle();
+            }
+        });
+        string(new StringField("caption", 1, "caption") {
+            @Override
+            String get(Work work) {
+                return work.getCaption();
+            }
+        });
+        string(new StringField("userName", 2, "user.name") {
+            @Override
+            String get(Work work) {
+                User user = work.getUser();
+                return user == null ? null : user.getName();
+            }
+        }, "authorName");
+        string(new StringField("userAccount", 2, "user.account") {
+            @Override
+            String get(Work work) {
+                User user = work.getUser();
+                return user == null ? null : user.getAccount();
+            }
+        });
+
+        bool(new BooleanField("manga", "is_manga") {
+            @Override
+            boolean get(Work work) {
+                return work.isManga();
+            }
+        }, "isManga");
+        bool(new BooleanField("liked", "is_liked") {
+            @Override
+            boolean get(Work work) {
+                return work.isLiked();
+            }
+        });
+    }
+
+    private WorkFields() {
+    }
+
+    static NumberField number(String name) {
+        Object field = FIELDS.get(name.toLowerCase());
+        return field instanceof NumberField ? (NumberField) field : null;
+    }
+
+    static StringField string(String name) {
+        Object field = FIELDS.get(name.toLowerCase());
+        return field instanceof StringField ? (StringField) field : null;
+    }
+
+    static BooleanField bool(String name) {
+        Object field = FIELDS.get(name.toLowerCase());
+        return field instanceof BooleanField ? (BooleanField) field : null;
+    }
+
+    /**
+     * 将yyyy-MM-dd HH:mm:ss形式的时间转为yyyyMMddHHmmss的数值，只有日期时时间补0，顺序与时间相同
+     * turn a yyyy-MM-dd HH:mm:ss time into the number yyyyMMddHHmmss, a date alone is padded with zeros; the order matches the time
+     * @param time
+     * @return NumExpr.MISSING when there are no digits
+     */
+    static long timestamp(String time) {
+        if (time == null) {
+            return NumExpr.MISSING;
+        }
+        long value = 0;
+        int digits = 0;
+        for (int i = 0; i < time.length() && digits < 14; i++) {
+            char c = time.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return NumExpr.MISSING;
+        }
+        for (; digits < 14; digits++) {
+            value *= 10;
+        }
+        return value;
+    }
+
+    private static FavoritedCount favorited(Work work) {
+        Stats stats = work.getStats();
+        return stats == null ? null : stats.getFavoritedCount();
+    }
+
+    private static void number(NumberField field, String... aliases) {
+        register(field.name, field, aliases);
+    }
+
+    private static void string(StringField field, String... aliases) {
+        register(field.name, field, aliases);
+    }
+
+    private static void bool(BooleanField field, String... aliases) {
+        register(field.name, field, aliases);
+    }
+
+    private static void register(String name, Object field, String... aliases) {
+        FIELDS.put(name.toLowerCase(), field);
+        for (String alias : aliases) {
+            FIELDS.put(alias.toLowerCase(), field);
+        }
+    }
+}
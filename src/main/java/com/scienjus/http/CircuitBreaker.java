@@ -0,0 +1,122 @@
+package com.scienjus.http;
+
+/**
+ * 一个主机的熔断器：连续失败达到阈值后打开，打开期间请求直接失败，之后放行一个试探请求，成功则关闭。
+ * 试探请求没有结果（被取消或遇到与主机无关的错误）或超过打开时间仍未结束时，会放行下一个试探请求
+ * the circuit breaker of one host: it opens after a run of failures, fails requests fast while open,
+ * then lets one trial request through and closes if it succeeds. another trial is let through when the
+ * trial ends without a verdict (cancelled or failed for a reason unrelated to the host) or outlives the open period
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * tryAcquire的结果：请求被拒绝
+     * a result of tryAcquire: the request is rejected
+     */
+    public static final long REJECTED = -1;
+
+    /**
+     * tryAcquire的结果：普通的请求，不是试探请求
+     * a result of tryAcquire: an ordinary request, not the trial
+     */
+    public static final long NO_TRIAL = 0;
+
+    private final int failureThreshold;
+
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+
+    private int failures;
+
+    private long openedAt;
+
+    /**
+     * 当前试探请求的开始时间，0表示没有进行中的试探请求
+     * the start of the pending trial request, 0 when there is none
+     */
+    private long trialStartedAt;
+
+    /**
+     * 当前试探请求的编号，只有持有它的请求可以释放试探
+     * the number of the pending trial, only the request holding it may release the trial
+     */
+    private long trial;
+
+    private long trials;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * 申请发送请求，打开时间结束后只放行一个试探请求
+     * ask to send a request, only one trial request passes once the open period ends
+     * @return REJECTED, NO_TRIAL for an ordinary request, otherwise the number of the trial to pass to releaseTrial
+     */
+    public synchronized long tryAcquire() {
+        long now = System.currentTimeMillis();
+        switch (state) {
+            case CLOSED:
+                return NO_TRIAL;
+            case OPEN:
+                if (now - openedAt >= openMillis) {
+                    state = State.HALF_OPEN;
+                    return startTrial(now);
+                }
+                return REJECTED;
+            default:
+                //试探请求还没有结果，超时后视为丢失
+                if (trialStartedAt == 0 || now - trialStartedAt >= openMillis) {
+                    return startTrial(now);
+                }
+                return REJECTED;
+        }
+    }
+
+    private long startTrial(long now) {
+        trialStartedAt = now;
+        trial = ++trials;
+        return trial;
+    }
+
+    public synchronized void onSuccess() {
+        failures = 0;
+        state = State.CLOSED;
+        trialStartedAt = 0;
+        trial = NO_TRIAL;
+    }
+
+    public synchronized void onFailure() {
+        failures++;
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+            trialStartedAt = 0;
+            trial = NO_TRIAL;
+        }
+    }
+
+    /**
+     * 试探请求结束但不能说明主机是否正常，放行下一个试探请求。其他请求调用时没有效果
+     * the trial ended without telling whether the host is healthy, the next trial is let through. it has no effect for any other request
+     * @param permit the result of tryAcquire
+     */
+    public synchronized void releaseTrial(long permit) {
+        if (state == State.HALF_OPEN && permit != NO_TRIAL && permit == trial) {
+            trialStartedAt = 0;
+            trial = NO_TRIAL;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
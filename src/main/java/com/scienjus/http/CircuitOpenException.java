@@ -0,0 +1,25 @@
+package com.scienjus.http;
+
+import java.io.IOException;
+
+/**
+ * 主机的熔断器处于打开状态，请求没有发送
+ * the circuit breaker of the host is open, the request was not sent
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class CircuitOpenException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String host;
+
+    public CircuitOpenException(String host) {
+        super("熔断中，暂停请求：" + host);
+        this.host = host;
+    }
+
+    public String getHost() {
+        return host;
+    }
+}
@@ -0,0 +1,25 @@
+package com.scienjus.http;
+
+import java.io.IOException;
+
+/**
+ * 服务器返回了非预期的状态码
+ * the server answered with an unexpected status code
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class HttpStatusException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public HttpStatusException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,35 @@
+package com.scienjus.http;
+
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+
+/**
+ * 让http客户端的每个请求都经过限流器，并用响应调整速率
+ * passes every request of an http client through the limiter and feeds the responses back to it
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class RateLimitInterceptor implements HttpRequestInterceptor, HttpResponseInterceptor {
+
+    private final RateLimiter limiter;
+
+    public RateLimitInterceptor(RateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void process(HttpRequest request, HttpContext context) throws HttpException, IOException {
+        limiter.acquire();
+    }
+
+    @Override
+    public void process(HttpResponse response, HttpContext context) throws HttpException, IOException {
+        limiter.onResponse(response);
+    }
+}
@@ -0,0 +1,207 @@
+package com.scienjus.http;
+
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.utils.DateUtils;
+
+import java.io.InterruptedIOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自适应的令牌桶限流器。服务器返回429或503时按Retry-After暂停并将速率减半，之后每次成功的请求逐步恢复到上限
+ * an adaptive token bucket. on 429 or 503 it pauses for Retry-After and halves the rate, every successful request then raises it back towards the limit
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class RateLimiter {
+
+    /**
+     * 速率下限相对上限的比例
+     * the floor of the rate relative to the limit
+     */
+    private static final double MIN_RATE_RATIO = 0.05;
+
+    /**
+     * 每次成功的请求恢复的速率相对上限的比例
+     * rate regained by each successful request, relative to the limit
+     */
+    private static final double RECOVERY_RATIO = 0.01;
+
+    /**
+     * 没有Retry-After时暂停的毫秒数
+     * milliseconds paused when there is no Retry-After
+     */
+    private static final long DEFAULT_PAUSE_MILLIS = 1000;
+
+    /**
+     * Retry-After的上限，防止服务器返回过长的暂停
+     * the cap of Retry-After, against an overly long pause from the server
+     */
+    private static final long MAX_PAUSE_MILLIS = 5 * 60 * 1000;
+
+    private double maxRate;
+
+    private double rate;
+
+    private double burst;
+
+    private double permits;
+
+    /**
+     * 许可补充到的时间（System.nanoTime），暂停期间位于将来，暂停结束前不补充许可
+     * the System.nanoTime permits were refilled up to, in the future while paused so no permits accrue before the pause ends
+     */
+    private long lastRefill = System.nanoTime();
+
+    /**
+     * 暂停到这个时间（System.nanoTime）
+     * paused until this System.nanoTime
+     */
+    private long pausedUntil = lastRefill;
+
+    private long throttled;
+
+    /**
+     * @param permitsPerSecond 每秒的请求数上限
+     *                         the max requests per second
+     */
+    public RateLimiter(double permitsPerSecond) {
+        setMaxRate(permitsPerSecond);
+        this.permits = burst;
+    }
+
+    /**
+     * 取得一个许可，没有时等待
+     * take one permit, waiting when none is left
+     * @throws InterruptedIOException
+     */
+    public void acquire() throws InterruptedIOException {
+        long wait = reserve();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("等待限流时被中断");
+            }
+        }
+    }
+
+    /**
+     * 预定一个许可，返回需要等待的纳秒数，许可可以透支，之后的请求会等待更久。
+     * 暂停期间排队的请求在暂停结束后按照当前速率依次放行
+     * reserve one permit and return the nanos to wait, permits may go negative so later requests wait longer.
+     * requests queued during a pause are let through one by one at the current rate once it ends
+     */
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        refill(now);
+        permits -= 1;
+        long deficit = permits >= 0 ? 0 : (long) (-permits / rate * TimeUnit.SECONDS.toNanos(1));
+        return Math.max(0, lastRefill - now) + deficit;
+    }
+
+    private void refill(long now) {
+        if (now > lastRefill) {
+            permits = Math.min(burst, permits + (now - lastRefill) * rate / TimeUnit.SECONDS.toNanos(1));
+            lastRefill = now;
+        }
+    }
+
+    /**
+     * 根据响应调整速率
+     * adjust the rate from a response
+     * @param response
+     */
+    public void onResponse(HttpResponse response) {
+        int status = response.getStatusLine().getStatusCode();
+        if (status == 429 || status == 503) {
+            onThrottled(retryAfter(response));
+        } else if (status < 500) {
+            onSuccess();
+        }
+    }
+
+    /**
+     * 被服务器限流，暂停pauseMillis毫秒并将速率减半
+     * throttled by the server, pause for pauseMillis and halve the rate
+     * @param pauseMillis
+     */
+    public synchronized void onThrottled(long pauseMillis) {
+        long now = System.nanoTime();
+        refill(now);
+        throttled++;
+        rate = Math.max(maxRate * MIN_RATE_RATIO, rate / 2);
+        burst = Math.max(1, rate);
+        //最多留一个许可给暂停结束时的第一个请求，暂停期间不补充
+        permits = Math.min(permits, 1);
+        pausedUntil = Math.max(pausedUntil, now + TimeUnit.MILLISECONDS.toNanos(Math.min(pauseMillis, MAX_PAUSE_MILLIS)));
+        lastRefill = Math.max(lastRefill, pausedUntil);
+    }
+
+    public synchronized void onSuccess() {
+        if (rate < maxRate) {
+            refill(System.nanoTime());
+            rate = Math.min(maxRate, rate + maxRate * RECOVERY_RATIO);
+            burst = Math.max(1, rate);
+        }
+    }
+
+    /**
+     * 设置每秒的请求数上限
+     * set the max requests per second
+     * @param permitsPerSecond
+     */
+    public synchronized void setMaxRate(double permitsPerSecond) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive: " + permitsPerSecond);
+        }
+        refill(System.nanoTime());
+        this.maxRate = permitsPerSecond;
+        this.rate = permitsPerSecond;
+        this.burst = Math.max(1, permitsPerSecond);
+    }
+
+    public synchronized double getMaxRate() {
+        return maxRate;
+    }
+
+    /**
+     * 当前的速率，被限流后会低于上限
+     * the current rate, below the limit after being throttled
+     * @return
+     */
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    /**
+     * 收到429或503的次数
+     * number of 429 or 503 responses
+     * @return
+     */
+    public synchronized long getThrottledCount() {
+        return throttled;
+    }
+
+    /**
+     * 读取Retry-After，可以是秒数或HTTP日期，没有时返回默认值
+     * read Retry-After as seconds or an HTTP date, the default pause when absent
+     * @param response
+     * @return milliseconds
+     */
+    public static long retryAfter(HttpResponse response) {
+        Header header = response.getFirstHeader("Retry-After");
+        if (header == null) {
+            return DEFAULT_PAUSE_MILLIS;
+        }
+        String value = header.getValue().trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        } catch (NumberFormatException e) {
+            Date date = DateUtils.parseDate(value);
+            return date == null ? DEFAULT_PAUSE_MILLIS : Math.max(0, date.getTime() - System.currentTimeMillis());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.scienjus.http;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按照RetryPolicy执行请求，每个主机一个熔断器
+ * runs requests under a RetryPolicy with one circuit breaker per host
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class Retrier {
+
+    private static final Logger LOGGER = Logger.getLogger(Retrier.class);
+
+    private final RetryPolicy policy;
+
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public Retrier(RetryPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * 执行请求，可重试的错误会在退避后重试，直到成功、遇到不可重试的错误或用完次数
+     * run a request, retryable errors are retried after a backoff until it succeeds, fails fatally or runs out of attempts
+     * @param url used to pick the circuit breaker of its host
+     * @param attempt
+     * @return
+     * @throws IOException the last error
+     */
+    public <T> T execute(String url, Attempt<T> attempt) throws IOException {
+        String host = host(url);
+        CircuitBreaker breaker = getBreaker(host);
+        for (int i = 1; ; i++) {
+            long permit = breaker.tryAcquire();
+            if (permit == CircuitBreaker.REJECTED) {
+                throw new CircuitOpenException(host);
+            }
+            boolean settled = false;
+            try {
+                T result = attempt.call();
+                breaker.onSuccess();
+                settled = true;
+                return result;
+            } catch (IOException e) {
+                boolean retryable = policy.isRetryable(e);
+                if (retryable) {
+                    //只有可重试的错误说明主机有问题，404之类的错误不计入熔断
+                    breaker.onFailure();
+                    settled = true;
+                } else if (e instanceof HttpStatusException) {
+                    breaker.onSuccess();
+                    settled = true;
+                }
+                if (!retryable || i >= policy.getMaxAttempts()) {
+                    throw e;
+                }
+                long delay = policy.delay(i);
+                LOGGER.warn("第" + i + "次请求失败，" + delay + "毫秒后重试：" + e.getMessage());
+                sleep(delay);
+            } finally {
+                //被取消、中断或其他与主机无关的错误，不能让熔断器停在半开状态
+                if (!settled) {
+                    breaker.releaseTrial(permit);
+                }
+            }
+        }
+    }
+
+    /**
+     * 某个主机的熔断器
+     * the circuit breaker of a host
+     * @param host
+     * @return
+     */
+    public CircuitBreaker getBreaker(String host) {
+        CircuitBreaker breaker = breakers.get(host);
+        if (breaker == null) {
+            CircuitBreaker created = new CircuitBreaker(policy.getFailureThreshold(), policy.getOpenMillis());
+            breaker = breakers.putIfAbsent(host, created);
+            if (breaker == null) {
+                breaker = created;
+            }
+        }
+        return breaker;
+    }
+
+    public RetryPolicy getPolicy() {
+        return policy;
+    }
+
+    private static String host(String url) {
+        try {
+            String host = URI.create(url.replace(" ", "%20")).getHost();
+            return host == null ? url : host;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待重试时被中断");
+        }
+    }
+
+    /**
+     * 一次尝试
+     * one attempt
+     */
+    public interface Attempt<T> {
+
+        T call() throws IOException;
+    }
+}
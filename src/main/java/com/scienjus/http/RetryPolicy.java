@@ -0,0 +1,134 @@
+package com.scienjus.http;
+
+import com.scienjus.config.PixivParserConfig;
+import org.apache.http.conn.ConnectTimeoutException;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Random;
+
+/**
+ * 重试策略：最大尝试次数、带随机抖动的指数退避、可重试和不可重试的错误，以及熔断器的参数
+ * the retry policy: max attempts, exponential backoff with jitter, retryable and fatal errors, and the circuit breaker settings
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class RetryPolicy {
+
+    private static final Random RANDOM = new Random();
+
+    private int maxAttempts = PixivParserConfig.DEFAULT_RETRY_MAX_ATTEMPTS;
+
+    private long baseDelayMillis = PixivParserConfig.DEFAULT_RETRY_BASE_DELAY_MILLIS;
+
+    private long maxDelayMillis = PixivParserConfig.DEFAULT_RETRY_MAX_DELAY_MILLIS;
+
+    private int failureThreshold = PixivParserConfig.DEFAULT_CIRCUIT_FAILURE_THRESHOLD;
+
+    private long openMillis = PixivParserConfig.DEFAULT_CIRCUIT_OPEN_MILLIS;
+
+    /**
+     * 包括第一次在内的最大尝试次数，1表示不重试
+     * max attempts including the first one, 1 disables retrying
+     * @param maxAttempts
+     * @return
+     */
+    public RetryPolicy withMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * 第一次重试前的等待时间，之后每次翻倍，不超过maxDelayMillis
+     * the wait before the first retry, doubled for each later one up to maxDelayMillis
+     * @param baseDelayMillis
+     * @param maxDelayMillis
+     * @return
+     */
+    public RetryPolicy withBackoff(long baseDelayMillis, long maxDelayMillis) {
+        if (baseDelayMillis < 0 || maxDelayMillis < baseDelayMillis) {
+            throw new IllegalArgumentException("invalid backoff: " + baseDelayMillis + ", " + maxDelayMillis);
+        }
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        return this;
+    }
+
+    /**
+     * 同一主机连续失败failureThreshold次后熔断openMillis毫秒
+     * a host failing failureThreshold times in a row is cut off for openMillis
+     * @param failureThreshold
+     * @param openMillis
+     * @return
+     */
+    public RetryPolicy withCircuitBreaker(int failureThreshold, long openMillis) {
+        if (failureThreshold < 1 || openMillis < 0) {
+            throw new IllegalArgumentException("invalid circuit breaker: " + failureThreshold + ", " + openMillis);
+        }
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        return this;
+    }
+
+    /**
+     * 第attempt次失败后的等待时间，在0到指数退避之间随机，避免多个线程同时重试
+     * the wait after the attempt-th failure, random between 0 and the exponential backoff so threads do not retry in lockstep
+     * @param attempt starting from 1
+     * @return
+     */
+    public long delay(int attempt) {
+        long backoff = baseDelayMillis << Math.min(attempt - 1, 30);
+        if (backoff <= 0 || backoff > maxDelayMillis) {
+            backoff = maxDelayMillis;
+        }
+        return backoff == 0 ? 0 : (long) (RANDOM.nextDouble() * backoff);
+    }
+
+    /**
+     * 错误是否值得重试。4xx（408和429除外）、域名解析失败、SSL错误、熔断和中断不会重试
+     * whether an error is worth retrying. 4xx other than 408 and 429, unknown hosts, SSL errors, an open circuit and interruption are fatal
+     * @param error
+     * @return
+     */
+    public boolean isRetryable(IOException error) {
+        if (Thread.currentThread().isInterrupted() || error instanceof CircuitOpenException
+                || error instanceof UnknownHostException || error instanceof SSLException) {
+            return false;
+        }
+        if (error instanceof HttpStatusException) {
+            int status = ((HttpStatusException) error).getStatus();
+            return status >= 500 || status == 408 || status == 429;
+        }
+        if (error instanceof InterruptedIOException) {
+            //超时可以重试，被取消的请求不可以
+            return error instanceof SocketTimeoutException || error instanceof ConnectTimeoutException;
+        }
+        return true;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getBaseDelayMillis() {
+        return baseDelayMillis;
+    }
+
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public long getOpenMillis() {
+        return openMillis;
+    }
+}
@@ -0,0 +1,88 @@
+package com.scienjus.http;
+
+/**
+ * RFC 3986的百分号编码：除了未保留字符（字母、数字和-._~）以外，每个字符都按UTF-8字节编码为%XX。
+ * 直接写入StringBuilder，不会生成中间的字节数组或字符串
+ * RFC 3986 percent-encoding: every character except the unreserved ones (letters, digits and -._~) is encoded
+ * as %XX per UTF-8 byte. written straight into a StringBuilder without an intermediate byte array or String
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public final class UriEncoding {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final boolean[] UNRESERVED = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            UNRESERVED[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            UNRESERVED[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            UNRESERVED[c] = true;
+        }
+        UNRESERVED['-'] = true;
+        UNRESERVED['.'] = true;
+        UNRESERVED['_'] = true;
+        UNRESERVED['~'] = true;
+    }
+
+    private UriEncoding() {
+    }
+
+    /**
+     * 编码后的字符串，用于查询参数的值或路径中的一段
+     * the encoded string, for a query value or one path segment
+     * @param value
+     * @return
+     */
+    public static String encode(String value) {
+        return append(new StringBuilder(value.length() + 16), value).toString();
+    }
+
+    /**
+     * 将编码后的value写入out
+     * write the encoded value to out
+     * @param out
+     * @param value
+     * @return out
+     */
+    public static StringBuilder append(StringBuilder out, CharSequence value) {
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (UNRESERVED[c]) {
+                    out.append(c);
+                } else {
+                    escape(out, c);
+                }
+            } else if (c < 0x800) {
+                escape(out, 0xc0 | (c >> 6));
+                escape(out, 0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                escape(out, 0xf0 | (codePoint >> 18));
+                escape(out, 0x80 | ((codePoint >> 12) & 0x3f));
+                escape(out, 0x80 | ((codePoint >> 6) & 0x3f));
+                escape(out, 0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                //不成对的代理字符按UTF-8的替换字符处理
+                escape(out, 0xef);
+                escape(out, 0xbf);
+                escape(out, 0xbd);
+            } else {
+                escape(out, 0xe0 | (c >> 12));
+                escape(out, 0x80 | ((c >> 6) & 0x3f));
+                escape(out, 0x80 | (c & 0x3f));
+            }
+        }
+        return out;
+    }
+
+    private static void escape(StringBuilder out, int b) {
+        out.append('%').append(HEX[(b >> 4) & 0xf]).append(HEX[b & 0xf]);
+    }
+}
@@ -1,14 +1,13 @@
 package com.scienjus.main;
 
-import com.scienjus.callback.DownloadCallback;
+import com.scienjus.callback.TransferCallback;
 import com.scienjus.callback.WorkCallback;
 import com.scienjus.client.PixivParserClient;
-import com.scienjus.filter.WorkFilter;
+import com.scienjus.download.ImageTransfer;
 import com.scienjus.model.Work;
 import com.scienjus.param.ParserParam;
 
-import java.io.FileOutputStream;
-import java.io.IOException;
+import java.io.File;
 import java.text.ParseException;
 import java.util.List;
 
@@ -35,37 +34,27 @@ public class Launch {
                     //只取100张
                     .withLimit(100)
                     //获得公开收藏数大于1000的非r18作品
-                    .withFilter(new WorkFilter() {
-                        @Override
-                        public boolean doFilter(Work work) {
-                            return work.getStats().getFavoritedCount().getPublicCount() > 1000 && !work.getAgeLimit().contains("r18");
-                        }
-                    })
+                    .withFilter("favorites > 1000 and not ageLimit contains \"r18\"")
                     //在回调中下载图片
                     .withCallback(new WorkCallback() {
                         @Override
                         public void onFound(Work work) {
                             //获取作品详情
                             Work detail = client.getWork(work.getId());
-                            //将图片保存在本地磁盘
-                            PixivParserClient.download(detail, new DownloadCallback() {
+                            //将图片直接写入本地磁盘
+                            client.download(detail, new File("E:/Pixiv"), new TransferCallback() {
                                 @Override
-                                public void onIllustFinished(Work work, byte[] file) {
-                                    try (FileOutputStream out = new FileOutputStream("E:/Pixiv/" + work.getId() + ".jpg")) {
-                                        out.write(file);
-                                    } catch (IOException e) {
-                                        e.printStackTrace();
+                                public void onIllustFinished(Work work, ImageTransfer transfer) {
+                                    if (!transfer.isSuccess()) {
+                                        transfer.getError().printStackTrace();
                                     }
                                 }
 
                                 @Override
-                                public void onMangaFinished(Work work, List<byte[]> files) {
-                                    int i = 1;
-                                    for (byte[] file : files) {
-                                        try (FileOutputStream out = new FileOutputStream("E:/Pixiv/" + work.getId() + "_" + i++ + ".jpg")) {
-                                            out.write(file);
-                                        } catch (IOException e) {
-                                            e.printStackTrace();
+                                public void onMangaFinished(Work work, List<ImageTransfer> transfers) {
+                                    for (ImageTransfer transfer : transfers) {
+                                        if (!transfer.isSuccess()) {
+                                            transfer.getError().printStackTrace();
                                         }
                                     }
                                 }
@@ -0,0 +1,32 @@
+package com.scienjus.metrics;
+
+import java.util.Map;
+
+/**
+ * 通过JMX公开的客户端整体统计
+ * the client wide figures exposed through JMX
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public interface ClientMXBean {
+
+    long getWorksParsed();
+
+    double getWorksPerSecond();
+
+    /**
+     * 每个池的使用率，0到1
+     * the share in use of every pool, from 0 to 1
+     * @return
+     */
+    Map<String, Double> getPoolSaturation();
+
+    /**
+     * 每个池等待中的请求
+     * requests waiting in every pool
+     * @return
+     */
+    Map<String, Integer> getPoolQueued();
+
+    void reset();
+}
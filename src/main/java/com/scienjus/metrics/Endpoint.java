@@ -0,0 +1,21 @@
+package com.scienjus.metrics;
+
+/**
+ * 被统计的请求类型
+ * the kinds of requests that are measured
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public enum Endpoint {
+
+    LOGIN, DETAIL, SEARCH, AUTHOR, RANKING, IMAGE;
+
+    /**
+     * 小写的名称，用于JMX和日志
+     * the lower case name used by JMX and logs
+     * @return
+     */
+    public String label() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,26 @@
+package com.scienjus.metrics;
+
+/**
+ * 通过JMX公开的一种请求的统计，延迟的单位为毫秒
+ * the figures of one endpoint exposed through JMX, latencies are in milliseconds
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public interface EndpointMXBean {
+
+    long getRequests();
+
+    long getErrors();
+
+    long getBytes();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP90Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+}
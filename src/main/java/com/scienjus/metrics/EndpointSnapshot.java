@@ -0,0 +1,46 @@
+package com.scienjus.metrics;
+
+/**
+ * 某一时刻一种请求的统计
+ * the figures of one endpoint at one moment
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class EndpointSnapshot {
+
+    private final long requests;
+
+    private final long errors;
+
+    private final long bytes;
+
+    private final LatencySnapshot latency;
+
+    public EndpointSnapshot(long requests, long errors, long bytes, LatencySnapshot latency) {
+        this.requests = requests;
+        this.errors = errors;
+        this.bytes = bytes;
+        this.latency = latency;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public LatencySnapshot getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String toString() {
+        return "requests=" + requests + ", errors=" + errors + ", bytes=" + bytes + ", " + latency;
+    }
+}
@@ -0,0 +1,127 @@
+package com.scienjus.metrics;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 在内存中累计统计数据，通过snapshot读取
+ * accumulates measurements in memory, read them with snapshot
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class InMemoryMetrics implements MetricsRecorder {
+
+    /**
+     * 构造后不再修改，读取不需要同步
+     * never modified after construction, so reads need no locking
+     */
+    private final Map<Endpoint, EndpointStats> endpoints = new EnumMap<>(Endpoint.class);
+
+    private final ConcurrentMap<String, PoolGauge> pools = new ConcurrentHashMap<>();
+
+    private final AtomicLong worksParsed = new AtomicLong();
+
+    private volatile long startedAt = System.currentTimeMillis();
+
+    public InMemoryMetrics() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            endpoints.put(endpoint, new EndpointStats());
+        }
+    }
+
+    @Override
+    public void onRequest(Endpoint endpoint, long latencyNanos, boolean success) {
+        EndpointStats stats = endpoints.get(endpoint);
+        stats.latency.record(latencyNanos);
+        stats.requests.incrementAndGet();
+        if (!success) {
+            stats.errors.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onBytes(Endpoint endpoint, long bytes) {
+        endpoints.get(endpoint).bytes.addAndGet(bytes);
+    }
+
+    @Override
+    public void onWorksParsed(int count) {
+        worksParsed.addAndGet(count);
+    }
+
+    @Override
+    public void registerPool(String name, PoolGauge pool) {
+        pools.put(name, pool);
+    }
+
+    public MetricsSnapshot snapshot() {
+        long now = System.currentTimeMillis();
+        Map<Endpoint, EndpointSnapshot> endpointSnapshots = new EnumMap<>(Endpoint.class);
+        for (Map.Entry<Endpoint, EndpointStats> entry : endpoints.entrySet()) {
+            endpointSnapshots.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return new MetricsSnapshot(now, now - startedAt, worksParsed.get(), endpointSnapshots, poolSnapshots());
+    }
+
+    /**
+     * 一种请求当前的统计
+     * the current figures of one endpoint
+     * @param endpoint
+     * @return
+     */
+    public EndpointSnapshot snapshot(Endpoint endpoint) {
+        return endpoints.get(endpoint).snapshot();
+    }
+
+    /**
+     * 所有池当前的使用情况
+     * the current usage of every pool
+     * @return
+     */
+    public Map<String, PoolSnapshot> poolSnapshots() {
+        Map<String, PoolSnapshot> snapshots = new LinkedHashMap<>();
+        for (Map.Entry<String, PoolGauge> entry : pools.entrySet()) {
+            PoolGauge pool = entry.getValue();
+            snapshots.put(entry.getKey(), new PoolSnapshot(pool.getActive(), pool.getMax(), pool.getQueued()));
+        }
+        return snapshots;
+    }
+
+    /**
+     * 清空累计的数据，池保持注册
+     * clear the accumulated figures, pools stay registered
+     */
+    public void reset() {
+        for (EndpointStats stats : endpoints.values()) {
+            stats.reset();
+        }
+        worksParsed.set(0);
+        startedAt = System.currentTimeMillis();
+    }
+
+    private static class EndpointStats {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private final AtomicLong requests = new AtomicLong();
+
+        private final AtomicLong errors = new AtomicLong();
+
+        private final AtomicLong bytes = new AtomicLong();
+
+        EndpointSnapshot snapshot() {
+            return new EndpointSnapshot(requests.get(), errors.get(), bytes.get(), latency.snapshot());
+        }
+
+        void reset() {
+            latency.reset();
+            requests.set(0);
+            errors.set(0);
+            bytes.set(0);
+        }
+    }
+}
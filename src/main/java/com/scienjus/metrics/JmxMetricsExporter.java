@@ -0,0 +1,172 @@
+package com.scienjus.metrics;
+
+import com.scienjus.config.PixivParserConfig;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 将InMemoryMetrics注册为MXBean，每次读取属性时计算，不会额外占用请求线程。
+ * 名称为{domain}:type=Client和{domain}:type=Endpoint,name={endpoint}
+ * registers an InMemoryMetrics as MXBeans computed on each attribute read, adding nothing to request threads.
+ * the names are {domain}:type=Client and {domain}:type=Endpoint,name={endpoint}
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class JmxMetricsExporter implements Closeable {
+
+    private final InMemoryMetrics metrics;
+
+    private final String domain;
+
+    private final MBeanServer server;
+
+    private final List<ObjectName> registered = new ArrayList<>();
+
+    public JmxMetricsExporter(InMemoryMetrics metrics) {
+        this(metrics, PixivParserConfig.METRICS_JMX_DOMAIN);
+    }
+
+    /**
+     * @param metrics
+     * @param domain use a different domain for each client in the same JVM
+     */
+    public JmxMetricsExporter(InMemoryMetrics metrics, String domain) {
+        this.metrics = metrics;
+        this.domain = domain;
+        this.server = ManagementFactory.getPlatformMBeanServer();
+    }
+
+    /**
+     * 注册到平台MBeanServer
+     * register with the platform MBeanServer
+     * @throws JMException when the names are already taken
+     */
+    public synchronized void register() throws JMException {
+        if (!registered.isEmpty()) {
+            return;
+        }
+        try {
+            add(new ObjectName(domain + ":type=Client"), new ClientBean());
+            for (Endpoint endpoint : Endpoint.values()) {
+                add(new ObjectName(domain + ":type=Endpoint,name=" + endpoint.label()), new EndpointBean(endpoint));
+            }
+        } catch (JMException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void add(ObjectName name, Object bean) throws JMException {
+        server.registerMBean(bean, name);
+        registered.add(name);
+    }
+
+    /**
+     * 取消注册
+     * unregister the beans
+     */
+    @Override
+    public synchronized void close() {
+        for (ObjectName name : registered) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                //已经被其他人取消注册
+            }
+        }
+        registered.clear();
+    }
+
+    private class ClientBean implements ClientMXBean {
+
+        @Override
+        public long getWorksParsed() {
+            return metrics.snapshot().getWorksParsed();
+        }
+
+        @Override
+        public double getWorksPerSecond() {
+            return metrics.snapshot().getWorksPerSecond();
+        }
+
+        @Override
+        public Map<String, Double> getPoolSaturation() {
+            Map<String, Double> saturation = new LinkedHashMap<>();
+            for (Map.Entry<String, PoolSnapshot> entry : metrics.poolSnapshots().entrySet()) {
+                saturation.put(entry.getKey(), entry.getValue().getSaturation());
+            }
+            return saturation;
+        }
+
+        @Override
+        public Map<String, Integer> getPoolQueued() {
+            Map<String, Integer> queued = new LinkedHashMap<>();
+            for (Map.Entry<String, PoolSnapshot> entry : metrics.poolSnapshots().entrySet()) {
+                queued.put(entry.getKey(), entry.getValue().getQueued());
+            }
+            return queued;
+        }
+
+        @Override
+        public void reset() {
+            metrics.reset();
+        }
+    }
+
+    private class EndpointBean implements EndpointMXBean {
+
+        private final Endpoint endpoint;
+
+        EndpointBean(Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public long getRequests() {
+            return metrics.snapshot(endpoint).getRequests();
+        }
+
+        @Override
+        public long getErrors() {
+            return metrics.snapshot(endpoint).getErrors();
+        }
+
+        @Override
+        public long getBytes() {
+            return metrics.snapshot(endpoint).getBytes();
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return metrics.snapshot(endpoint).getLatency().getMean();
+        }
+
+        @Override
+        public double getP50Millis() {
+            return metrics.snapshot(endpoint).getLatency().getP50();
+        }
+
+        @Override
+        public double getP90Millis() {
+            return metrics.snapshot(endpoint).getLatency().getP90();
+        }
+
+        @Override
+        public double getP99Millis() {
+            return metrics.snapshot(endpoint).getLatency().getP99();
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return metrics.snapshot(endpoint).getLatency().getMax();
+        }
+    }
+}
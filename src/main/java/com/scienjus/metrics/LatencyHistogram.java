@@ -0,0 +1,119 @@
+package com.scienjus.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁的延迟直方图。区间按微秒的2的幂划分，每个2的幂再分为4个子区间，误差不超过25%。
+ * 记录一次只需要几次原子加法
+ * a lock free latency histogram. buckets split each power of two microseconds into 4 sub-buckets,
+ * so values are off by at most 25%. recording costs a few atomic adds
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 最大约为2^30微秒（18分钟），更长的延迟计入最后一个区间
+     * up to about 2^30 microseconds (18 minutes), longer latencies fall into the last bucket
+     */
+    private static final int MAX_EXPONENT = 30;
+
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong totalMicros = new AtomicLong();
+
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void record(long latencyNanos) {
+        long micros = Math.max(0, latencyNanos / 1000);
+        buckets.incrementAndGet(bucket(micros));
+        count.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        long max;
+        while (micros > (max = maxMicros.get()) && !maxMicros.compareAndSet(max, micros)) {
+            //被其他线程更新，重新比较
+        }
+    }
+
+    /**
+     * 当前的分布。与并发的记录之间不是原子的，各项可能相差几次请求
+     * the current distribution. not atomic against concurrent records, the figures may disagree by a few requests
+     * @return
+     */
+    public LatencySnapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        long max = maxMicros.get();
+        double mean = total == 0 ? 0 : totalMicros.get() / 1000.0 / count.get();
+        return new LatencySnapshot(total, mean, percentile(counts, total, 0.5, max),
+                percentile(counts, total, 0.9, max), percentile(counts, total, 0.99, max), max / 1000.0);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalMicros.set(0);
+        maxMicros.set(0);
+    }
+
+    /**
+     * 所在区间：0到3微秒各占一个区间，之后按最高位的位置和其后两位划分
+     * the bucket: 0 to 3 microseconds get one each, then the position of the highest bit and the next two bits pick it
+     */
+    static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * 区间的下界，单位为微秒
+     * the lower bound of a bucket in microseconds
+     */
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    private static double percentile(long[] counts, long total, double quantile, long max) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                //取区间的上界，但不超过记录到的最大值
+                long upper = i + 1 < counts.length ? lowerBound(i + 1) : max;
+                return Math.min(upper, max) / 1000.0;
+            }
+        }
+        return max / 1000.0;
+    }
+}
@@ -0,0 +1,61 @@
+package com.scienjus.metrics;
+
+/**
+ * 某一时刻的延迟分布，单位为毫秒。百分位数是所在区间内的估计值
+ * the latency distribution at one moment in milliseconds. percentiles are estimated within their bucket
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class LatencySnapshot {
+
+    private final long count;
+
+    private final double mean;
+
+    private final double p50;
+
+    private final double p90;
+
+    private final double p99;
+
+    private final double max;
+
+    public LatencySnapshot(long count, double mean, double p50, double p90, double p99, double max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public double getP90() {
+        return p90;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, mean=%.1fms, p50=%.1fms, p90=%.1fms, p99=%.1fms, max=%.1fms",
+                count, mean, p50, p90, p99, max);
+    }
+}
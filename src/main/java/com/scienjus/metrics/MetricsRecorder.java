@@ -0,0 +1,64 @@
+package com.scienjus.metrics;
+
+/**
+ * 统计数据的接收者，每个请求都会调用，实现必须线程安全并且足够轻量
+ * receives measurements, it is called for every request so implementations must be thread safe and cheap
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public interface MetricsRecorder {
+
+    /**
+     * 什么都不记录
+     * records nothing
+     */
+    MetricsRecorder NONE = new MetricsRecorder() {
+        @Override
+        public void onRequest(Endpoint endpoint, long latencyNanos, boolean success) {
+        }
+
+        @Override
+        public void onBytes(Endpoint endpoint, long bytes) {
+        }
+
+        @Override
+        public void onWorksParsed(int count) {
+        }
+
+        @Override
+        public void registerPool(String name, PoolGauge pool) {
+        }
+    };
+
+    /**
+     * 一次请求结束，重试的每一次都会单独记录
+     * one request finished, every retry is recorded on its own
+     * @param endpoint
+     * @param latencyNanos from sending the request to reading the whole response
+     * @param success
+     */
+    void onRequest(Endpoint endpoint, long latencyNanos, boolean success);
+
+    /**
+     * 读取了响应的字节
+     * bytes of response bodies were read
+     * @param endpoint
+     * @param bytes
+     */
+    void onBytes(Endpoint endpoint, long bytes);
+
+    /**
+     * 解析了作品
+     * works were parsed
+     * @param count
+     */
+    void onWorksParsed(int count);
+
+    /**
+     * 注册一个池，同名的池会被替换
+     * register a pool, a pool of the same name is replaced
+     * @param name
+     * @param pool
+     */
+    void registerPool(String name, PoolGauge pool);
+}
@@ -0,0 +1,96 @@
+package com.scienjus.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * InMemoryMetrics在某一时刻的统计
+ * the figures of an InMemoryMetrics at one moment
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class MetricsSnapshot {
+
+    private final long takenAt;
+
+    private final long elapsedMillis;
+
+    private final long worksParsed;
+
+    private final Map<Endpoint, EndpointSnapshot> endpoints;
+
+    private final Map<String, PoolSnapshot> pools;
+
+    public MetricsSnapshot(long takenAt, long elapsedMillis, long worksParsed,
+                           Map<Endpoint, EndpointSnapshot> endpoints, Map<String, PoolSnapshot> pools) {
+        this.takenAt = takenAt;
+        this.elapsedMillis = elapsedMillis;
+        this.worksParsed = worksParsed;
+        this.endpoints = Collections.unmodifiableMap(endpoints);
+        this.pools = Collections.unmodifiableMap(pools);
+    }
+
+    public long getTakenAt() {
+        return takenAt;
+    }
+
+    /**
+     * 从开始统计或上次重置到现在的时间
+     * the time since recording started or was last reset
+     * @return
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getWorksParsed() {
+        return worksParsed;
+    }
+
+    /**
+     * 开始统计以来平均每秒解析的作品数
+     * works parsed per second on average since recording started
+     * @return
+     */
+    public double getWorksPerSecond() {
+        return elapsedMillis <= 0 ? 0 : worksParsed * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * 两次快照之间每秒解析的作品数
+     * works parsed per second between an earlier snapshot and this one
+     * @param earlier
+     * @return
+     */
+    public double getWorksPerSecondSince(MetricsSnapshot earlier) {
+        long millis = takenAt - earlier.takenAt;
+        return millis <= 0 ? 0 : (worksParsed - earlier.worksParsed) * 1000.0 / millis;
+    }
+
+    public EndpointSnapshot getEndpoint(Endpoint endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    public Map<Endpoint, EndpointSnapshot> getEndpoints() {
+        return endpoints;
+    }
+
+    public Map<String, PoolSnapshot> getPools() {
+        return pools;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("works=%d (%.1f/s)", worksParsed, getWorksPerSecond()));
+        for (Map.Entry<Endpoint, EndpointSnapshot> entry : endpoints.entrySet()) {
+            if (entry.getValue().getRequests() > 0) {
+                builder.append("\n").append(entry.getKey().label()).append(": ").append(entry.getValue());
+            }
+        }
+        for (Map.Entry<String, PoolSnapshot> entry : pools.entrySet()) {
+            builder.append("\n").append(entry.getKey()).append(": ").append(entry.getValue());
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,26 @@
+package com.scienjus.metrics;
+
+/**
+ * 连接池或线程池的当前使用情况，读取时计算
+ * the current usage of a connection or thread pool, read on demand
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public interface PoolGauge {
+
+    /**
+     * 正在使用的连接或线程
+     * connections or threads in use
+     * @return
+     */
+    int getActive();
+
+    int getMax();
+
+    /**
+     * 等待连接或线程的请求
+     * requests waiting for a connection or thread
+     * @return
+     */
+    int getQueued();
+}
@@ -0,0 +1,67 @@
+package com.scienjus.metrics;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 常用池的PoolGauge
+ * PoolGauges of the pools in use
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public final class PoolGauges {
+
+    private PoolGauges() {
+    }
+
+    /**
+     * http连接池，等待中的是等待连接的请求
+     * an http connection pool, queued are the requests waiting for a connection
+     * @param manager
+     * @return
+     */
+    public static PoolGauge of(final PoolingHttpClientConnectionManager manager) {
+        return new PoolGauge() {
+            @Override
+            public int getActive() {
+                return manager.getTotalStats().getLeased();
+            }
+
+            @Override
+            public int getMax() {
+                return manager.getTotalStats().getMax();
+            }
+
+            @Override
+            public int getQueued() {
+                return manager.getTotalStats().getPending();
+            }
+        };
+    }
+
+    /**
+     * 线程池，等待中的是队列里的任务
+     * a thread pool, queued are the tasks in its queue
+     * @param executor
+     * @return
+     */
+    public static PoolGauge of(final ThreadPoolExecutor executor) {
+        return new PoolGauge() {
+            @Override
+            public int getActive() {
+                return executor.getActiveCount();
+            }
+
+            @Override
+            public int getMax() {
+                return executor.getMaximumPoolSize();
+            }
+
+            @Override
+            public int getQueued() {
+                return executor.getQueue().size();
+            }
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.scienjus.metrics;
+
+/**
+ * 某一时刻池的使用情况
+ * the usage of a pool at one moment
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class PoolSnapshot {
+
+    private final int active;
+
+    private final int max;
+
+    private final int queued;
+
+    public PoolSnapshot(int active, int max, int queued) {
+        this.active = active;
+        this.max = max;
+        this.queued = queued;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    /**
+     * 使用率，0到1
+     * the share in use, from 0 to 1
+     * @return
+     */
+    public double getSaturation() {
+        return max <= 0 ? 0 : Math.min(1.0, (double) active / max);
+    }
+
+    @Override
+    public String toString() {
+        return active + "/" + max + ", queued=" + queued;
+    }
+}
@@ -0,0 +1,66 @@
+package com.scienjus.model;
+
+import java.util.List;
+
+/**
+ * Api返回的一页数据
+ * one page returned by the api
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class ApiResponse<T> {
+
+    private String status;
+
+    private List<T> response;
+
+    private Integer count;
+
+    private Pagination pagination;
+
+//    get and set
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public List<T> getResponse() {
+        return response;
+    }
+
+    public void setResponse(List<T> response) {
+        this.response = response;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+
+    public Pagination getPagination() {
+        return pagination;
+    }
+
+    public void setPagination(Pagination pagination) {
+        this.pagination = pagination;
+    }
+
+//    to string
+
+    @Override
+    public String toString() {
+        return "ApiResponse{" +
+                "status='" + status + '\'' +
+                ", response=" + response +
+                ", count=" + count +
+                ", pagination=" + pagination +
+                '}';
+    }
+}
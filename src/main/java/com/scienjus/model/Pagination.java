@@ -0,0 +1,87 @@
+package com.scienjus.model;
+
+import com.alibaba.fastjson.annotation.JSONField;
+
+/**
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class Pagination {
+
+    private Integer previous;
+
+    private Integer next;
+
+    private Integer current;
+
+    @JSONField(name = "per_page")
+    private Integer perPage;
+
+    private Integer total;
+
+    private Integer pages;
+
+//    get and set
+
+    public Integer getPrevious() {
+        return previous;
+    }
+
+    public void setPrevious(Integer previous) {
+        this.previous = previous;
+    }
+
+    public Integer getNext() {
+        return next;
+    }
+
+    public void setNext(Integer next) {
+        this.next = next;
+    }
+
+    public Integer getCurrent() {
+        return current;
+    }
+
+    public void setCurrent(Integer current) {
+        this.current = current;
+    }
+
+    public Integer getPerPage() {
+        return perPage;
+    }
+
+    public void setPerPage(Integer perPage) {
+        this.perPage = perPage;
+    }
+
+    public Integer getTotal() {
+        return total;
+    }
+
+    public void setTotal(Integer total) {
+        this.total = total;
+    }
+
+    public Integer getPages() {
+        return pages;
+    }
+
+    public void setPages(Integer pages) {
+        this.pages = pages;
+    }
+
+//    to string
+
+    @Override
+    public String toString() {
+        return "Pagination{" +
+                "previous=" + previous +
+                ", next=" + next +
+                ", current=" + current +
+                ", perPage=" + perPage +
+                ", total=" + total +
+                ", pages=" + pages +
+                '}';
+    }
+}
@@ -0,0 +1,57 @@
+package com.scienjus.model;
+
+import java.util.Date;
+
+/**
+ * 排行榜的一页，response中的作品直接作为这一页的数据
+ * one page of a ranking, the works inside the response are the items of this page
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class RankPage extends ApiResponse<RankWork> {
+
+    private String content;
+
+    private String mode;
+
+    private Date date;
+
+//    get and set
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public Date getDate() {
+        return date;
+    }
+
+    public void setDate(Date date) {
+        this.date = date;
+    }
+
+//    to string
+
+    @Override
+    public String toString() {
+        return "RankPage{" +
+                "content='" + content + '\'' +
+                ", mode='" + mode + '\'' +
+                ", date=" + date +
+                ", works=" + getResponse() +
+                ", pagination=" + getPagination() +
+                '}';
+    }
+}
@@ -0,0 +1,138 @@
+package com.scienjus.param;
+
+import com.scienjus.config.PixivParserConfig;
+import com.scienjus.download.RejectPolicy;
+import com.scienjus.http.RetryPolicy;
+
+/**
+ * 下载引擎的参数
+ * params of the download engine
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class DownloadParam {
+
+    private int threads = PixivParserConfig.DEFAULT_DOWNLOAD_THREADS;
+
+    private int queueCapacity = PixivParserConfig.DEFAULT_DOWNLOAD_QUEUE_CAPACITY;
+
+    private RejectPolicy rejectPolicy = RejectPolicy.BLOCK;
+
+    private int pageParallelism = PixivParserConfig.DEFAULT_DOWNLOAD_PAGE_PARALLELISM;
+
+    private int maxConnections = PixivParserConfig.DEFAULT_DOWNLOAD_MAX_CONNECTIONS;
+
+    private int maxConnectionsPerRoute = PixivParserConfig.DEFAULT_DOWNLOAD_MAX_CONNECTIONS_PER_ROUTE;
+
+    private double rateLimit = PixivParserConfig.DEFAULT_IMAGE_RATE_LIMIT;
+
+    private RetryPolicy retryPolicy = new RetryPolicy();
+
+    public DownloadParam withThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    public DownloadParam withQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be positive: " + queueCapacity);
+        }
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    public DownloadParam withRejectPolicy(RejectPolicy rejectPolicy) {
+        if (rejectPolicy == null) {
+            throw new IllegalArgumentException("rejectPolicy must not be null");
+        }
+        this.rejectPolicy = rejectPolicy;
+        return this;
+    }
+
+    public DownloadParam withPageParallelism(int pageParallelism) {
+        if (pageParallelism < 1) {
+            throw new IllegalArgumentException("pageParallelism must be positive: " + pageParallelism);
+        }
+        this.pageParallelism = pageParallelism;
+        return this;
+    }
+
+    public DownloadParam withMaxConnections(int maxConnections) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections must be positive: " + maxConnections);
+        }
+        this.maxConnections = maxConnections;
+        return this;
+    }
+
+    public DownloadParam withMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        if (maxConnectionsPerRoute < 1) {
+            throw new IllegalArgumentException("maxConnectionsPerRoute must be positive: " + maxConnectionsPerRoute);
+        }
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        return this;
+    }
+
+    /**
+     * 每秒请求图片的上限
+     * the max image requests per second
+     * @param rateLimit
+     * @return
+     */
+    public DownloadParam withRateLimit(double rateLimit) {
+        if (!(rateLimit > 0)) {
+            throw new IllegalArgumentException("rateLimit must be positive: " + rateLimit);
+        }
+        this.rateLimit = rateLimit;
+        return this;
+    }
+
+    /**
+     * 图片下载的重试策略
+     * the retry policy of image downloads
+     * @param retryPolicy
+     * @return
+     */
+    public DownloadParam withRetryPolicy(RetryPolicy retryPolicy) {
+        if (retryPolicy == null) {
+            throw new IllegalArgumentException("retryPolicy must not be null");
+        }
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public RejectPolicy getRejectPolicy() {
+        return rejectPolicy;
+    }
+
+    public int getPageParallelism() {
+        return pageParallelism;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public double getRateLimit() {
+        return rateLimit;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+}
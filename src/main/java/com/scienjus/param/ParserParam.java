@@ -2,6 +2,7 @@ package com.scienjus.param;
 
 import com.scienjus.callback.WorkCallback;
 import com.scienjus.config.PixivParserConfig;
+import com.scienjus.filter.FilterCompiler;
 import com.scienjus.filter.WorkFilter;
 
 /**
@@ -16,6 +17,8 @@ public class ParserParam {
 
     private WorkCallback callback;
 
+    private int concurrency;
+
     public ParserParam withLimit(int limit) {
         this.limit = limit;
         return this;
@@ -26,11 +29,37 @@ public class ParserParam {
         return this;
     }
 
+    /**
+     * 使用过滤表达式，语法见FilterCompiler
+     * filter with an expression, see FilterCompiler for the syntax
+     * @param expression
+     * @return
+     * @throws com.scienjus.filter.FilterSyntaxException if the expression is malformed
+     */
+    public ParserParam withFilter(String expression) {
+        this.filter = FilterCompiler.compile(expression);
+        return this;
+    }
+
     public ParserParam withCallback(WorkCallback callback) {
         this.callback = callback;
         return this;
     }
 
+    /**
+     * 同时请求的页数，不指定时使用客户端的设置
+     * pages requested at the same time, the client's setting is used when not set
+     * @param concurrency
+     * @return
+     */
+    public ParserParam withConcurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be positive: " + concurrency);
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
     public int getLimit() {
         return limit;
     }
@@ -42,4 +71,8 @@ public class ParserParam {
     public WorkCallback getCallback() {
         return callback;
     }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
 }
@@ -0,0 +1,84 @@
+package com.scienjus.store;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * 持久化的作者高水位：每个作者已经见过的最新作品id，用于增量地获取作者的作品
+ * persistent per-author high-water marks: the newest work id seen for each author, used to fetch an author's works incrementally
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class AuthorWatermarks implements Closeable {
+
+    /**
+     * 没有记录的作者的高水位
+     * the mark of an author never seen
+     */
+    public static final int NONE = 0;
+
+    private final MappedIndex index;
+
+    private AuthorWatermarks(MappedIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * 打开高水位文件，不存在时创建
+     * open the watermark file, created when absent
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static AuthorWatermarks open(File file) throws IOException {
+        return new AuthorWatermarks(MappedIndex.open(file));
+    }
+
+    /**
+     * 作者已经见过的最新作品id，没有时返回NONE
+     * the newest work id seen for the author, NONE when never seen
+     * @param authorId
+     * @return
+     */
+    public int get(int authorId) {
+        long mark = index.get(authorId);
+        return mark == MappedIndex.MISSING ? NONE : (int) mark;
+    }
+
+    /**
+     * 将高水位推进到workId，不会后退
+     * advance the mark to workId, it never moves back
+     * @param authorId
+     * @param workId
+     * @throws IOException
+     */
+    public synchronized void advance(int authorId, int workId) throws IOException {
+        if (workId > get(authorId)) {
+            index.put(authorId, workId);
+        }
+    }
+
+    /**
+     * 清除作者的高水位，下次会重新获取所有作品
+     * reset the author's mark, all works are fetched again next time
+     * @param authorId
+     * @throws IOException
+     */
+    public void reset(int authorId) throws IOException {
+        index.put(authorId, NONE);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public void flush() {
+        index.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        index.close();
+    }
+}
@@ -0,0 +1,284 @@
+package com.scienjus.store;
+
+import com.scienjus.config.PixivParserConfig;
+import com.scienjus.download.FileImageSink;
+import com.scienjus.download.ResumableImageSink;
+import com.scienjus.model.Work;
+import org.apache.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 按内容寻址的图片存储，以作品id、页码和图片url为键，已经存在的图片下载时不会发送请求
+ * a content-addressed image store keyed by work id, page and image url, images already stored are skipped without any request
+ * <p>
+ * 图片保存为objects/{sha1前两位}/{sha1}{扩展名}，内容相同的图片只保存一份。
+ * images.dat记录每个键的大小和SHA-1，images.idx是映射到内存的键到记录位置的索引，每个键只占16字节。
+ * images are kept as objects/{first two chars of sha1}/{sha1}{ext}, identical content is kept once.
+ * images.dat records the size and SHA-1 of each key, images.idx is a memory-mapped index from key to record offset taking 16 bytes per key.
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class ImageStore implements ResumableImageSink, Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(ImageStore.class);
+
+    static final String DATA_FILE = "images.dat";
+
+    static final String INDEX_FILE = "images.idx";
+
+    static final String OBJECTS = "objects";
+
+    /**
+     * 下载中的图片，完成后移动到objects
+     * images being downloaded, moved into objects when finished
+     */
+    static final String STAGING = "staging";
+
+    private static final int SHA1_SIZE = 20;
+
+    /**
+     * 记录内容：键、作品id、页码、大小、SHA-1，之后是url
+     * record payload: key, work id, page, size, SHA-1, then the url
+     */
+    private static final int FIXED_SIZE = 8 + 4 + 4 + 8 + SHA1_SIZE;
+
+    private static final IndexedLog.KeyReader KEYS = new IndexedLog.KeyReader() {
+        @Override
+        public long key(byte[] payload) {
+            return ByteBuffer.wrap(payload).getLong();
+        }
+    };
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final File directory;
+
+    private final IndexedLog log;
+
+    private ImageStore(File directory, IndexedLog log) {
+        this.directory = directory;
+        this.log = log;
+    }
+
+    /**
+     * 打开目录中的存储，不存在时创建
+     * open the store in a directory, created when absent
+     * @param directory
+     * @return
+     * @throws IOException
+     */
+    public static ImageStore open(File directory) throws IOException {
+        return new ImageStore(directory,
+                IndexedLog.open(new File(directory, DATA_FILE), new File(directory, INDEX_FILE), KEYS));
+    }
+
+    /**
+     * 获得存储的图片，不存在时返回null
+     * get a stored image, null when absent
+     * @param workId
+     * @param page
+     * @param url
+     * @return
+     * @throws IOException
+     */
+    public StoredImage get(int workId, int page, String url) throws IOException {
+        byte[] payload = log.get(key(workId, page, url));
+        if (payload == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        buffer.getLong();
+        int storedWorkId = buffer.getInt();
+        int storedPage = buffer.getInt();
+        long size = buffer.getLong();
+        byte[] sha1 = new byte[SHA1_SIZE];
+        buffer.get(sha1);
+        String storedUrl = new String(payload, FIXED_SIZE, payload.length - FIXED_SIZE, PixivParserConfig.CHARSET);
+        //键是哈希值，冲突时视为不存在
+        if (storedWorkId != workId || storedPage != page || !storedUrl.equals(url)) {
+            return null;
+        }
+        String hex = hex(sha1);
+        return new StoredImage(workId, page, url, objectFile(hex, url), size, hex);
+    }
+
+    /**
+     * 图片是否已经存储
+     * whether the image is stored
+     * @param workId
+     * @param page
+     * @param url
+     * @return
+     * @throws IOException
+     */
+    public boolean contains(int workId, int page, String url) throws IOException {
+        StoredImage image = get(workId, page, url);
+        return image != null && image.getFile().exists();
+    }
+
+    /**
+     * 存储的图片数
+     * number of stored images
+     * @return
+     */
+    public int size() {
+        return log.size();
+    }
+
+    @Override
+    public WritableByteChannel open(Work work, int page, String url) throws IOException {
+        File file = stagingFile(work, page, url);
+        File parent = file.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("无法创建目录：" + parent);
+        }
+        return new FileOutputStream(file).getChannel();
+    }
+
+    /**
+     * 已经存储的图片返回它的文件，否则返回下载用的临时文件
+     * the file of a stored image, otherwise the staging file to download into
+     * @param work
+     * @param page
+     * @param url
+     * @return
+     */
+    @Override
+    public File locate(Work work, int page, String url) {
+        try {
+            StoredImage image = get(work.getId(), page, url);
+            if (image != null && image.getFile().exists()) {
+                return image.getFile();
+            }
+        } catch (IOException e) {
+            LOGGER.warn("读取图片索引失败：" + e.getMessage());
+        }
+        return stagingFile(work, page, url);
+    }
+
+    /**
+     * 计算SHA-1，移动到objects并写入记录，相同内容已经存在时删除临时文件。已经存储的图片直接返回
+     * compute the SHA-1, move into objects and write the record, the staging file is deleted when the content already exists.
+     * an image already stored is returned as is
+     * @param work
+     * @param page
+     * @param url
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    @Override
+    public File onCompleted(Work work, int page, String url, File file) throws IOException {
+        StoredImage stored = get(work.getId(), page, url);
+        if (stored != null && stored.getFile().equals(file)) {
+            return file;
+        }
+        byte[] sha1 = sha1(file);
+        long size = file.length();
+        File object = objectFile(hex(sha1), url);
+        synchronized (this) {
+            if (object.exists()) {
+                Files.delete(file.toPath());
+            } else {
+                File parent = object.getParentFile();
+                if (!parent.isDirectory() && !parent.mkdirs()) {
+                    throw new IOException("无法创建目录：" + parent);
+                }
+                Files.move(file.toPath(), object.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            }
+            long key = key(work.getId(), page, url);
+            byte[] urlBytes = url.getBytes(PixivParserConfig.CHARSET);
+            log.put(key, ByteBuffer.allocate(FIXED_SIZE + urlBytes.length)
+                    .putLong(key).putInt(work.getId()).putInt(page).putLong(size).put(sha1).put(urlBytes)
+                    .array());
+        }
+        return object;
+    }
+
+    /**
+     * 将记录和索引写入磁盘
+     * force the records and the index to disk
+     * @throws IOException
+     */
+    public void flush() throws IOException {
+        log.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    private File objectFile(String sha1, String url) {
+        return new File(new File(new File(directory, OBJECTS), sha1.substring(0, 2)), sha1 + FileImageSink.extension(url));
+    }
+
+    private File stagingFile(Work work, int page, String url) {
+        long key = key(work.getId(), page, url);
+        return new File(new File(directory, STAGING),
+                work.getId() + "_p" + page + "_" + Long.toHexString(key) + FileImageSink.extension(url));
+    }
+
+    /**
+     * 作品id、页码和url的64位FNV-1a哈希，0保留给空槽位
+     * 64-bit FNV-1a hash of the work id, page and url, 0 is reserved for empty slots
+     */
+    static long key(int workId, int page, String url) {
+        long hash = 0xcbf29ce484222325L;
+        hash = fnv(hash, workId);
+        hash = fnv(hash, page);
+        for (byte b : url.getBytes(PixivParserConfig.CHARSET)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static long fnv(long hash, int value) {
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static byte[] sha1(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = new FileInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+}
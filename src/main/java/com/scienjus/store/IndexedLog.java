@@ -0,0 +1,143 @@
+package com.scienjus.store;
+
+import org.apache.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * 记录文件加上映射到内存的键到记录位置的索引。索引记录了它覆盖的文件长度，打开时会补上之后追加的记录
+ * a record log plus a memory-mapped index from key to record offset. the index remembers how much of the log it covers, records appended after that are indexed on open
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+final class IndexedLog implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(IndexedLog.class);
+
+    private final RecordLog log;
+
+    private final MappedIndex index;
+
+    private IndexedLog(RecordLog log, MappedIndex index) {
+        this.log = log;
+        this.index = index;
+    }
+
+    /**
+     * 打开记录文件和索引，索引损坏时从记录文件重建
+     * open the log and its index, a corrupt index is rebuilt from the log
+     * @param logFile
+     * @param indexFile
+     * @param keys reads the key of a record
+     * @return
+     * @throws IOException
+     */
+    static IndexedLog open(File logFile, File indexFile, final KeyReader keys) throws IOException {
+        File directory = logFile.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("无法创建目录：" + directory);
+        }
+        MappedIndex index;
+        try {
+            index = MappedIndex.open(indexFile);
+        } catch (IOException e) {
+            LOGGER.warn(e.getMessage() + "，重建索引");
+            index = recreate(indexFile);
+        }
+        RecordLog log;
+        try {
+            log = new RecordLog(logFile);
+        } catch (IOException e) {
+            index.close();
+            throw e;
+        }
+        try {
+            long from = index.getMark();
+            if (from > log.end()) {
+                //记录文件比索引短，索引中可能有指向被截掉部分的条目，丢弃索引后从头扫描
+                LOGGER.warn(indexFile + "与" + logFile + "不一致，重建索引");
+                index.close();
+                index = recreate(indexFile);
+                from = 0;
+            }
+            final MappedIndex opened = index;
+            long end = log.recover(from, new RecordLog.RecordVisitor() {
+                @Override
+                public void visit(long offset, byte[] payload) throws IOException {
+                    opened.put(keys.key(payload), offset);
+                }
+            });
+            index.setMark(end);
+        } catch (IOException e) {
+            log.close();
+            index.close();
+            throw e;
+        }
+        return new IndexedLog(log, index);
+    }
+
+    /**
+     * 删除索引文件后创建一个空的索引
+     * delete the index file and create an empty index
+     */
+    private static MappedIndex recreate(File indexFile) throws IOException {
+        if (indexFile.exists() && !indexFile.delete()) {
+            throw new IOException("无法删除索引文件：" + indexFile);
+        }
+        return MappedIndex.open(indexFile);
+    }
+
+    /**
+     * 读取键对应的最新记录，不存在时返回null
+     * read the latest record of a key, null when absent
+     * @param key
+     * @return
+     * @throws IOException
+     */
+    byte[] get(long key) throws IOException {
+        long offset = index.get(key);
+        return offset == MappedIndex.MISSING ? null : log.read(offset);
+    }
+
+    boolean contains(long key) {
+        return index.contains(key);
+    }
+
+    /**
+     * 追加一条记录，同一个键的旧记录会被代替
+     * append a record, an older record of the same key is superseded
+     * @param key
+     * @param payload
+     * @throws IOException
+     */
+    synchronized void put(long key, byte[] payload) throws IOException {
+        long offset = log.append(payload);
+        index.put(key, offset);
+        index.setMark(log.end());
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    synchronized void force() throws IOException {
+        log.force();
+        index.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            log.close();
+        } finally {
+            index.close();
+        }
+    }
+
+    interface KeyReader {
+
+        long key(byte[] payload);
+    }
+}
@@ -0,0 +1,246 @@
+package com.scienjus.store;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 映射到内存的long到long的哈希索引，使用开放寻址，查找时不需要反序列化
+ * a memory-mapped long to long hash index with open addressing, lookups need no deserialization
+ * <p>
+ * 文件格式：魔数、容量、数量、保留字段、调用者的标记，之后是容量个（键，值）槽位，键为0表示空槽位
+ * file layout: magic, capacity, size, reserved, the caller's mark, then capacity (key, value) slots, key 0 marks an empty slot
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+final class MappedIndex implements Closeable {
+
+    /**
+     * 不存在的键返回的值
+     * the value returned for an absent key
+     */
+    static final long MISSING = -1;
+
+    private static final int MAGIC = 0x50584931;
+
+    private static final int HEADER_SIZE = 24;
+
+    private static final int SLOT_SIZE = 16;
+
+    private static final int CAPACITY_OFFSET = 4;
+
+    private static final int SIZE_OFFSET = 8;
+
+    private static final int MARK_OFFSET = 16;
+
+    private static final int MIN_CAPACITY = 1024;
+
+    private final File file;
+
+    private RandomAccessFile raf;
+
+    private MappedByteBuffer buffer;
+
+    private int capacity;
+
+    private int size;
+
+    private MappedIndex(File file) {
+        this.file = file;
+    }
+
+    /**
+     * 打开索引文件，不存在时创建
+     * open an index file, created when absent
+     * @param file
+     * @return
+     * @throws IOException the file exists but is not a valid index
+     */
+    static MappedIndex open(File file) throws IOException {
+        MappedIndex index = new MappedIndex(file);
+        if (file.exists()) {
+            index.map();
+        } else {
+            index.create(MIN_CAPACITY);
+        }
+        return index;
+    }
+
+    synchronized long get(long key) {
+        checkKey(key);
+        int slot = find(key);
+        return slot >= 0 ? MISSING : buffer.getLong(slotOffset(-slot - 1) + 8);
+    }
+
+    synchronized boolean contains(long key) {
+        checkKey(key);
+        return find(key) < 0;
+    }
+
+    synchronized void put(long key, long value) throws IOException {
+        checkKey(key);
+        int slot = find(key);
+        if (slot < 0) {
+            buffer.putLong(slotOffset(-slot - 1) + 8, value);
+            return;
+        }
+        if ((size + 1) * 4L > capacity * 3L) {
+            grow();
+            slot = find(key);
+        }
+        insert(slot, key, value);
+        buffer.putInt(SIZE_OFFSET, size);
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 调用者保存的标记，例如索引覆盖的数据文件长度
+     * a mark kept for the caller, e.g. the data file length covered by the index
+     * @return
+     */
+    synchronized long getMark() {
+        return buffer.getLong(MARK_OFFSET);
+    }
+
+    synchronized void setMark(long mark) {
+        buffer.putLong(MARK_OFFSET, mark);
+    }
+
+    /**
+     * 遍历所有键值对
+     * visit every entry
+     * @param visitor
+     */
+    synchronized void forEach(EntryVisitor visitor) {
+        for (int i = 0; i < capacity; i++) {
+            long key = buffer.getLong(slotOffset(i));
+            if (key != 0) {
+                visitor.visit(key, buffer.getLong(slotOffset(i) + 8));
+            }
+        }
+    }
+
+    synchronized void force() {
+        buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        raf.close();
+    }
+
+    /**
+     * 查找键所在的槽位
+     * find the slot of a key
+     * @return -(slot + 1) when found, otherwise the empty slot to insert into
+     */
+    private int find(long key) {
+        int mask = capacity - 1;
+        int slot = hash(key) & mask;
+        while (true) {
+            long current = buffer.getLong(slotOffset(slot));
+            if (current == key) {
+                return -slot - 1;
+            }
+            if (current == 0) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void insert(int slot, long key, long value) {
+        buffer.putLong(slotOffset(slot), key);
+        buffer.putLong(slotOffset(slot) + 8, value);
+        size++;
+    }
+
+    /**
+     * 容量翻倍，写入新文件后替换旧文件
+     * double the capacity, written to a new file which then replaces the old one
+     */
+    private void grow() throws IOException {
+        MappedByteBuffer old = buffer;
+        int oldCapacity = capacity;
+        long mark = getMark();
+        File tmp = new File(file.getPath() + ".tmp");
+        MappedIndex grown = new MappedIndex(tmp);
+        grown.create(oldCapacity * 2);
+        for (int i = 0; i < oldCapacity; i++) {
+            long key = old.getLong(slotOffset(i));
+            if (key != 0) {
+                grown.insert(grown.find(key), key, old.getLong(slotOffset(i) + 8));
+            }
+        }
+        grown.buffer.putInt(SIZE_OFFSET, grown.size);
+        grown.setMark(mark);
+        grown.close();
+        raf.close();
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        map();
+    }
+
+    private void create(int capacity) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("无法创建目录：" + parent);
+        }
+        raf = new RandomAccessFile(file, "rw");
+        raf.setLength(0);
+        raf.setLength(HEADER_SIZE + (long) capacity * SLOT_SIZE);
+        buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length());
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putInt(SIZE_OFFSET, 0);
+        this.capacity = capacity;
+        this.size = 0;
+    }
+
+    private void map() throws IOException {
+        raf = new RandomAccessFile(file, "rw");
+        long length = raf.length();
+        if (length < HEADER_SIZE) {
+            raf.close();
+            throw new IOException("索引文件已损坏：" + file);
+        }
+        buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+        capacity = buffer.getInt(CAPACITY_OFFSET);
+        size = buffer.getInt(SIZE_OFFSET);
+        if (buffer.getInt(0) != MAGIC || capacity < MIN_CAPACITY || Integer.bitCount(capacity) != 1
+                || length != HEADER_SIZE + (long) capacity * SLOT_SIZE || size < 0 || size > capacity) {
+            raf.close();
+            throw new IOException("索引文件已损坏：" + file);
+        }
+    }
+
+    private static int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    private static void checkKey(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("key must not be 0");
+        }
+    }
+
+    interface EntryVisitor {
+
+        void visit(long key, long value);
+    }
+}
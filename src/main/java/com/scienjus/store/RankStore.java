@@ -0,0 +1,126 @@
+package com.scienjus.store;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.scienjus.model.Rank;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * 持久化的每日排行榜历史，以日期为键
+ * a persistent history of daily rankings, keyed by day
+ * <p>
+ * 排行榜以JSON追加写入ranks.dat，ranks.idx是映射到内存的日期（yyyyMMdd）到记录位置的索引
+ * rankings are appended as JSON to ranks.dat, ranks.idx is a memory-mapped index from the day (yyyyMMdd) to record offset
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class RankStore implements Closeable {
+
+    static final String DATA_FILE = "ranks.dat";
+
+    static final String INDEX_FILE = "ranks.idx";
+
+    /**
+     * 记录内容：日期，之后是JSON
+     * record payload: the day followed by the JSON
+     */
+    private static final IndexedLog.KeyReader KEYS = new IndexedLog.KeyReader() {
+        @Override
+        public long key(byte[] payload) {
+            return ByteBuffer.wrap(payload).getInt();
+        }
+    };
+
+    private final IndexedLog log;
+
+    private RankStore(IndexedLog log) {
+        this.log = log;
+    }
+
+    /**
+     * 打开目录中的存储，不存在时创建
+     * open the store in a directory, created when absent
+     * @param directory
+     * @return
+     * @throws IOException
+     */
+    public static RankStore open(File directory) throws IOException {
+        return new RankStore(IndexedLog.open(new File(directory, DATA_FILE), new File(directory, INDEX_FILE), KEYS));
+    }
+
+    /**
+     * 获得某天的排行榜，不存在时返回null
+     * get the ranking of a day, null when absent
+     * @param date
+     * @return
+     * @throws IOException
+     */
+    public Rank get(Date date) throws IOException {
+        int day = day(date);
+        byte[] payload = log.get(day);
+        if (payload == null) {
+            return null;
+        }
+        if (KEYS.key(payload) != day) {
+            throw new IOException(day + "的排行榜记录已损坏");
+        }
+        try {
+            return JSON.parseObject(Arrays.copyOfRange(payload, 4, payload.length), Rank.class);
+        } catch (JSONException e) {
+            throw new IOException(day + "的排行榜记录解析失败：" + e.getMessage(), e);
+        }
+    }
+
+    public boolean contains(Date date) {
+        return log.contains(day(date));
+    }
+
+    /**
+     * 保存某天的排行榜，已存在时旧的记录会被代替
+     * save the ranking of a day, an existing record is superseded
+     * @param date
+     * @param rank
+     * @throws IOException
+     */
+    public void put(Date date, Rank rank) throws IOException {
+        int day = day(date);
+        byte[] json = JSON.toJSONBytes(rank);
+        log.put(day, ByteBuffer.allocate(4 + json.length).putInt(day).put(json).array());
+    }
+
+    /**
+     * 保存的天数
+     * number of stored days
+     * @return
+     */
+    public int size() {
+        return log.size();
+    }
+
+    public void flush() throws IOException {
+        log.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    /**
+     * 日期转为yyyyMMdd
+     * a date as yyyyMMdd
+     */
+    static int day(Date date) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        return calendar.get(Calendar.YEAR) * 10000 + (calendar.get(Calendar.MONTH) + 1) * 100
+                + calendar.get(Calendar.DAY_OF_MONTH);
+    }
+}
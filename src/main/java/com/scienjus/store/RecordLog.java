@@ -0,0 +1,147 @@
+package com.scienjus.store;
+
+import org.apache.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * 只追加的记录文件，每条记录为：长度、CRC32、内容
+ * an append-only file of records, each one is: length, CRC32, payload
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+final class RecordLog implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(RecordLog.class);
+
+    private static final int HEADER_SIZE = 8;
+
+    private final File file;
+
+    private final FileChannel channel;
+
+    /**
+     * 文件的长度，即下一条记录的位置
+     * length of the file, which is where the next record goes
+     */
+    private long end;
+
+    RecordLog(File file) throws IOException {
+        this.file = file;
+        this.channel = new RandomAccessFile(file, "rw").getChannel();
+        this.end = channel.size();
+    }
+
+    /**
+     * 追加一条记录
+     * append a record
+     * @param payload
+     * @return the offset of the record
+     * @throws IOException
+     */
+    synchronized long append(byte[] payload) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        record.putInt(payload.length).putInt(crc(payload)).put(payload);
+        record.flip();
+        long offset = end;
+        while (record.hasRemaining()) {
+            channel.write(record, offset + record.position());
+        }
+        end = offset + record.limit();
+        return offset;
+    }
+
+    /**
+     * 读取一条记录的内容
+     * read the payload of a record
+     * @param offset
+     * @return
+     * @throws IOException the record is torn or corrupt
+     */
+    byte[] read(long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, offset);
+        header.flip();
+        int length = header.getInt();
+        int crc = header.getInt();
+        if (length < 0 || offset + HEADER_SIZE + length > channel.size()) {
+            throw new IOException(file + "中位于" + offset + "的记录已损坏");
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(payload, offset + HEADER_SIZE);
+        if (crc != crc(payload.array())) {
+            throw new IOException(file + "中位于" + offset + "的记录校验失败");
+        }
+        return payload.array();
+    }
+
+    /**
+     * 从from开始遍历记录，遇到不完整的记录时截断文件
+     * visit the records from `from` on, the file is truncated at a torn record
+     * @param from
+     * @param visitor
+     * @return the end of the file
+     * @throws IOException
+     */
+    synchronized long recover(long from, RecordVisitor visitor) throws IOException {
+        long size = channel.size();
+        long position = from;
+        while (position + HEADER_SIZE <= size) {
+            byte[] payload;
+            try {
+                payload = read(position);
+            } catch (IOException e) {
+                break;
+            }
+            visitor.visit(position, payload);
+            position += HEADER_SIZE + payload.length;
+        }
+        if (position < size) {
+            LOGGER.warn(file + "有不完整的记录，截断到" + position);
+            channel.truncate(position);
+        }
+        end = position;
+        return end;
+    }
+
+    synchronized long end() {
+        return end;
+    }
+
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.force(false);
+        }
+        channel.close();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException(file + "意外结束");
+            }
+        }
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    interface RecordVisitor {
+
+        void visit(long offset, byte[] payload) throws IOException;
+    }
+}
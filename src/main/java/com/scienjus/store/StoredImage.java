@@ -0,0 +1,78 @@
+package com.scienjus.store;
+
+import java.io.File;
+
+/**
+ * 图片存储中的一张图片
+ * one image in the image store
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class StoredImage {
+
+    private final int workId;
+
+    private final int page;
+
+    private final String url;
+
+    private final File file;
+
+    private final long size;
+
+    private final String sha1;
+
+    StoredImage(int workId, int page, String url, File file, long size, String sha1) {
+        this.workId = workId;
+        this.page = page;
+        this.url = url;
+        this.file = file;
+        this.size = size;
+        this.sha1 = sha1;
+    }
+
+//    get
+
+    public int getWorkId() {
+        return workId;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * 以内容的SHA-1命名的文件，内容相同的图片共用一个文件
+     * the file named by the SHA-1 of its content, images with the same content share one file
+     * @return
+     */
+    public File getFile() {
+        return file;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getSha1() {
+        return sha1;
+    }
+
+//    to string
+
+    @Override
+    public String toString() {
+        return "StoredImage{" +
+                "workId=" + workId +
+                ", page=" + page +
+                ", url='" + url + '\'' +
+                ", file=" + file +
+                ", size=" + size +
+                ", sha1='" + sha1 + '\'' +
+                '}';
+    }
+}
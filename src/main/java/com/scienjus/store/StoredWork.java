@@ -0,0 +1,46 @@
+package com.scienjus.store;
+
+import com.scienjus.model.Work;
+
+/**
+ * 作品存储中的一件作品，以及它从api获取的时间
+ * one work in the work store together with when it was fetched from the api
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class StoredWork {
+
+    private final Work work;
+
+    private final long fetchedAt;
+
+    StoredWork(Work work, long fetchedAt) {
+        this.work = work;
+        this.fetchedAt = fetchedAt;
+    }
+
+//    get
+
+    public Work getWork() {
+        return work;
+    }
+
+    /**
+     * 从api获取的时间（毫秒）
+     * milliseconds when the work was fetched from the api
+     * @return
+     */
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+//    to string
+
+    @Override
+    public String toString() {
+        return "StoredWork{" +
+                "work=" + work +
+                ", fetchedAt=" + fetchedAt +
+                '}';
+    }
+}
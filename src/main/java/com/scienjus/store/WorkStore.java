@@ -0,0 +1,148 @@
+package com.scienjus.store;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.scienjus.model.Work;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 持久化的作品详情存储，重启后仍然可用
+ * a persistent store of work details that survives restarts
+ * <p>
+ * 作品以JSON追加写入works.dat，works.idx是映射到内存的作品id到记录位置的索引。
+ * 索引记录了它覆盖的数据文件长度，打开时会补上之后追加的记录，截掉写了一半的记录。
+ * works are appended as JSON to works.dat, works.idx is a memory-mapped index from work id to record offset.
+ * the index remembers how much of the data file it covers, records appended after that are indexed on open and a torn record is truncated.
+ * @author Scienjus
+ * @date 2026/10/18.
+ */
+public class WorkStore implements Closeable {
+
+    static final String DATA_FILE = "works.dat";
+
+    static final String INDEX_FILE = "works.idx";
+
+    /**
+     * 记录内容：作品id、获取时间，之后是JSON
+     * record payload: the work id, the fetch time, then the JSON
+     */
+    private static final IndexedLog.KeyReader KEYS = new IndexedLog.KeyReader() {
+        @Override
+        public long key(byte[] payload) {
+            return ByteBuffer.wrap(payload).getInt();
+        }
+    };
+
+    private static final int HEADER_SIZE = 12;
+
+    private final IndexedLog log;
+
+    private WorkStore(IndexedLog log) {
+        this.log = log;
+    }
+
+    /**
+     * 打开目录中的存储，不存在时创建
+     * open the store in a directory, created when absent
+     * @param directory
+     * @return
+     * @throws IOException
+     */
+    public static WorkStore open(File directory) throws IOException {
+        return new WorkStore(IndexedLog.open(new File(directory, DATA_FILE), new File(directory, INDEX_FILE), KEYS));
+    }
+
+    /**
+     * 获得作品，不存在时返回null
+     * get a work, null when absent
+     * @param workId
+     * @return
+     * @throws IOException
+     */
+    public Work get(int workId) throws IOException {
+        StoredWork stored = getStored(workId);
+        return stored == null ? null : stored.getWork();
+    }
+
+    /**
+     * 获得作品以及它的获取时间，不存在时返回null
+     * get a work with its fetch time, null when absent
+     * @param workId
+     * @return
+     * @throws IOException
+     */
+    public StoredWork getStored(int workId) throws IOException {
+        byte[] payload = log.get(workId);
+        if (payload == null) {
+            return null;
+        }
+        if (payload.length < HEADER_SIZE || KEYS.key(payload) != workId) {
+            throw new IOException("作品" + workId + "的记录已损坏");
+        }
+        long fetchedAt = ByteBuffer.wrap(payload, 4, 8).getLong();
+        try {
+            Work work = JSON.parseObject(Arrays.copyOfRange(payload, HEADER_SIZE, payload.length), Work.class);
+            return new StoredWork(work, fetchedAt);
+        } catch (JSONException e) {
+            throw new IOException("作品" + workId + "的记录解析失败：" + e.getMessage(), e);
+        }
+    }
+
+    public boolean contains(int workId) {
+        return log.contains(workId);
+    }
+
+    /**
+     * 写入刚从api获取的作品，已存在时旧的记录会被新记录代替
+     * write a work just fetched from the api, an existing record is superseded by the new one
+     * @param work
+     * @throws IOException
+     */
+    public void put(Work work) throws IOException {
+        put(work, System.currentTimeMillis());
+    }
+
+    /**
+     * 写入作品，已存在时旧的记录会被新记录代替
+     * write a work, an existing record is superseded by the new one
+     * @param work
+     * @param fetchedAt milliseconds when the work was fetched from the api
+     * @throws IOException
+     */
+    public void put(Work work, long fetchedAt) throws IOException {
+        if (fetchedAt < 0) {
+            throw new IllegalArgumentException("fetchedAt must not be negative");
+        }
+        byte[] json = JSON.toJSONBytes(work);
+        log.put(work.getId(), ByteBuffer.allocate(HEADER_SIZE + json.length)
+                .putInt(work.getId()).putLong(fetchedAt).put(json).array());
+    }
+
+    /**
+     * 存储的作品数
+     * number of stored works
+     * @return
+     */
+    public int size() {
+        return log.size();
+    }
+
+    /**
+     * 将数据和索引写入磁盘
+     * force the data and the index to disk
+     * @throws IOException
+     */
+    public void flush() throws IOException {
+        log.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+}